@@ -0,0 +1,36 @@
+package com.bright.cloudbenchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * 基准测试入口
+ * 默认开启GC与内存分配统计[gc.alloc.rate.norm即每次操作分配的字节数]，结果以JSON格式输出，
+ * 便于不同版本之间比较回归
+ *
+ * 用法：java -jar cloud-benchmarks/target/benchmarks.jar [JMH命令行参数]
+ * 结果文件：-Djmh.result=xxx.json，默认为当前目录下的jmh-result.json；
+ * 命令行指定了-rf/-rff时以命令行为准
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions cmd = new CommandLineOptions(args);
+        ChainedOptionsBuilder builder = new OptionsBuilder()
+                .parent(cmd)
+                .addProfiler(GCProfiler.class);
+        if (!cmd.getResultFormat().hasValue()) {
+            builder.resultFormat(ResultFormatType.JSON);
+        }
+        if (!cmd.getResult().hasValue()) {
+            builder.result(System.getProperty("jmh.result", "jmh-result.json"));
+        }
+        new Runner(builder.build()).run();
+    }
+}
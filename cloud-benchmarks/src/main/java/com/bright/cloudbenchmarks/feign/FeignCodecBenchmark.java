@@ -0,0 +1,123 @@
+package com.bright.cloudbenchmarks.feign;
+
+import feign.RequestTemplate;
+import feign.Response;
+import feign.codec.Decoder;
+import feign.codec.Encoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.ObjectFactory;
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
+import org.springframework.cloud.openfeign.support.ResponseEntityDecoder;
+import org.springframework.cloud.openfeign.support.SpringDecoder;
+import org.springframework.cloud.openfeign.support.SpringEncoder;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Feign编解码基准测试，使用与cloud-consumer相同的SpringEncoder/SpringDecoder组合
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FeignCodecBenchmark {
+
+    private static final Type MAP_TYPE = new ParameterizedTypeReference<Map<String, Object>>() {
+    }.getType();
+
+    private Encoder encoder;
+
+    private Decoder decoder;
+
+    private Map<String, Object> payload;
+
+    private byte[] textBody;
+
+    private byte[] jsonBody;
+
+    private Map<String, Collection<String>> textHeaders;
+
+    private Map<String, Collection<String>> jsonHeaders;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        HttpMessageConverters converters = new HttpMessageConverters();
+        ObjectFactory<HttpMessageConverters> factory = () -> converters;
+        encoder = new SpringEncoder(factory);
+        decoder = new ResponseEntityDecoder(new SpringDecoder(factory));
+
+        payload = new LinkedHashMap<String, Object>();
+        payload.put("uid", 10001L);
+        payload.put("name", "bright");
+        payload.put("realIp", "192.168.0.1");
+        payload.put("tags", new String[]{"a", "b", "c"});
+
+        textBody = "Hello, cloud-provider".getBytes(StandardCharsets.UTF_8);
+        RequestTemplate template = new RequestTemplate();
+        template.header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE);
+        encoder.encode(payload, MAP_TYPE, template);
+        jsonBody = template.body();
+
+        textHeaders = contentType(MediaType.TEXT_PLAIN_VALUE);
+        jsonHeaders = contentType(MediaType.APPLICATION_JSON_VALUE);
+    }
+
+    @Benchmark
+    public RequestTemplate encodeJson() {
+        RequestTemplate template = new RequestTemplate();
+        template.header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE);
+        encoder.encode(payload, MAP_TYPE, template);
+        return template;
+    }
+
+    /**
+     * InfoClient.info()的返回值解码
+     */
+    @Benchmark
+    public Object decodeText() throws IOException {
+        return decoder.decode(response(textHeaders, textBody), String.class);
+    }
+
+    @Benchmark
+    public Object decodeJson() throws IOException {
+        return decoder.decode(response(jsonHeaders, jsonBody), MAP_TYPE);
+    }
+
+    private static Response response(Map<String, Collection<String>> headers, byte[] body) {
+        return Response.builder()
+                .status(200)
+                .reason("OK")
+                .headers(headers)
+                .body(body)
+                .build();
+    }
+
+    private static Map<String, Collection<String>> contentType(String value) {
+        Map<String, Collection<String>> headers = new HashMap<String, Collection<String>>();
+        headers.put(HttpHeaders.CONTENT_TYPE, Collections.singletonList(value));
+        return headers;
+    }
+}
@@ -0,0 +1,244 @@
+package com.bright.cloudbenchmarks.json;
+
+import com.alibaba.fastjson.JSONObject;
+import com.bright.cloudconsumer.utils.GfJsonUtil;
+import com.bright.cloudconsumer.utils.LazyJsonObject;
+import com.bright.cloudconsumer.utils.LongObjectHashMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GfJsonUtil解析与序列化的基准测试
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GfJsonUtilBenchmark {
+
+    @Param({"100", "10000"})
+    private int batchSize;
+
+    private User user;
+
+    private String userJson;
+
+    private byte[] userJsonBytes;
+
+    private byte[] documentBytes;
+
+    private String userArrayJson;
+
+    private List<String> jsonList;
+
+    private List<String> arrayJsonList;
+
+    private List<Long> uidList;
+
+    private long[] uids;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        user = newUser(1L);
+        userJson = GfJsonUtil.toJSONString(user);
+        userJsonBytes = GfJsonUtil.toJSONBytes(user);
+        List<User> users = new ArrayList<User>();
+        for (long i = 0; i < 10; i++) {
+            users.add(newUser(i));
+        }
+        userArrayJson = GfJsonUtil.toJSONString(users);
+        Map<String, Object> document = new LinkedHashMap<String, Object>();
+        document.put("uid", 1L);
+        for (int i = 0; i < 50; i++) {
+            document.put("friends" + i, users);
+        }
+        document.put("name", "bright");
+        documentBytes = GfJsonUtil.toJSONBytes(document);
+
+        jsonList = new ArrayList<String>(batchSize);
+        arrayJsonList = new ArrayList<String>(batchSize);
+        uidList = new ArrayList<Long>(batchSize);
+        uids = new long[batchSize];
+        for (int i = 0; i < batchSize; i++) {
+            jsonList.add(GfJsonUtil.toJSONString(newUser(i)));
+            arrayJsonList.add(userArrayJson);
+            uidList.add((long) i);
+            uids[i] = i;
+        }
+    }
+
+    @Benchmark
+    public User parseObject() {
+        return GfJsonUtil.parseObject(userJson, User.class);
+    }
+
+    @Benchmark
+    public String toJSONString() {
+        return GfJsonUtil.toJSONString(user);
+    }
+
+    /**
+     * redis取出的字节 -> String -> 对象
+     */
+    @Benchmark
+    public User parseObjectViaString() {
+        return GfJsonUtil.parseObject(new String(userJsonBytes, StandardCharsets.UTF_8), User.class);
+    }
+
+    @Benchmark
+    public User parseObjectBytes() {
+        return GfJsonUtil.parseObject(userJsonBytes, User.class);
+    }
+
+    /**
+     * 对象 -> String -> 写入redis的字节
+     */
+    @Benchmark
+    public byte[] toJSONBytesViaString() {
+        return GfJsonUtil.toJSONString(user).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public byte[] toJSONBytes() {
+        return GfJsonUtil.toJSONBytes(user);
+    }
+
+    @Benchmark
+    public ByteBuffer toJSONByteBuffer() {
+        return GfJsonUtil.toJSONByteBuffer(user);
+    }
+
+    /**
+     * 大文档只读两个字段：完整解析
+     */
+    @Benchmark
+    public Object readTwoFieldsFull() {
+        JSONObject document = GfJsonUtil.parseObject(documentBytes, JSONObject.class);
+        return document.getString("name") + document.getLong("uid");
+    }
+
+    /**
+     * 大文档只读两个字段：延迟解析
+     */
+    @Benchmark
+    public Object readTwoFieldsLazy() {
+        LazyJsonObject document = GfJsonUtil.parseLazy(documentBytes);
+        return document.getString("name") + document.getLong("uid");
+    }
+
+    @Benchmark
+    public List<User> parseArray() {
+        return GfJsonUtil.parseArray(userArrayJson, User.class);
+    }
+
+    @Benchmark
+    public List<User> parseList() {
+        return GfJsonUtil.parseList(jsonList, User.class);
+    }
+
+    @Benchmark
+    public Map<Long, User> parseMapByUid() {
+        return GfJsonUtil.parseMapByUid(jsonList, uidList, User.class, false);
+    }
+
+    @Benchmark
+    public Map<Long, List<User>> parseArrayMapByUid() {
+        return GfJsonUtil.parseArrayMapByUid(arrayJsonList, uidList, User.class, false);
+    }
+
+    @Benchmark
+    public List<User> parseListParallel() {
+        return GfJsonUtil.parseListParallel(jsonList, User.class);
+    }
+
+    @Benchmark
+    public LongObjectHashMap<User> parseMapByUidParallel() {
+        return GfJsonUtil.parseMapByUidParallel(jsonList, uids, User.class, false);
+    }
+
+    @Benchmark
+    public LongObjectHashMap<List<User>> parseArrayMapByUidParallel() {
+        return GfJsonUtil.parseArrayMapByUidParallel(arrayJsonList, uids, User.class, false);
+    }
+
+    private static User newUser(long uid) {
+        User u = new User();
+        u.setUid(uid);
+        u.setName("bright-" + uid);
+        u.setRealIp("192.168.0." + (uid % 255));
+        u.setScore(uid * 1.5D);
+        u.setVip(uid % 2 == 0);
+        return u;
+    }
+
+    /**
+     * 模拟缓存中的用户对象
+     */
+    public static class User {
+        private long uid;
+        private String name;
+        private String realIp;
+        private double score;
+        private boolean vip;
+
+        public long getUid() {
+            return uid;
+        }
+
+        public void setUid(long uid) {
+            this.uid = uid;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public String getRealIp() {
+            return realIp;
+        }
+
+        public void setRealIp(String realIp) {
+            this.realIp = realIp;
+        }
+
+        public double getScore() {
+            return score;
+        }
+
+        public void setScore(double score) {
+            this.score = score;
+        }
+
+        public boolean isVip() {
+            return vip;
+        }
+
+        public void setVip(boolean vip) {
+            this.vip = vip;
+        }
+    }
+}
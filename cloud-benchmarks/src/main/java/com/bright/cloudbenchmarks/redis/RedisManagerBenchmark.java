@@ -0,0 +1,156 @@
+package com.bright.cloudbenchmarks.redis;
+
+import com.bright.cloudconsumer.redis.RedisManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPool;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RedisManager各种访问方式的基准测试：单条与pipeline、String与二进制、连接池借还开销
+ * 需要一个可访问的redis，通过-Dredis.host/-Dredis.port/-Dredis.auth指定，默认127.0.0.1:6379
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RedisManagerBenchmark {
+
+    private static final int BATCH = 100;
+
+    private static final String KEY_PREFIX = "bench:redis:";
+
+    @Param({"64", "4096"})
+    private int valueSize;
+
+    private BenchRedisManager redisManager;
+
+    private JedisPool jedisPool;
+
+    private String key;
+
+    private byte[] binaryKey;
+
+    private String value;
+
+    private byte[] binaryValue;
+
+    private List<String> batchKeys;
+
+    private List<String> batchValues;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        redisManager = new BenchRedisManager();
+        redisManager.setHost(System.getProperty("redis.host", "127.0.0.1"));
+        redisManager.setPort(Integer.getInteger("redis.port", 6379));
+        redisManager.setAuth(System.getProperty("redis.auth"));
+        jedisPool = redisManager.pool();
+
+        char[] chars = new char[valueSize];
+        Arrays.fill(chars, 'v');
+        value = new String(chars);
+        binaryValue = value.getBytes(StandardCharsets.UTF_8);
+        key = KEY_PREFIX + valueSize;
+        binaryKey = key.getBytes(StandardCharsets.UTF_8);
+        redisManager.set(key, value);
+
+        batchKeys = new ArrayList<String>(BATCH);
+        batchValues = new ArrayList<String>(BATCH);
+        for (int i = 0; i < BATCH; i++) {
+            batchKeys.add(KEY_PREFIX + valueSize + ":" + i);
+            batchValues.add(value);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        redisManager.del(key);
+        for (String batchKey : batchKeys) {
+            redisManager.del(batchKey);
+        }
+        jedisPool.close();
+    }
+
+    @Benchmark
+    public String stringGet() {
+        return redisManager.get(key);
+    }
+
+    @Benchmark
+    public String stringSet() {
+        return redisManager.set(key, value);
+    }
+
+    @Benchmark
+    public byte[] binaryGet() {
+        try (Jedis jedis = jedisPool.getResource()) {
+            return jedis.get(binaryKey);
+        }
+    }
+
+    @Benchmark
+    public String binarySet() {
+        try (Jedis jedis = jedisPool.getResource()) {
+            return jedis.set(binaryKey, binaryValue);
+        }
+    }
+
+    /**
+     * 逐条set，与pipelineSet对比
+     */
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void loopSet() {
+        for (int i = 0; i < BATCH; i++) {
+            redisManager.set(batchKeys.get(i), batchValues.get(i));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void pipelineSet() {
+        redisManager.set(batchKeys, batchValues);
+    }
+
+    /**
+     * 仅借还连接，不执行命令[testOnBorrow时包含一次PING]
+     */
+    @Benchmark
+    public boolean poolBorrow() {
+        Jedis jedis = jedisPool.getResource();
+        boolean connected = jedis.isConnected();
+        jedis.close();
+        return connected;
+    }
+
+    /**
+     * init()为protected，通过子类取得连接池
+     */
+    private static class BenchRedisManager extends RedisManager {
+
+        JedisPool pool() {
+            return init();
+        }
+    }
+}
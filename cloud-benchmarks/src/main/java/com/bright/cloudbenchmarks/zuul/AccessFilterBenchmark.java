@@ -0,0 +1,85 @@
+package com.bright.cloudbenchmarks.zuul;
+
+import com.bright.cloudzuul.auth.StaticCredentialVerifier;
+import com.bright.cloudzuul.filter.AccessFilter;
+import com.netflix.zuul.context.RequestContext;
+import com.netflix.zuul.exception.ZuulException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 网关AccessFilter.run的基准测试，分别覆盖鉴权通过与拒绝两种情况
+ * 使用默认的StaticCredentialVerifier[只允许bright]，不访问redis
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AccessFilterBenchmark {
+
+    private AccessFilter filter;
+
+    private MockHttpServletRequest allowed;
+
+    private MockHttpServletRequest rejected;
+
+    private MockHttpServletResponse response;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        filter = new AccessFilter();
+        ReflectionTestUtils.setField(filter, "credentialVerifier", new StaticCredentialVerifier());
+        allowed = newRequest("bright");
+        rejected = newRequest("guest");
+        response = new MockHttpServletResponse();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        RequestContext.getCurrentContext().unset();
+    }
+
+    @Benchmark
+    public Object runAllowed() throws ZuulException {
+        return run(allowed);
+    }
+
+    @Benchmark
+    public Object runRejected() throws ZuulException {
+        return run(rejected);
+    }
+
+    private Object run(MockHttpServletRequest request) throws ZuulException {
+        RequestContext ctx = RequestContext.getCurrentContext();
+        ctx.clear();
+        ctx.setRequest(request);
+        ctx.setResponse(response);
+        filter.run();
+        return ctx.get("isSuccess");
+    }
+
+    private static MockHttpServletRequest newRequest(String username) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/info");
+        request.setServerName("localhost");
+        request.setServerPort(8071);
+        request.setParameter("username", username);
+        return request;
+    }
+}
@@ -2,30 +2,86 @@ package com.bright.cloudconsumer.controller;
 
 
 import com.bright.cloudconsumer.constants.CloudRedisKeys;
+import com.bright.cloudconsumer.deadline.Deadline;
+import com.bright.cloudconsumer.dto.InfoItem;
+import com.bright.cloudconsumer.feign.async.InfoAsyncClient;
+import com.bright.cloudconsumer.feign.cache.ResponseCache;
+import com.bright.cloudconsumer.feign.collapse.RequestCollapser;
 import com.bright.cloudconsumer.feign.service.InfoClient;
 import com.bright.cloudconsumer.redis.RedisManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
 
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @Configuration
 public class ConsumerController {
+    private static final Logger logger = LoggerFactory.getLogger(ConsumerController.class);
+
+    /**
+     * 返回的是降级结果时带上该响应头[值为true]，降级时也可能返回最后一次成功的结果，不能只看响应体
+     */
+    public static final String FALLBACK_HEADER = "X-Fallback";
+
+    @Autowired
+    private InfoAsyncClient infoAsyncClient;
 
     @Autowired
     private InfoClient infoClient;
 
+    @Autowired
+    private RequestCollapser requestCollapser;
+
     @Autowired
     private RedisManager redisManager;
 
+    @Autowired
+    private ResponseCache responseCache;
+
+    /**
+     * 异步返回，等待cloud-provider响应期间不占用Tomcat线程[Feign调用在feignAsyncExecutor中执行]
+     * 并发的相同请求合并为一次cloud-provider调用
+     * 请求带有时间预算时，超过剩余时间未返回则以503结束
+     * 降级结果带X-Fallback响应头
+     * @return
+     */
     @RequestMapping(value = "/consumerInfo", method = RequestMethod.GET)
-    public String consumerInfo(){
+    public DeferredResult<ResponseEntity<String>> consumerInfo(){
         Set<String> smembers = redisManager.smembers(CloudRedisKeys.BLOG_REAL_IP);
-        System.out.println(smembers.toString());
-        return infoClient.info();
+        logger.debug("{}: {}", CloudRedisKeys.BLOG_REAL_IP, smembers);
+        Long timeout = Deadline.isSet() ? Long.valueOf(Math.max(1L, Deadline.remainingMillis())) : null;
+        DeferredResult<ResponseEntity<String>> result = new DeferredResult<ResponseEntity<String>>(timeout);
+        CompletableFuture<String> info = requestCollapser.execute(InfoAsyncClient.INFO_KEY, infoAsyncClient::info);
+        info.whenComplete((value, error) -> {
+            if (error == null && responseCache.isFallback(value)) {
+                result.setResult(ResponseEntity.ok().header(FALLBACK_HEADER, "true").body(value));
+            } else if (error == null) {
+                result.setResult(ResponseEntity.ok(value));
+            } else {
+                result.setErrorResult(error);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * 多个key一次批量调用cloud-provider
+     * @param keys 逗号分隔
+     * @return
+     */
+    @RequestMapping(value = "/consumerInfo/batch", method = RequestMethod.GET)
+    public List<InfoItem> consumerInfoBatch(@RequestParam("keys") List<String> keys){
+        return infoClient.infoBatch(keys);
     }
 }
@@ -0,0 +1,107 @@
+package com.bright.cloudconsumer.deadline;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * 当前请求的截止时间
+ * 网关在请求头X-Deadline-Ms中写入剩余的时间预算[ms]，收到请求时换算为本地的截止时间放入当前线程，
+ * 之后的下游调用[Feign、Redis]以剩余时间作为超时时间，并把剩余时间继续传给下游
+ */
+public final class Deadline {
+
+    public static final String HEADER = "X-Deadline-Ms";
+
+    private static final ThreadLocal<Long> DEADLINE = new ThreadLocal<Long>();
+
+    private Deadline() {
+    }
+
+    public static void start(long budgetMillis) {
+        DEADLINE.set(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(budgetMillis));
+    }
+
+    public static void clear() {
+        DEADLINE.remove();
+    }
+
+    public static boolean isSet() {
+        return DEADLINE.get() != null;
+    }
+
+    /**
+     * @return 剩余时间[ms]，没有截止时间时返回Long.MAX_VALUE
+     */
+    public static long remainingMillis() {
+        Long deadline = DEADLINE.get();
+        return deadline == null ? Long.MAX_VALUE : TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+    }
+
+    /**
+     * @return 剩余时间与默认超时时间中较小的一个
+     */
+    public static int timeout(int defaultMillis) {
+        return (int) Math.max(1L, Math.min(defaultMillis, remainingMillis()));
+    }
+
+    /**
+     * @throws DeadlineExceededException 已经超过截止时间
+     */
+    public static void check() {
+        if (remainingMillis() <= 0) {
+            throw new DeadlineExceededException();
+        }
+    }
+
+    /**
+     * @return 当前线程的截止时间[nanoTime]，没有时返回null
+     */
+    public static Long current() {
+        return DEADLINE.get();
+    }
+
+    /**
+     * 在其他线程中执行时带上当前线程的截止时间
+     */
+    public static <T> Supplier<T> propagate(Supplier<T> task) {
+        return propagate(DEADLINE.get(), task);
+    }
+
+    /**
+     * 执行时带上指定的截止时间
+     *
+     * @param deadline current()的返回值，null表示不限制
+     */
+    public static <T> Supplier<T> propagate(Long deadline, Supplier<T> task) {
+        if (deadline == null) {
+            return task;
+        }
+        return () -> {
+            Long previous = DEADLINE.get();
+            DEADLINE.set(deadline);
+            try {
+                return task.get();
+            } finally {
+                if (previous == null) {
+                    DEADLINE.remove();
+                } else {
+                    DEADLINE.set(previous);
+                }
+            }
+        };
+    }
+
+    /**
+     * @return 请求头的值，不合法时返回null
+     */
+    public static Long parse(String header) {
+        if (header == null || header.isEmpty()) {
+            return null;
+        }
+        try {
+            return Long.valueOf(header.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
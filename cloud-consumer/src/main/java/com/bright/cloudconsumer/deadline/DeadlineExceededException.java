@@ -0,0 +1,12 @@
+package com.bright.cloudconsumer.deadline;
+
+/**
+ * 请求已超过截止时间，不再调用下游
+ * 过载时会大量抛出，不记录堆栈
+ */
+public class DeadlineExceededException extends RuntimeException {
+
+    public DeadlineExceededException() {
+        super("deadline exceeded", null, false, false);
+    }
+}
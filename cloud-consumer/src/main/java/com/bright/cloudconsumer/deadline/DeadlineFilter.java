@@ -0,0 +1,40 @@
+package com.bright.cloudconsumer.deadline;
+
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * 读取请求头中的时间预算，已经用完的请求直接返回504
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class DeadlineFilter extends OncePerRequestFilter {
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Long budget = Deadline.parse(request.getHeader(Deadline.HEADER));
+        if (budget == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        if (budget <= 0) {
+            response.setStatus(HttpServletResponse.SC_GATEWAY_TIMEOUT);
+            return;
+        }
+        Deadline.start(budget);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            Deadline.clear();
+        }
+    }
+}
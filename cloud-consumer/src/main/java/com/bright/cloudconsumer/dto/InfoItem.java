@@ -0,0 +1,35 @@
+package com.bright.cloudconsumer.dto;
+
+/**
+ * 批量查询中的一项
+ */
+public class InfoItem {
+
+    private String key;
+
+    private String info;
+
+    public InfoItem() {
+    }
+
+    public InfoItem(String key, String info) {
+        this.key = key;
+        this.info = info;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public void setKey(String key) {
+        this.key = key;
+    }
+
+    public String getInfo() {
+        return info;
+    }
+
+    public void setInfo(String info) {
+        this.info = info;
+    }
+}
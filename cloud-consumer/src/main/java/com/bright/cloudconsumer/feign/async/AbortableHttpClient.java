@@ -0,0 +1,50 @@
+package com.bright.cloudconsumer.feign.async;
+
+import org.apache.http.HttpHost;
+import org.apache.http.HttpRequest;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.conn.ClientConnectionManager;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.params.HttpParams;
+import org.apache.http.protocol.HttpContext;
+
+import java.io.IOException;
+
+/**
+ * 把当前线程发出的HTTP请求登记到CallCancellation，异步调用被取消时abort请求
+ */
+public class AbortableHttpClient extends CloseableHttpClient {
+
+    private final CloseableHttpClient delegate;
+
+    public AbortableHttpClient(CloseableHttpClient delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    protected CloseableHttpResponse doExecute(HttpHost target, HttpRequest request, HttpContext context) throws IOException {
+        CallCancellation cancellation = CallCancellation.current();
+        if (cancellation != null && request instanceof HttpUriRequest) {
+            cancellation.register(((HttpUriRequest) request)::abort);
+        }
+        return delegate.execute(target, request, context);
+    }
+
+    @Override
+    public void close() throws IOException {
+        delegate.close();
+    }
+
+    @Override
+    @Deprecated
+    public HttpParams getParams() {
+        return delegate.getParams();
+    }
+
+    @Override
+    @Deprecated
+    public ClientConnectionManager getConnectionManager() {
+        return delegate.getConnectionManager();
+    }
+}
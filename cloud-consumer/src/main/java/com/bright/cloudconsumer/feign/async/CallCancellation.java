@@ -0,0 +1,75 @@
+package com.bright.cloudconsumer.feign.async;
+
+import java.util.function.Supplier;
+
+/**
+ * 异步调用的取消
+ * Feign调用在feignAsyncExecutor的线程中阻塞执行，CompletableFuture.cancel不会停止它；
+ * 调用执行期间绑定在执行线程上，AbortableHttpClient把发出的HTTP请求登记到这里，取消时abort该请求：
+ * 连接关闭[不放回连接池]，阻塞的线程立即以IOException返回；取消之后Ribbon重试的请求在发出前就被abort
+ */
+public final class CallCancellation {
+
+    private static final ThreadLocal<CallCancellation> CURRENT = new ThreadLocal<CallCancellation>();
+
+    private boolean cancelled;
+
+    /**
+     * 正在执行的HTTP请求的abort
+     */
+    private Runnable abort;
+
+    static CallCancellation current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * @return 当前线程执行的调用是否已被取消
+     */
+    public static boolean isCurrentCancelled() {
+        CallCancellation cancellation = CURRENT.get();
+        return cancellation != null && cancellation.isCancelled();
+    }
+
+    public synchronized boolean isCancelled() {
+        return cancelled;
+    }
+
+    public void cancel() {
+        Runnable current;
+        synchronized (this) {
+            cancelled = true;
+            current = abort;
+        }
+        if (current != null) {
+            current.run();
+        }
+    }
+
+    /**
+     * 登记正在执行的请求，已经取消时立即abort
+     */
+    void register(Runnable requestAbort) {
+        synchronized (this) {
+            if (!cancelled) {
+                abort = requestAbort;
+                return;
+            }
+        }
+        requestAbort.run();
+    }
+
+    /**
+     * task执行期间绑定到执行线程
+     */
+    <T> Supplier<T> bind(Supplier<T> task) {
+        return () -> {
+            CURRENT.set(this);
+            try {
+                return task.get();
+            } finally {
+                CURRENT.remove();
+            }
+        };
+    }
+}
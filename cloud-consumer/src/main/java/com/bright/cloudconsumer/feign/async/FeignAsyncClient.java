@@ -0,0 +1,113 @@
+package com.bright.cloudconsumer.feign.async;
+
+import com.bright.cloudconsumer.deadline.Deadline;
+import com.bright.cloudconsumer.feign.cache.ResponseCache;
+import com.bright.cloudconsumer.feign.hedge.RequestHedger;
+import com.bright.cloudconsumer.feign.log.DebugContext;
+import com.bright.cloudconsumer.ribbon.ServerExclusion;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * Feign客户端的异步包装
+ * 调用仍然经过Feign[Ribbon负载均衡、hystrix熔断、MyFeignConfig的拦截器与编解码、连接池、条件请求、并发限制]，
+ * 在feignAsyncExecutor中执行并返回CompletableFuture，入口请求以DeferredResult返回，等待期间不占用Tomcat线程；
+ * Feign本身是同步调用，每个发往下游的调用仍占用feignAsyncExecutor的一个线程，下游并发以线程数为上限[见FeignAsyncConfig]；
+ * 成功的结果记入ResponseCache，供过期后先返回旧值以及降级时使用；
+ * 配置在feign.hedge.keys中的幂等调用慢于p95时向另一个实例再发出一次对冲请求，落后的一方被取消时abort其HTTP请求
+ *
+ * 注意：调用可能被多个入口请求共用[请求合并、后台刷新]，只传递发起线程的截止时间[请求合并时为加入者中最晚的截止时间]
+ * 和调试header[DebugContext]，不传递入口请求的其他header
+ */
+public abstract class FeignAsyncClient {
+    private static final Logger logger = LoggerFactory.getLogger(FeignAsyncClient.class);
+
+    @Autowired
+    private ResponseCache responseCache;
+
+    @Autowired
+    private RequestHedger requestHedger;
+
+    @Autowired
+    @Qualifier("feignAsyncExecutor")
+    private Executor executor;
+
+    /**
+     * 开启hystrix时Feign自己返回fallback，这里只处理没有到达Feign的失败[如线程池已满]
+     */
+    @Value("${feign.hystrix.enabled:false}")
+    private boolean fallbackEnabled;
+
+    /**
+     * 经过结果缓存的调用，失败时按配置降级
+     *
+     * @param key      缓存key，与Feign的configKey一致，如InfoClient#info()
+     * @param call     Feign客户端的方法
+     * @param fallback
+     * @return
+     */
+    protected <T> CompletableFuture<T> get(String key, Supplier<T> call, Supplier<T> fallback) {
+        return withFallback(responseCache.get(key, () -> execute(key, call)), key, fallback);
+    }
+
+    /**
+     * 不缓存、不降级的调用，key允许对冲时按RequestHedger发出对冲请求
+     * 截止时间和调试header在调用线程中取得，对冲请求在feign-hedger线程中发出时同样带上；
+     * 对冲请求与第一次请求共用ServerExclusion，PeakEwmaRule为对冲请求选择另一个实例
+     */
+    protected <T> CompletableFuture<T> execute(String key, Supplier<T> call) {
+        Supplier<T> withContext = DebugContext.propagate(Deadline.propagate(call));
+        if (!requestHedger.isHedged(key)) {
+            return submit(withContext);
+        }
+        Supplier<T> excluding = new ServerExclusion().bind(withContext);
+        return requestHedger.execute(key, () -> submit(excluding));
+    }
+
+    /**
+     * 返回的future被取消时abort进行中的HTTP请求，释放线程和连接
+     */
+    private <T> CompletableFuture<T> submit(Supplier<T> call) {
+        CallCancellation cancellation = new CallCancellation();
+        CompletableFuture<T> future;
+        try {
+            future = CompletableFuture.supplyAsync(cancellation.bind(call), executor);
+        } catch (RejectedExecutionException e) {
+            CompletableFuture<T> failed = new CompletableFuture<T>();
+            failed.completeExceptionally(e);
+            return failed;
+        }
+        future.whenComplete((value, error) -> {
+            if (error instanceof CancellationException) {
+                cancellation.cancel();
+            }
+        });
+        return future;
+    }
+
+    private <T> CompletableFuture<T> withFallback(CompletableFuture<T> response, String key, Supplier<T> fallback) {
+        CompletableFuture<T> result = new CompletableFuture<T>();
+        response.whenComplete((value, error) -> {
+            if (error == null) {
+                result.complete(value);
+                return;
+            }
+            logger.warn("async call {} failed: {}", key, error.toString());
+            if (fallbackEnabled) {
+                result.complete(fallback.get());
+            } else {
+                result.completeExceptionally(error);
+            }
+        });
+        return result;
+    }
+}
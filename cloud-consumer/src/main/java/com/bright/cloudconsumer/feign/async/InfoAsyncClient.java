@@ -0,0 +1,27 @@
+package com.bright.cloudconsumer.feign.async;
+
+import com.bright.cloudconsumer.feign.hystrix.InfoFallBack;
+import com.bright.cloudconsumer.feign.service.InfoClient;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * InfoClient的异步版本
+ */
+@Component
+public class InfoAsyncClient extends FeignAsyncClient {
+
+    public static final String INFO_KEY = "InfoClient#info()";
+
+    @Autowired
+    private InfoClient infoClient;
+
+    @Autowired
+    private InfoFallBack infoFallBack;
+
+    public CompletableFuture<String> info() {
+        return get(INFO_KEY, infoClient::info, infoFallBack::info);
+    }
+}
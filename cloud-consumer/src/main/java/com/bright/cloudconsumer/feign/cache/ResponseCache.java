@@ -0,0 +1,240 @@
+package com.bright.cloudconsumer.feign.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * 服务调用结果缓存[stale-while-revalidate]
+ * 缓存未过期直接返回；过期后仍立即返回旧值，同时在后台刷新；从未成功过才同步调用。
+ * 过期超过max-stale-millis[刷新一直失败]后不再返回旧值，同步调用，失败时由调用方降级或返回错误。
+ * 最后一次成功的结果同时作为熔断降级的返回值；降级返回的对象经markFallback登记，不会写入缓存
+ *
+ * 指标：feign.cache.requests{key,result=fresh|stale|expired|miss}
+ */
+@ConfigurationProperties(prefix = "feign.cache")
+@Component
+public class ResponseCache {
+    private static final Logger logger = LoggerFactory.getLogger(ResponseCache.class);
+
+    private boolean enabled = true;
+
+    /**
+     * 默认缓存有效期[ms]，0表示不缓存，只记录最后一次成功的结果用于降级
+     */
+    private long defaultTtlMillis = 0;
+
+    /**
+     * 按方法配置有效期[ms]，key为Feign的configKey，如InfoClient#info()
+     */
+    private Map<String, Long> ttlMillis = new HashMap<String, Long>();
+
+    /**
+     * 过期后最多继续返回旧值的时间[ms]，0表示不限制
+     */
+    private long maxStaleMillis = 30000;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<String, Entry>();
+
+    /**
+     * 降级返回的对象，按引用识别[弱引用，对象被回收后自动清除]
+     * 开启hystrix时Feign调用失败直接返回fallback的结果，从返回值的类型和内容都无法和正常结果区分
+     */
+    private final Set<FallbackRef> fallbacks = ConcurrentHashMap.newKeySet();
+
+    private final ReferenceQueue<Object> collected = new ReferenceQueue<Object>();
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public void setDefaultTtlMillis(long defaultTtlMillis) {
+        this.defaultTtlMillis = defaultTtlMillis;
+    }
+
+    public Map<String, Long> getTtlMillis() {
+        return ttlMillis;
+    }
+
+    public void setTtlMillis(Map<String, Long> ttlMillis) {
+        this.ttlMillis = ttlMillis;
+    }
+
+    public void setMaxStaleMillis(long maxStaleMillis) {
+        this.maxStaleMillis = maxStaleMillis;
+    }
+
+    /**
+     * @param key  缓存key，如InfoClient#info()
+     * @param call 真正的下游调用
+     * @return
+     */
+    public <T> CompletableFuture<T> get(String key, Supplier<CompletableFuture<T>> call) {
+        if (!enabled) {
+            return call.get();
+        }
+        long ttl = ttl(key);
+        Entry entry = entries.get(key);
+        if (entry == null || ttl <= 0) {
+            record(key, "miss");
+            return load(key, call);
+        }
+        long age = System.nanoTime() - entry.loadedAt;
+        if (age < TimeUnit.MILLISECONDS.toNanos(ttl)) {
+            record(key, "fresh");
+        } else if (maxStaleMillis > 0 && age >= TimeUnit.MILLISECONDS.toNanos(ttl + maxStaleMillis)) {
+            record(key, "expired");
+            return load(key, call);
+        } else {
+            record(key, "stale");
+            refresh(key, entry, call);
+        }
+        return CompletableFuture.completedFuture((T) entry.value);
+    }
+
+    /**
+     * 最后一次成功的结果，不论是否过期
+     *
+     * @return 从未成功过时返回null
+     */
+    public <T> T getLastGood(String key) {
+        Entry entry = entries.get(key);
+        return entry == null ? null : (T) entry.value;
+    }
+
+    /**
+     * 记录一次成功的结果，降级结果[包括降级时返回的旧值]不记录，不刷新时间
+     */
+    public void put(String key, Object value) {
+        if (value == null || isFallback(value)) {
+            return;
+        }
+        entries.put(key, new Entry(value));
+    }
+
+    /**
+     * 登记降级结果，由fallback在返回前调用
+     *
+     * @return value本身
+     */
+    public <T> T markFallback(T value) {
+        if (value != null) {
+            expunge();
+            fallbacks.add(new FallbackRef(value, collected));
+        }
+        return value;
+    }
+
+    /**
+     * 是否是降级返回的对象
+     */
+    public boolean isFallback(Object value) {
+        if (value == null) {
+            return false;
+        }
+        expunge();
+        return fallbacks.contains(new FallbackRef(value, null));
+    }
+
+    private void expunge() {
+        Reference<?> ref;
+        while ((ref = collected.poll()) != null) {
+            fallbacks.remove(ref);
+        }
+    }
+
+    private <T> CompletableFuture<T> load(String key, Supplier<CompletableFuture<T>> call) {
+        return call.get().whenComplete((value, error) -> {
+            if (error == null) {
+                put(key, value);
+            }
+        });
+    }
+
+    /**
+     * 同一个key同时只有一个后台刷新
+     */
+    private <T> void refresh(String key, Entry entry, Supplier<CompletableFuture<T>> call) {
+        if (!entry.refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            load(key, call).whenComplete((value, error) -> {
+                entry.refreshing.set(false);
+                if (error != null) {
+                    logger.warn("refresh {} failed: {}", key, error.toString());
+                }
+            });
+        } catch (RuntimeException e) {
+            entry.refreshing.set(false);
+            logger.warn("refresh {} failed: {}", key, e.toString());
+        }
+    }
+
+    private long ttl(String key) {
+        Long ttl = ttlMillis.get(key);
+        return ttl == null ? defaultTtlMillis : ttl;
+    }
+
+    private void record(String key, String result) {
+        meterRegistry.counter("feign.cache.requests", "key", key, "result", result).increment();
+    }
+
+    /**
+     * 按引用比较的弱引用，已被回收的只和自身相等
+     */
+    private static final class FallbackRef extends WeakReference<Object> {
+        private final int hash;
+
+        FallbackRef(Object value, ReferenceQueue<Object> queue) {
+            super(value, queue);
+            this.hash = System.identityHashCode(value);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof FallbackRef)) {
+                return false;
+            }
+            Object value = get();
+            return value != null && value == ((FallbackRef) obj).get();
+        }
+    }
+
+    private static final class Entry {
+        final Object value;
+        final long loadedAt = System.nanoTime();
+        final AtomicBoolean refreshing = new AtomicBoolean();
+
+        Entry(Object value) {
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.bright.cloudconsumer.feign.codec;
+
+import feign.RequestInterceptor;
+import feign.RequestTemplate;
+
+/**
+ * 未指定Accept的请求声明优先接收Smile，服务端不支持时仍返回JSON
+ */
+public class SmileAcceptInterceptor implements RequestInterceptor {
+
+    @Override
+    public void apply(RequestTemplate template) {
+        if (SmileCodec.header(template.headers(), "Accept") == null) {
+            template.header("Accept", SmileCodec.ACCEPT);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.bright.cloudconsumer.feign.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.lang.reflect.Type;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * 服务间调用的Smile二进制编码
+ */
+public final class SmileCodec {
+
+    public static final String SMILE = "application/x-jackson-smile";
+
+    /**
+     * 优先Smile；text/plain放在最前，返回String的接口仍按文本返回，不会被标成Smile
+     */
+    public static final String ACCEPT = "text/plain, " + SMILE + ", application/json;q=0.9, */*;q=0.8";
+
+    static final ObjectMapper MAPPER = Jackson2ObjectMapperBuilder.smile().build();
+
+    private SmileCodec() {
+    }
+
+    /**
+     * 文本和字节类型不需要编解码，直接交给Spring的实现
+     */
+    static boolean isRaw(Type type) {
+        return type == String.class || type == byte[].class;
+    }
+
+    static String header(Map<String, Collection<String>> headers, String name) {
+        for (Map.Entry<String, Collection<String>> entry : headers.entrySet()) {
+            if (name.equalsIgnoreCase(entry.getKey()) && !entry.getValue().isEmpty()) {
+                return entry.getValue().iterator().next();
+            }
+        }
+        return null;
+    }
+}
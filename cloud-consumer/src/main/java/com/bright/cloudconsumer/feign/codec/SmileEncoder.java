@@ -0,0 +1,35 @@
+package com.bright.cloudconsumer.feign.codec;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import feign.RequestTemplate;
+import feign.codec.EncodeException;
+import feign.codec.Encoder;
+
+import java.lang.reflect.Type;
+
+/**
+ * 请求体按Smile编码
+ * 字符串、字节数组以及已指定Content-Type的请求交给原有的Encoder
+ */
+public class SmileEncoder implements Encoder {
+
+    private final Encoder delegate;
+
+    public SmileEncoder(Encoder delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void encode(Object object, Type bodyType, RequestTemplate template) throws EncodeException {
+        if (object == null || SmileCodec.isRaw(bodyType) || SmileCodec.header(template.headers(), "Content-Type") != null) {
+            delegate.encode(object, bodyType, template);
+            return;
+        }
+        try {
+            template.body(SmileCodec.MAPPER.writeValueAsBytes(object), null);
+            template.header("Content-Type", SmileCodec.SMILE);
+        } catch (JsonProcessingException e) {
+            throw new EncodeException("smile encode failed: " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package com.bright.cloudconsumer.feign.collapse;
+
+import com.bright.cloudconsumer.deadline.Deadline;
+import com.bright.cloudconsumer.feign.log.DebugContext;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * 请求合并
+ * 窗口期内相同key的调用合并为一次下游请求，结果分发给所有等待者
+ * 下游请求在feign-collapser线程中发出，带上加入者中最晚的截止时间；有加入者没有截止时间时不限制。
+ * 有加入者是调试请求时，下游请求也带上调试header
+ *
+ * 指标：
+ *  feign.collapse.batch.size 每次下游请求合并的调用数
+ *  feign.collapse.wait 调用因等待窗口而增加的延迟
+ */
+@ConfigurationProperties(prefix = "feign.collapse")
+@Component
+public class RequestCollapser {
+
+    private boolean enabled = true;
+
+    /**
+     * 合并窗口[ms]，0表示不等待，只合并正在进行中的相同请求
+     */
+    private long windowMillis = 5;
+
+    /**
+     * 下游请求发出后、返回前到达的相同调用是否继续合并
+     */
+    private boolean joinInFlight = true;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final ConcurrentMap<String, Batch<?>> pending = new ConcurrentHashMap<String, Batch<?>>();
+
+    private final ConcurrentMap<String, Timer> waitTimers = new ConcurrentHashMap<String, Timer>();
+
+    private final ConcurrentMap<String, DistributionSummary> batchSizes = new ConcurrentHashMap<String, DistributionSummary>();
+
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "feign-collapser");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public void setWindowMillis(long windowMillis) {
+        this.windowMillis = windowMillis;
+    }
+
+    public void setJoinInFlight(boolean joinInFlight) {
+        this.joinInFlight = joinInFlight;
+    }
+
+    /**
+     * @param key  相同key的调用可以合并，如InfoClient#info()
+     * @param call 真正的下游调用
+     * @return
+     */
+    public <T> CompletableFuture<T> execute(String key, Supplier<CompletableFuture<T>> call) {
+        if (!enabled) {
+            return call.get();
+        }
+        long arrival = System.nanoTime();
+        while (true) {
+            Batch<T> batch = (Batch<T>) pending.get(key);
+            if (batch == null) {
+                Batch<T> created = new Batch<T>(key, call);
+                batch = (Batch<T>) pending.putIfAbsent(key, created);
+                if (batch == null) {
+                    created.context(Deadline.current(), DebugContext.current());
+                    created.tryJoin();
+                    schedule(created);
+                    return join(created, arrival);
+                }
+            }
+            //先记截止时间和调试header再加入，加入成功时发出请求前一定已经计入
+            batch.context(Deadline.current(), DebugContext.current());
+            if (batch.tryJoin()) {
+                return join(batch, arrival);
+            }
+            //批次已经结束，换一个新的批次
+            pending.remove(key, batch);
+        }
+    }
+
+    @PreDestroy
+    public void destroy() {
+        timer.shutdownNow();
+    }
+
+    private <T> CompletableFuture<T> join(Batch<T> batch, long arrival) {
+        Timer wait = waitTimers.computeIfAbsent(batch.key,
+                key -> Timer.builder("feign.collapse.wait").tag("key", key).register(meterRegistry));
+        batch.fired.thenAccept(firedAt -> wait.record(Math.max(0, firedAt - arrival), TimeUnit.NANOSECONDS));
+        //每个等待者拿到独立的future，取消时不影响其他等待者
+        return batch.result.thenApply(Function.identity());
+    }
+
+    private <T> void schedule(Batch<T> batch) {
+        if (windowMillis <= 0) {
+            fire(batch);
+        } else {
+            timer.schedule(() -> fire(batch), windowMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private <T> void fire(Batch<T> batch) {
+        if (!joinInFlight) {
+            pending.remove(batch.key, batch);
+        }
+        batch.fired.complete(System.nanoTime());
+        CompletableFuture<T> response;
+        try {
+            response = DebugContext.propagate(batch.debug(), Deadline.propagate(batch.deadline(), batch.call)).get();
+            if (response == null) {
+                throw new IllegalStateException("collapsed call returned null: " + batch.key);
+            }
+        } catch (RuntimeException e) {
+            response = new CompletableFuture<T>();
+            response.completeExceptionally(e);
+        }
+        response.whenComplete((value, error) -> {
+            //先关闭批次，之后到达的调用不再加入，计入的数量就是拿到这次结果的调用数
+            int size = batch.close();
+            pending.remove(batch.key, batch);
+            batchSizes.computeIfAbsent(batch.key,
+                    key -> DistributionSummary.builder("feign.collapse.batch.size").tag("key", key).register(meterRegistry))
+                    .record(size);
+            if (error != null) {
+                batch.result.completeExceptionally(error);
+            } else {
+                batch.result.complete(value);
+            }
+        });
+    }
+
+    private static final class Batch<T> {
+        private static final int CLOSED = -1;
+
+        final String key;
+        final Supplier<CompletableFuture<T>> call;
+        /**
+         * 加入的调用数，批次结束后为CLOSED
+         */
+        final AtomicInteger size = new AtomicInteger();
+        /**
+         * 下游请求发出的时间[nanoTime]
+         */
+        final CompletableFuture<Long> fired = new CompletableFuture<Long>();
+        final CompletableFuture<T> result = new CompletableFuture<T>();
+        /**
+         * 加入者中最晚的截止时间[nanoTime]
+         */
+        private Long deadline;
+        /**
+         * 有加入者没有截止时间
+         */
+        private boolean unbounded;
+        /**
+         * 加入者中第一个调试header的值
+         */
+        private String debug;
+
+        Batch(String key, Supplier<CompletableFuture<T>> call) {
+            this.key = key;
+            this.call = call;
+        }
+
+        synchronized void context(Long joinerDeadline, String joinerDebug) {
+            if (joinerDeadline == null) {
+                unbounded = true;
+            } else if (deadline == null || joinerDeadline - deadline > 0) {
+                deadline = joinerDeadline;
+            }
+            if (debug == null) {
+                debug = joinerDebug;
+            }
+        }
+
+        /**
+         * @return 下游请求使用的截止时间，null表示不限制
+         */
+        synchronized Long deadline() {
+            return unbounded ? null : deadline;
+        }
+
+        /**
+         * @return 下游请求的调试header，null表示不是调试请求
+         */
+        synchronized String debug() {
+            return debug;
+        }
+
+        /**
+         * @return 批次已经结束时返回false
+         */
+        boolean tryJoin() {
+            while (true) {
+                int current = size.get();
+                if (current == CLOSED) {
+                    return false;
+                }
+                if (size.compareAndSet(current, current + 1)) {
+                    return true;
+                }
+            }
+        }
+
+        /**
+         * @return 结束前加入的调用数
+         */
+        int close() {
+            return size.getAndSet(CLOSED);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.bright.cloudconsumer.feign.config;
+
+import com.bright.cloudconsumer.feign.pool.FeignPoolProperties;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * FeignAsyncClient执行Feign调用的线程池
+ * Feign[OpenFeign 9]没有异步的Client，Ribbon、hystrix、拦截器和编解码都在调用线程中同步执行，每个进行中的调用占用一个线程；
+ * 入口请求以DeferredResult返回，不受线程数限制，发往下游的并发则以线程数为上限
+ *
+ * 线程数默认等于连接池总连接数[feign.pool.max-total]，再多的线程也只会阻塞在连接池上；
+ * 默认不排队，线程都在使用时直接拒绝[RejectedExecutionException]，由调用方返回缓存的旧值或降级，排队只增加延迟不增加吞吐
+ */
+@Configuration
+public class FeignAsyncConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public ThreadPoolExecutor feignAsyncExecutor(FeignPoolProperties poolProperties,
+                                                 @Value("${feign.async.threads:0}") int threads,
+                                                 @Value("${feign.async.queue-size:0}") int queueSize) {
+        int size = threads > 0 ? threads : poolProperties.getMaxTotal();
+        BlockingQueue<Runnable> queue = queueSize > 0
+                ? new ArrayBlockingQueue<Runnable>(queueSize) : new SynchronousQueue<Runnable>();
+        AtomicInteger index = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(size, size, 60, TimeUnit.SECONDS, queue, r -> {
+            Thread t = new Thread(r, "feign-async-" + index.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        }, new ThreadPoolExecutor.AbortPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+}
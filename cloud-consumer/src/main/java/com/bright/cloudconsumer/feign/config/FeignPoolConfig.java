@@ -0,0 +1,83 @@
+package com.bright.cloudconsumer.feign.config;
+
+import com.bright.cloudconsumer.feign.async.AbortableHttpClient;
+import com.bright.cloudconsumer.feign.deadline.DeadlineAwareClient;
+import com.bright.cloudconsumer.feign.etag.ConditionalGetClient;
+import com.bright.cloudconsumer.feign.etag.ETagProperties;
+import com.bright.cloudconsumer.feign.limit.ConcurrencyLimitedClient;
+import com.bright.cloudconsumer.feign.log.PendingLogClearingClient;
+import com.bright.cloudconsumer.feign.pool.FeignPoolProperties;
+import com.bright.cloudconsumer.feign.pool.InstrumentedConnectionManager;
+import com.bright.cloudconsumer.limit.ConcurrencyLimiters;
+import feign.Client;
+import feign.httpclient.ApacheHttpClient;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.springframework.cloud.netflix.ribbon.SpringClientFactory;
+import org.springframework.cloud.openfeign.ribbon.CachingSpringLoadBalancerFactory;
+import org.springframework.cloud.openfeign.ribbon.LoadBalancerFeignClient;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Feign底层HTTP连接池
+ * 所有Feign客户端共用一个连接池，不能放在MyFeignConfig中[MyFeignConfig会在每个Feign客户端的子容器中重复实例化]
+ */
+@Configuration
+public class FeignPoolConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public InstrumentedConnectionManager feignConnectionManager(FeignPoolProperties properties, MeterRegistry meterRegistry) {
+        return new InstrumentedConnectionManager(properties, meterRegistry);
+    }
+
+    /**
+     * 定时回收过期和空闲的连接
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ScheduledExecutorService feignConnectionEvictor(InstrumentedConnectionManager connectionManager, FeignPoolProperties properties) {
+        ScheduledExecutorService evictor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "feign-pool-evictor");
+            t.setDaemon(true);
+            return t;
+        });
+        evictor.scheduleWithFixedDelay(connectionManager::evictIdleConnections,
+                properties.getEvictionIntervalMillis(), properties.getEvictionIntervalMillis(), TimeUnit.MILLISECONDS);
+        return evictor;
+    }
+
+    @Bean
+    public CloseableHttpClient feignHttpClient(InstrumentedConnectionManager connectionManager, FeignPoolProperties properties) {
+        return HttpClientBuilder.create()
+                .setConnectionManager(connectionManager)
+                .setKeepAliveStrategy((response, context) -> {
+                    long keepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+                    return keepAlive > 0 ? keepAlive : properties.getKeepAliveMillis();
+                })
+                .disableCookieManagement()
+                .build();
+    }
+
+    /**
+     * 替换spring-cloud-openfeign默认的Client，Ribbon负载均衡不变，底层改为连接池；
+     * 负载均衡之前按服务做自适应并发限制，选定实例后按ETag发出条件请求，读超时不超过请求的剩余时间，
+     * 异步调用被取消时abort进行中的HTTP请求；
+     * 最外层在抛出RuntimeException时清除采样日志暂存的请求
+     */
+    @Bean
+    public Client feignClient(CachingSpringLoadBalancerFactory cachingFactory, SpringClientFactory clientFactory,
+                              CloseableHttpClient feignHttpClient, ConcurrencyLimiters concurrencyLimiters,
+                              ETagProperties etagProperties, MeterRegistry meterRegistry) {
+        Client http = new ConditionalGetClient(new DeadlineAwareClient(new ApacheHttpClient(new AbortableHttpClient(feignHttpClient))),
+                etagProperties, meterRegistry);
+        return new PendingLogClearingClient(new ConcurrencyLimitedClient(
+                new LoadBalancerFeignClient(http, cachingFactory, clientFactory),
+                concurrencyLimiters));
+    }
+}
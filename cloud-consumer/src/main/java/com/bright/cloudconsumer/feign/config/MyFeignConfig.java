@@ -1,18 +1,83 @@
 package com.bright.cloudconsumer.feign.config;
 
+import com.bright.cloudconsumer.feign.codec.SmileAcceptInterceptor;
+import com.bright.cloudconsumer.feign.codec.SmileEncoder;
+import com.bright.cloudconsumer.feign.deadline.DeadlineInterceptor;
+import com.bright.cloudconsumer.feign.log.AsyncLogWriter;
+import com.bright.cloudconsumer.feign.log.DebugHeaderInterceptor;
+import com.bright.cloudconsumer.feign.log.FeignLogProperties;
+import com.bright.cloudconsumer.feign.log.SampledFeignLogger;
 import feign.Logger;
+import feign.codec.Encoder;
+import org.springframework.beans.factory.ObjectFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
+import org.springframework.cloud.openfeign.support.SpringEncoder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 @Configuration
 public class MyFeignConfig {
 
+    @Autowired
+    private ObjectFactory<HttpMessageConverters> messageConverters;
+
     /**
      * feign打印日志等级
+     * FULL只是上限，是否输出由SampledFeignLogger按采样、慢请求、失败和调试header决定
      * @return
      */
     @Bean
     Logger.Level feignLoggerLeval(){
         return Logger.Level.FULL;
     }
+
+    /**
+     * 采样日志，输出由AsyncLogWriter在后台线程完成
+     * @return
+     */
+    @Bean
+    Logger feignLogger(FeignLogProperties properties, AsyncLogWriter writer){
+        return new SampledFeignLogger(properties, writer);
+    }
+
+    /**
+     * 透传入口请求的调试header
+     * @return
+     */
+    @Bean
+    DebugHeaderInterceptor debugHeaderInterceptor(FeignLogProperties properties){
+        return new DebugHeaderInterceptor(properties);
+    }
+
+    /**
+     * 传递请求的剩余时间
+     * @return
+     */
+    @Bean
+    DeadlineInterceptor deadlineInterceptor(){
+        return new DeadlineInterceptor();
+    }
+
+    /**
+     * 请求体按Smile编码，字符串等仍按原方式
+     * Smile响应由默认的SpringDecoder解码[jackson-dataformat-smile在classpath中时HttpMessageConverters已包含Smile转换器]
+     * @return
+     */
+    @Bean
+    @ConditionalOnProperty(name = "feign.codec.smile.enabled", matchIfMissing = true)
+    Encoder feignEncoder(){
+        return new SmileEncoder(new SpringEncoder(messageConverters));
+    }
+
+    /**
+     * 声明优先接收Smile
+     * @return
+     */
+    @Bean
+    @ConditionalOnProperty(name = "feign.codec.smile.enabled", matchIfMissing = true)
+    SmileAcceptInterceptor smileAcceptInterceptor(){
+        return new SmileAcceptInterceptor();
+    }
 }
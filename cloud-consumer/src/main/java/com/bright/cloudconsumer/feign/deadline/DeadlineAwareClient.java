@@ -0,0 +1,38 @@
+package com.bright.cloudconsumer.feign.deadline;
+
+import com.bright.cloudconsumer.deadline.Deadline;
+import feign.Client;
+import feign.Request;
+import feign.Response;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * 读超时时间取ribbon配置与请求剩余时间中较小的一个
+ * 剩余时间取自DeadlineInterceptor写入的请求头，负载均衡重试时同样生效
+ */
+public class DeadlineAwareClient implements Client {
+
+    private final Client delegate;
+
+    public DeadlineAwareClient(Client delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public Response execute(Request request, Request.Options options) throws IOException {
+        Long remaining = remaining(request.headers());
+        if (remaining == null || remaining >= options.readTimeoutMillis()) {
+            return delegate.execute(request, options);
+        }
+        int readTimeout = (int) Math.max(1L, remaining);
+        return delegate.execute(request, new Request.Options(Math.min(options.connectTimeoutMillis(), readTimeout), readTimeout));
+    }
+
+    private Long remaining(Map<String, Collection<String>> headers) {
+        Collection<String> values = headers.get(Deadline.HEADER);
+        return values == null || values.isEmpty() ? null : Deadline.parse(values.iterator().next());
+    }
+}
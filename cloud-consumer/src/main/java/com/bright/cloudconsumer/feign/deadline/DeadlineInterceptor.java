@@ -0,0 +1,21 @@
+package com.bright.cloudconsumer.feign.deadline;
+
+import com.bright.cloudconsumer.deadline.Deadline;
+import feign.RequestInterceptor;
+import feign.RequestTemplate;
+
+/**
+ * 把剩余时间传给下游，已经超过截止时间时不再发出请求
+ * 注意：开启hystrix后Feign在hystrix线程中执行，读不到当前请求的截止时间
+ */
+public class DeadlineInterceptor implements RequestInterceptor {
+
+    @Override
+    public void apply(RequestTemplate template) {
+        if (!Deadline.isSet()) {
+            return;
+        }
+        Deadline.check();
+        template.header(Deadline.HEADER, String.valueOf(Deadline.remainingMillis()));
+    }
+}
@@ -0,0 +1,119 @@
+package com.bright.cloudconsumer.feign.etag;
+
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import feign.Util;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 条件GET请求
+ * 缓存带ETag的200响应，再次请求同一URL时带上If-None-Match，服务端返回304时用缓存的内容还原为200响应；
+ * /consumerInfo经FeignAsyncClient调用InfoClient.info()，ResponseCache过期后的刷新都由这里转为条件请求。
+ * 同一URL按Accept分别缓存，不同编码[Smile、JSON、文本]的响应不会混用
+ *
+ * 指标：feign.etag.requests{result=hit|miss} hit表示服务端返回了304
+ */
+public class ConditionalGetClient implements Client {
+
+    private final Client delegate;
+
+    private final ETagProperties properties;
+
+    private final Counter hit;
+
+    private final Counter miss;
+
+    /**
+     * URL + Accept -> 最近一次的响应，按访问顺序淘汰
+     */
+    private final Map<String, Entry> validators;
+
+    public ConditionalGetClient(Client delegate, ETagProperties properties, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.properties = properties;
+        this.hit = meterRegistry.counter("feign.etag.requests", "result", "hit");
+        this.miss = meterRegistry.counter("feign.etag.requests", "result", "miss");
+        this.validators = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > properties.getMaxEntries();
+            }
+        };
+    }
+
+    @Override
+    public Response execute(Request request, Request.Options options) throws IOException {
+        if (!properties.isEnabled() || !"GET".equals(request.method()) || header(request.headers(), "If-None-Match") != null) {
+            return delegate.execute(request, options);
+        }
+        String url = request.url();
+        String key = url + '\n' + header(request.headers(), "Accept");
+        Entry cached;
+        synchronized (validators) {
+            cached = validators.get(key);
+        }
+        Request actual = request;
+        if (cached != null) {
+            Map<String, Collection<String>> headers = new LinkedHashMap<String, Collection<String>>(request.headers());
+            headers.put("If-None-Match", Collections.singletonList(cached.etag));
+            actual = Request.create(request.method(), url, headers, request.body(), request.charset());
+        }
+        Response response = delegate.execute(actual, options);
+        if (cached != null && response.status() == 304) {
+            hit.increment();
+            response.close();
+            return Response.builder().status(200).reason("OK").headers(cached.headers).body(cached.body).build();
+        }
+        miss.increment();
+        String etag = header(response.headers(), "ETag");
+        if (response.status() != 200 || etag == null || response.body() == null) {
+            return response;
+        }
+        Integer length = response.body().length();
+        if (length != null && length > properties.getMaxBodyBytes()) {
+            return response;
+        }
+        byte[] body;
+        try {
+            body = Util.toByteArray(response.body().asInputStream());
+        } finally {
+            response.close();
+        }
+        if (body.length <= properties.getMaxBodyBytes()) {
+            synchronized (validators) {
+                validators.put(key, new Entry(etag, response.headers(), body));
+            }
+        }
+        return Response.builder().status(response.status()).reason(response.reason())
+                .headers(response.headers()).body(body).build();
+    }
+
+    private static String header(Map<String, Collection<String>> headers, String name) {
+        for (Map.Entry<String, Collection<String>> entry : headers.entrySet()) {
+            if (name.equalsIgnoreCase(entry.getKey()) && !entry.getValue().isEmpty()) {
+                return entry.getValue().iterator().next();
+            }
+        }
+        return null;
+    }
+
+    private static final class Entry {
+        final String etag;
+        final Map<String, Collection<String>> headers;
+        final byte[] body;
+
+        Entry(String etag, Map<String, Collection<String>> headers, byte[] body) {
+            this.etag = etag;
+            this.headers = headers;
+            this.body = body;
+        }
+    }
+}
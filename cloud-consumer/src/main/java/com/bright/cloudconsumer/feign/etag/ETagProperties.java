@@ -0,0 +1,48 @@
+package com.bright.cloudconsumer.feign.etag;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Feign条件请求配置
+ */
+@ConfigurationProperties(prefix = "feign.etag")
+@Component
+public class ETagProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * 最多缓存的URL数，超出后淘汰最久未使用的
+     */
+    private int maxEntries = 256;
+
+    /**
+     * 超过该大小[字节]的响应不缓存
+     */
+    private int maxBodyBytes = 64 * 1024;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    public void setMaxEntries(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    public int getMaxBodyBytes() {
+        return maxBodyBytes;
+    }
+
+    public void setMaxBodyBytes(int maxBodyBytes) {
+        this.maxBodyBytes = maxBodyBytes;
+    }
+}
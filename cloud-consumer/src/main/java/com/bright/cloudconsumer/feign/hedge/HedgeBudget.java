@@ -0,0 +1,45 @@
+package com.bright.cloudconsumer.feign.hedge;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 对冲请求预算
+ * 每个正常请求积累ratio个额度，每次对冲消耗1个，额度最多积累maxBurst个，
+ * 对冲请求占总请求的比例不会超过ratio，下游过载时也不会成倍放大请求
+ */
+class HedgeBudget {
+
+    private static final long UNIT = 1000;
+
+    private final AtomicLong credits = new AtomicLong();
+
+    private final long perRequest;
+
+    private final long max;
+
+    HedgeBudget(double ratio, int maxBurst) {
+        this.perRequest = Math.round(ratio * UNIT);
+        this.max = maxBurst * UNIT;
+    }
+
+    void onRequest() {
+        long current;
+        do {
+            current = credits.get();
+            if (current >= max) {
+                return;
+            }
+        } while (!credits.compareAndSet(current, Math.min(max, current + perRequest)));
+    }
+
+    boolean tryAcquire() {
+        long current;
+        do {
+            current = credits.get();
+            if (current < UNIT) {
+                return false;
+            }
+        } while (!credits.compareAndSet(current, current - UNIT));
+        return true;
+    }
+}
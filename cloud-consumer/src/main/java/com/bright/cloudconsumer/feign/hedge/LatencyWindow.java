@@ -0,0 +1,56 @@
+package com.bright.cloudconsumer.feign.hedge;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 最近N次调用耗时的滑动窗口，每记录一定次数后重新计算分位数
+ */
+class LatencyWindow {
+
+    private static final int RECOMPUTE_EVERY = 64;
+
+    private final AtomicLongArray samples;
+
+    private final AtomicLong count = new AtomicLong();
+
+    private final double percentile;
+
+    private final int minSamples;
+
+    private volatile long percentileNanos = -1;
+
+    LatencyWindow(int size, double percentile, int minSamples) {
+        this.samples = new AtomicLongArray(size);
+        this.percentile = percentile;
+        this.minSamples = Math.min(minSamples, size);
+    }
+
+    void record(long nanos) {
+        long n = count.getAndIncrement();
+        samples.set((int) (n % samples.length()), nanos);
+        long recorded = n + 1;
+        if (recorded >= minSamples && (recorded == minSamples || recorded % RECOMPUTE_EVERY == 0)) {
+            recompute(recorded);
+        }
+    }
+
+    /**
+     * @return 样本不足时返回-1
+     */
+    long percentileNanos() {
+        return percentileNanos;
+    }
+
+    private void recompute(long recorded) {
+        int size = (int) Math.min(recorded, samples.length());
+        long[] copy = new long[size];
+        for (int i = 0; i < size; i++) {
+            copy[i] = samples.get(i);
+        }
+        Arrays.sort(copy);
+        int index = (int) Math.ceil(percentile * size) - 1;
+        percentileNanos = copy[Math.max(0, Math.min(size - 1, index))];
+    }
+}
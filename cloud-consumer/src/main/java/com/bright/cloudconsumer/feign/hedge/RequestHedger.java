@@ -0,0 +1,192 @@
+package com.bright.cloudconsumer.feign.hedge;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * 对冲请求，只用于幂等的调用
+ * 请求在观测到的p95耗时内未返回时再发一次，先返回的结果生效，另一个请求被取消；
+ * 对冲请求同样由Ribbon选择实例，FeignAsyncClient为两次请求绑定同一个ServerExclusion，PeakEwmaRule避开第一次请求的实例[只有一个可用实例时除外]；
+ * 被取消的请求由FeignAsyncClient abort，线程立即释放，连接关闭不放回连接池，代价是之后重新建立一个连接；
+ * 对冲请求受预算限制，默认不超过总请求的5%
+ *
+ * 指标：
+ *  feign.hedge.sent 发出的对冲请求数
+ *  feign.hedge.won 对冲请求先返回的次数
+ *  feign.hedge.rejected 因预算不足没有发出的对冲请求数
+ */
+@ConfigurationProperties(prefix = "feign.hedge")
+@Component
+public class RequestHedger {
+
+    private boolean enabled = true;
+
+    /**
+     * 允许对冲的调用，key与Feign的configKey一致，如InfoClient#info()
+     */
+    private Set<String> keys = new HashSet<String>();
+
+    /**
+     * 等待该分位数的耗时后发出对冲请求
+     */
+    private double percentile = 0.95;
+
+    /**
+     * 对冲请求占总请求的最大比例[%]
+     */
+    private double budgetPercent = 5;
+
+    /**
+     * 对冲等待的最短时间[ms]
+     */
+    private long minDelayMillis = 5;
+
+    /**
+     * 统计耗时的样本数，样本不足minSamples时不对冲
+     */
+    private int windowSize = 1000;
+
+    private int minSamples = 100;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final ConcurrentMap<String, LatencyWindow> windows = new ConcurrentHashMap<String, LatencyWindow>();
+
+    private final ConcurrentMap<String, HedgeBudget> budgets = new ConcurrentHashMap<String, HedgeBudget>();
+
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "feign-hedger");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Set<String> getKeys() {
+        return keys;
+    }
+
+    public void setKeys(Set<String> keys) {
+        this.keys = keys;
+    }
+
+    public void setPercentile(double percentile) {
+        this.percentile = percentile;
+    }
+
+    public void setBudgetPercent(double budgetPercent) {
+        this.budgetPercent = budgetPercent;
+    }
+
+    public void setMinDelayMillis(long minDelayMillis) {
+        this.minDelayMillis = minDelayMillis;
+    }
+
+    public void setWindowSize(int windowSize) {
+        this.windowSize = windowSize;
+    }
+
+    public void setMinSamples(int minSamples) {
+        this.minSamples = minSamples;
+    }
+
+    public boolean isHedged(String key) {
+        return enabled && keys.contains(key);
+    }
+
+    /**
+     * @param key  调用的key
+     * @param call 发出一次请求，第一次请求和对冲请求都调用它
+     * @return
+     */
+    public <T> CompletableFuture<T> execute(String key, Supplier<CompletableFuture<T>> call) {
+        LatencyWindow window = windows.computeIfAbsent(key, k -> new LatencyWindow(windowSize, percentile, minSamples));
+        HedgeBudget budget = budgets.computeIfAbsent(key, k -> new HedgeBudget(budgetPercent / 100, 10));
+        budget.onRequest();
+
+        CompletableFuture<T> result = new CompletableFuture<T>();
+        List<CompletableFuture<T>> attempts = new ArrayList<CompletableFuture<T>>(2);
+        AtomicInteger running = new AtomicInteger(1);
+        attempts.add(attempt(call, window, result, running, null));
+
+        long delay = window.percentileNanos();
+        if (delay >= 0) {
+            delay = Math.max(delay, TimeUnit.MILLISECONDS.toNanos(minDelayMillis));
+            timer.schedule(() -> {
+                if (result.isDone()) {
+                    return;
+                }
+                if (!budget.tryAcquire()) {
+                    meterRegistry.counter("feign.hedge.rejected", "key", key).increment();
+                    return;
+                }
+                meterRegistry.counter("feign.hedge.sent", "key", key).increment();
+                running.incrementAndGet();
+                CompletableFuture<T> hedge = attempt(call, window, result, running, key);
+                synchronized (attempts) {
+                    attempts.add(hedge);
+                }
+                if (result.isDone()) {
+                    hedge.cancel(false);
+                }
+            }, delay, TimeUnit.NANOSECONDS);
+        }
+
+        //先返回的结果生效，取消其他请求
+        result.whenComplete((value, error) -> {
+            synchronized (attempts) {
+                for (CompletableFuture<T> attempt : attempts) {
+                    if (!attempt.isDone()) {
+                        attempt.cancel(false);
+                    }
+                }
+            }
+        });
+        return result;
+    }
+
+    @PreDestroy
+    public void destroy() {
+        timer.shutdownNow();
+    }
+
+    /**
+     * @param hedgeKey 对冲请求传入key，用于统计对冲胜出的次数
+     */
+    private <T> CompletableFuture<T> attempt(Supplier<CompletableFuture<T>> call, LatencyWindow window,
+                                             CompletableFuture<T> result, AtomicInteger running, String hedgeKey) {
+        long start = System.nanoTime();
+        CompletableFuture<T> attempt = call.get();
+        attempt.whenComplete((value, error) -> {
+            if (error == null) {
+                window.record(System.nanoTime() - start);
+                if (result.complete(value) && hedgeKey != null) {
+                    meterRegistry.counter("feign.hedge.won", "key", hedgeKey).increment();
+                }
+            } else if (running.decrementAndGet() == 0) {
+                //所有请求都失败时才返回失败
+                result.completeExceptionally(error);
+            }
+        });
+        return attempt;
+    }
+}
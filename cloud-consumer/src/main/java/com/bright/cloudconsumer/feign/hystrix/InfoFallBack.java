@@ -1,12 +1,46 @@
 package com.bright.cloudconsumer.feign.hystrix;
 
+import com.bright.cloudconsumer.dto.InfoItem;
+import com.bright.cloudconsumer.feign.async.InfoAsyncClient;
+import com.bright.cloudconsumer.feign.cache.ResponseCache;
 import com.bright.cloudconsumer.feign.service.InfoClient;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.List;
+
 @Component
 public class InfoFallBack implements InfoClient {
+
+    @Autowired
+    private ResponseCache responseCache;
+
+    public static final String FALLBACK_INFO = "fallback info";
+
+    /**
+     * 优先返回最后一次成功的结果[由InfoAsyncClient经Feign调用info()成功时记入ResponseCache]；
+     * 缓存过期超过max-stale时才会走到这里。
+     * 返回一个新的对象登记为降级结果：不会写入缓存、刷新缓存时间，缓存中的对象本身也不会被当作降级结果
+     * @return
+     */
     @Override
     public String info() {
-        return "fallback info";
+        String lastGood = responseCache.getLastGood(InfoAsyncClient.INFO_KEY);
+        return responseCache.markFallback(new String(lastGood != null ? lastGood : FALLBACK_INFO));
+    }
+
+    /**
+     * 每个key都返回降级结果
+     * @param keys
+     * @return
+     */
+    @Override
+    public List<InfoItem> infoBatch(List<String> keys) {
+        List<InfoItem> items = new ArrayList<InfoItem>(keys.size());
+        for (String key : keys) {
+            items.add(new InfoItem(key, FALLBACK_INFO));
+        }
+        return items;
     }
 }
@@ -0,0 +1,55 @@
+package com.bright.cloudconsumer.feign.limit;
+
+import com.bright.cloudconsumer.feign.async.CallCancellation;
+import com.bright.cloudconsumer.limit.AdaptiveLimiter;
+import com.bright.cloudconsumer.limit.ConcurrencyLimiters;
+import feign.Client;
+import feign.Request;
+import feign.Response;
+
+import java.io.IOException;
+import java.net.URI;
+
+/**
+ * Feign调用的自适应并发限制，按服务名[负载均衡前URL中的host]限制
+ * 超出上限时直接抛出LimitExceededException，开启hystrix时走fallback；
+ * 被取消的异步调用[对冲中落后的一方]不参与计算
+ */
+public class ConcurrencyLimitedClient implements Client {
+
+    private final Client delegate;
+
+    private final ConcurrencyLimiters limiters;
+
+    public ConcurrencyLimitedClient(Client delegate, ConcurrencyLimiters limiters) {
+        this.delegate = delegate;
+        this.limiters = limiters;
+    }
+
+    @Override
+    public Response execute(Request request, Request.Options options) throws IOException {
+        AdaptiveLimiter limiter = limiters.get(URI.create(request.url()).getHost());
+        long start = limiters.acquire(limiter);
+        Response response;
+        try {
+            response = delegate.execute(request, options);
+        } catch (IOException | RuntimeException e) {
+            if (limiter != null) {
+                if (CallCancellation.isCurrentCancelled()) {
+                    limiter.onIgnore();
+                } else {
+                    limiter.onDropped();
+                }
+            }
+            throw e;
+        }
+        if (limiter != null) {
+            if (response.status() >= 500) {
+                limiter.onDropped();
+            } else {
+                limiter.onSuccess(start);
+            }
+        }
+        return response;
+    }
+}
@@ -0,0 +1,97 @@
+package com.bright.cloudconsumer.feign.log;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 异步日志输出
+ * 请求线程只把日志参数放入有界队列，格式化和输出在后台线程完成，队列满时丢弃并计数[feign.log.dropped]
+ */
+@Component
+public class AsyncLogWriter {
+    private static final Logger logger = LoggerFactory.getLogger("feign.request");
+
+    @Autowired
+    private FeignLogProperties properties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private BlockingQueue<Event> queue;
+
+    private Counter dropped;
+
+    private Thread writer;
+
+    private volatile boolean running = true;
+
+    @PostConstruct
+    public void start() {
+        queue = new ArrayBlockingQueue<Event>(properties.getQueueSize());
+        dropped = meterRegistry.counter("feign.log.dropped");
+        writer = new Thread(this::drain, "feign-log-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        writer.interrupt();
+        writer.join(1000);
+    }
+
+    public boolean isEnabled() {
+        return logger.isInfoEnabled();
+    }
+
+    public void write(String configKey, String format, Object... args) {
+        if (!queue.offer(new Event(configKey, format, args))) {
+            dropped.increment();
+        }
+    }
+
+    private void drain() {
+        while (running || !queue.isEmpty()) {
+            try {
+                Event event = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (event != null) {
+                    logger.info("[{}] {}", event.configKey, String.format(event.format, event.args));
+                }
+            } catch (InterruptedException e) {
+                if (!running) {
+                    //停止时把队列中剩余的日志写完
+                    Event event;
+                    while ((event = queue.poll()) != null) {
+                        logger.info("[{}] {}", event.configKey, String.format(event.format, event.args));
+                    }
+                    return;
+                }
+            } catch (RuntimeException e) {
+                logger.warn("write feign log failed: {}", e.toString());
+            }
+        }
+    }
+
+    private static final class Event {
+        final String configKey;
+        final String format;
+        final Object[] args;
+
+        Event(String configKey, String format, Object[] args) {
+            this.configKey = configKey;
+            this.format = format;
+            this.args = args;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.bright.cloudconsumer.feign.log;
+
+import java.util.function.Supplier;
+
+/**
+ * 当前请求的调试header的值
+ * 收到请求时由DebugHeaderFilter放入当前线程，Feign调用在其他线程[feignAsyncExecutor、请求合并]中发出时随调用传递，
+ * DebugHeaderInterceptor据此透传到下游
+ */
+public final class DebugContext {
+
+    private static final ThreadLocal<String> VALUE = new ThreadLocal<String>();
+
+    private DebugContext() {
+    }
+
+    public static void set(String value) {
+        VALUE.set(value);
+    }
+
+    public static void clear() {
+        VALUE.remove();
+    }
+
+    /**
+     * @return 调试header的值，不是调试请求时返回null
+     */
+    public static String current() {
+        return VALUE.get();
+    }
+
+    /**
+     * 在其他线程中执行时带上当前线程的调试header
+     */
+    public static <T> Supplier<T> propagate(Supplier<T> task) {
+        return propagate(VALUE.get(), task);
+    }
+
+    /**
+     * 执行时带上指定的调试header
+     *
+     * @param value current()的返回值，null表示不是调试请求
+     */
+    public static <T> Supplier<T> propagate(String value, Supplier<T> task) {
+        if (value == null) {
+            return task;
+        }
+        return () -> {
+            String previous = VALUE.get();
+            VALUE.set(value);
+            try {
+                return task.get();
+            } finally {
+                if (previous == null) {
+                    VALUE.remove();
+                } else {
+                    VALUE.set(previous);
+                }
+            }
+        };
+    }
+}
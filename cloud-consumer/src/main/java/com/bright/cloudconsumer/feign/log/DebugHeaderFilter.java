@@ -0,0 +1,43 @@
+package com.bright.cloudconsumer.feign.log;
+
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * 读取入口请求的调试header，放入DebugContext
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class DebugHeaderFilter extends OncePerRequestFilter {
+
+    private final FeignLogProperties properties;
+
+    public DebugHeaderFilter(FeignLogProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String header = properties.getDebugHeader();
+        String value = header == null ? null : request.getHeader(header);
+        if (value == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        DebugContext.set(value);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            DebugContext.clear();
+        }
+    }
+}
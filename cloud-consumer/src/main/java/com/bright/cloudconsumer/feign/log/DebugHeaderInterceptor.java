@@ -0,0 +1,29 @@
+package com.bright.cloudconsumer.feign.log;
+
+import feign.RequestInterceptor;
+import feign.RequestTemplate;
+
+/**
+ * 入口请求带有调试header时，透传到本次调用的Feign请求，SampledFeignLogger据此输出完整日志
+ * 从DebugContext读取，Feign调用在feignAsyncExecutor、请求合并的线程中发出时同样有效
+ */
+public class DebugHeaderInterceptor implements RequestInterceptor {
+
+    private final FeignLogProperties properties;
+
+    public DebugHeaderInterceptor(FeignLogProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    public void apply(RequestTemplate template) {
+        String header = properties.getDebugHeader();
+        if (header == null || template.headers().containsKey(header)) {
+            return;
+        }
+        String value = DebugContext.current();
+        if (value != null) {
+            template.header(header, value);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.bright.cloudconsumer.feign.log;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Feign请求日志配置
+ */
+@ConfigurationProperties(prefix = "feign.log")
+@Component
+public class FeignLogProperties {
+
+    /**
+     * 完整记录的请求比例[0~1]
+     */
+    private double sampleRate = 0.01;
+
+    /**
+     * 超过该耗时[ms]的请求总是完整记录
+     */
+    private long slowThresholdMillis = 1000;
+
+    /**
+     * 请求带上该header时完整记录本次请求
+     */
+    private String debugHeader = "X-Feign-Debug";
+
+    /**
+     * 异步日志队列长度，队列满时丢弃
+     */
+    private int queueSize = 4096;
+
+    public double getSampleRate() {
+        return sampleRate;
+    }
+
+    public void setSampleRate(double sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    public long getSlowThresholdMillis() {
+        return slowThresholdMillis;
+    }
+
+    public void setSlowThresholdMillis(long slowThresholdMillis) {
+        this.slowThresholdMillis = slowThresholdMillis;
+    }
+
+    public String getDebugHeader() {
+        return debugHeader;
+    }
+
+    public void setDebugHeader(String debugHeader) {
+        this.debugHeader = debugHeader;
+    }
+
+    public int getQueueSize() {
+        return queueSize;
+    }
+
+    public void setQueueSize(int queueSize) {
+        this.queueSize = queueSize;
+    }
+}
@@ -0,0 +1,30 @@
+package com.bright.cloudconsumer.feign.log;
+
+import feign.Client;
+import feign.Request;
+import feign.Response;
+
+import java.io.IOException;
+
+/**
+ * 请求在返回响应前抛出RuntimeException[如并发限制拒绝、Ribbon没有可用实例]时，Feign不会再调用Logger，
+ * 在这里清除SampledFeignLogger暂存的请求，避免留在线程上被同一线程的下一个请求补记
+ */
+public class PendingLogClearingClient implements Client {
+
+    private final Client delegate;
+
+    public PendingLogClearingClient(Client delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public Response execute(Request request, Request.Options options) throws IOException {
+        try {
+            return delegate.execute(request, options);
+        } catch (RuntimeException | Error e) {
+            SampledFeignLogger.clearPending();
+            throw e;
+        }
+    }
+}
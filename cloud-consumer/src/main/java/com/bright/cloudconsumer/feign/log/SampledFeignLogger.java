@@ -0,0 +1,114 @@
+package com.bright.cloudconsumer.feign.log;
+
+import com.bright.cloudconsumer.feign.async.CallCancellation;
+import feign.Logger;
+import feign.Request;
+import feign.Response;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 按条件输出完整日志的Feign Logger
+ *
+ * 以下请求按FULL输出请求和响应：
+ *  1.按sampleRate采样命中的请求
+ *  2.请求头带有debugHeader的请求
+ *  3.耗时超过slowThresholdMillis、响应码>=400或IO异常的请求[响应返回后补记请求]
+ * 其他请求不读取header和body，也不缓冲响应体
+ */
+public class SampledFeignLogger extends Logger {
+
+    /**
+     * 当前线程正在执行且未完整记录的请求，响应返回后判断是否需要补记；
+     * 响应和IO异常时在这里清除，其他异常由PendingLogClearingClient清除
+     */
+    private static final ThreadLocal<Request> PENDING = new ThreadLocal<Request>();
+
+    private final FeignLogProperties properties;
+
+    private final AsyncLogWriter writer;
+
+    public SampledFeignLogger(FeignLogProperties properties, AsyncLogWriter writer) {
+        this.properties = properties;
+        this.writer = writer;
+    }
+
+    @Override
+    protected void log(String configKey, String format, Object... args) {
+        writer.write(configKey, format, args);
+    }
+
+    @Override
+    protected void logRequest(String configKey, Level logLevel, Request request) {
+        if (!writer.isEnabled()) {
+            return;
+        }
+        if (isDebug(request) || sampled()) {
+            PENDING.remove();
+            super.logRequest(configKey, Level.FULL, request);
+        } else {
+            PENDING.set(request);
+        }
+    }
+
+    @Override
+    protected void logRetry(String configKey, Level logLevel) {
+        if (writer.isEnabled()) {
+            super.logRetry(configKey, logLevel);
+        }
+    }
+
+    @Override
+    protected Response logAndRebufferResponse(String configKey, Level logLevel, Response response,
+                                              long elapsedTime) throws IOException {
+        if (!writer.isEnabled()) {
+            return response;
+        }
+        Request pending = PENDING.get();
+        if (pending == null) {
+            //请求已经完整记录
+            return super.logAndRebufferResponse(configKey, Level.FULL, response, elapsedTime);
+        }
+        PENDING.remove();
+        if (elapsedTime >= properties.getSlowThresholdMillis() || response.status() >= 400) {
+            super.logRequest(configKey, Level.FULL, pending);
+            return super.logAndRebufferResponse(configKey, Level.FULL, response, elapsedTime);
+        }
+        return response;
+    }
+
+    @Override
+    protected IOException logIOException(String configKey, Level logLevel, IOException ioe, long elapsedTime) {
+        if (!writer.isEnabled()) {
+            return ioe;
+        }
+        Request pending = PENDING.get();
+        PENDING.remove();
+        if (CallCancellation.isCurrentCancelled()) {
+            //对冲中落后的一方被abort，不是失败
+            return ioe;
+        }
+        if (pending != null) {
+            super.logRequest(configKey, Level.FULL, pending);
+        }
+        return super.logIOException(configKey, Level.FULL, ioe, elapsedTime);
+    }
+
+    /**
+     * 请求没有返回响应也没有IO异常时调用
+     */
+    static void clearPending() {
+        PENDING.remove();
+    }
+
+    private boolean isDebug(Request request) {
+        String header = properties.getDebugHeader();
+        return header != null && request.headers().containsKey(header);
+    }
+
+    private boolean sampled() {
+        double rate = properties.getSampleRate();
+        return rate > 0 && (rate >= 1 || ThreadLocalRandom.current().nextDouble() < rate);
+    }
+}
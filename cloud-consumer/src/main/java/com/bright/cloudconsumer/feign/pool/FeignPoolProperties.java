@@ -0,0 +1,119 @@
+package com.bright.cloudconsumer.feign.pool;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Feign连接池配置
+ */
+@ConfigurationProperties(prefix = "feign.pool")
+@Component
+public class FeignPoolProperties {
+
+    /**
+     * 连接池总连接数
+     */
+    private int maxTotal = 200;
+
+    /**
+     * 每个服务实例[host:port]默认的最大连接数
+     */
+    private int defaultMaxPerHost = 50;
+
+    /**
+     * 按实例单独配置最大连接数，key为host:port或host
+     */
+    private Map<String, Integer> maxPerHost = new HashMap<String, Integer>();
+
+    /**
+     * 服务端未返回Keep-Alive头时连接保持的时间[ms]
+     */
+    private long keepAliveMillis = 30000;
+
+    /**
+     * 空闲超过该时间的连接被回收[ms]
+     */
+    private long idleTimeoutMillis = 30000;
+
+    /**
+     * 回收线程的执行间隔[ms]
+     */
+    private long evictionIntervalMillis = 5000;
+
+    /**
+     * 连接空闲超过该时间后再次使用前先检查是否可用[ms]
+     */
+    private int validateAfterInactivityMillis = 2000;
+
+    /**
+     * 连接最长存活时间[ms]，-1表示不限制
+     */
+    private long timeToLiveMillis = -1;
+
+    public int getMaxTotal() {
+        return maxTotal;
+    }
+
+    public void setMaxTotal(int maxTotal) {
+        this.maxTotal = maxTotal;
+    }
+
+    public int getDefaultMaxPerHost() {
+        return defaultMaxPerHost;
+    }
+
+    public void setDefaultMaxPerHost(int defaultMaxPerHost) {
+        this.defaultMaxPerHost = defaultMaxPerHost;
+    }
+
+    public Map<String, Integer> getMaxPerHost() {
+        return maxPerHost;
+    }
+
+    public void setMaxPerHost(Map<String, Integer> maxPerHost) {
+        this.maxPerHost = maxPerHost;
+    }
+
+    public long getKeepAliveMillis() {
+        return keepAliveMillis;
+    }
+
+    public void setKeepAliveMillis(long keepAliveMillis) {
+        this.keepAliveMillis = keepAliveMillis;
+    }
+
+    public long getIdleTimeoutMillis() {
+        return idleTimeoutMillis;
+    }
+
+    public void setIdleTimeoutMillis(long idleTimeoutMillis) {
+        this.idleTimeoutMillis = idleTimeoutMillis;
+    }
+
+    public long getEvictionIntervalMillis() {
+        return evictionIntervalMillis;
+    }
+
+    public void setEvictionIntervalMillis(long evictionIntervalMillis) {
+        this.evictionIntervalMillis = evictionIntervalMillis;
+    }
+
+    public int getValidateAfterInactivityMillis() {
+        return validateAfterInactivityMillis;
+    }
+
+    public void setValidateAfterInactivityMillis(int validateAfterInactivityMillis) {
+        this.validateAfterInactivityMillis = validateAfterInactivityMillis;
+    }
+
+    public long getTimeToLiveMillis() {
+        return timeToLiveMillis;
+    }
+
+    public void setTimeToLiveMillis(long timeToLiveMillis) {
+        this.timeToLiveMillis = timeToLiveMillis;
+    }
+}
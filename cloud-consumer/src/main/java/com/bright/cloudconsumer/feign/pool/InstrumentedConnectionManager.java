@@ -0,0 +1,150 @@
+package com.bright.cloudconsumer.feign.pool;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.http.HttpClientConnection;
+import org.apache.http.HttpHost;
+import org.apache.http.config.ConnectionConfig;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.apache.http.conn.ConnectionRequest;
+import org.apache.http.conn.HttpConnectionFactory;
+import org.apache.http.conn.ManagedHttpClientConnection;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.impl.conn.ManagedHttpClientConnectionFactory;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 带指标的连接池，按实例[host:port]限制连接数
+ *
+ * 指标：
+ *  feign.pool.acquire 从连接池获取连接的耗时
+ *  feign.pool.leases 获取连接的次数
+ *  feign.pool.connections.created 新建连接的次数
+ *  feign.pool.reuse.ratio 连接复用率[1 - 新建/获取]
+ *  feign.pool.leased/available/pending 连接池当前状态
+ */
+public class InstrumentedConnectionManager extends PoolingHttpClientConnectionManager {
+
+    private final FeignPoolProperties properties;
+
+    private final MeterRegistry meterRegistry;
+
+    private final Counter leases;
+
+    private final Counter created;
+
+    /**
+     * 已设置过连接数上限的实例
+     */
+    private final Set<HttpRoute> configuredRoutes = ConcurrentHashMap.newKeySet();
+
+    public InstrumentedConnectionManager(FeignPoolProperties properties, MeterRegistry meterRegistry) {
+        this(properties, meterRegistry, meterRegistry.counter("feign.pool.connections.created"));
+    }
+
+    private InstrumentedConnectionManager(FeignPoolProperties properties, MeterRegistry meterRegistry, Counter created) {
+        super(RegistryBuilder.<ConnectionSocketFactory>create()
+                        .register("http", PlainConnectionSocketFactory.getSocketFactory())
+                        .register("https", SSLConnectionSocketFactory.getSocketFactory())
+                        .build(),
+                new CountingConnectionFactory(created), null, null,
+                properties.getTimeToLiveMillis(), TimeUnit.MILLISECONDS);
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.created = created;
+        this.leases = meterRegistry.counter("feign.pool.leases");
+        setMaxTotal(properties.getMaxTotal());
+        setDefaultMaxPerRoute(properties.getDefaultMaxPerHost());
+        setValidateAfterInactivity(properties.getValidateAfterInactivityMillis());
+
+        Gauge.builder("feign.pool.leased", this, m -> m.getTotalStats().getLeased()).register(meterRegistry);
+        Gauge.builder("feign.pool.available", this, m -> m.getTotalStats().getAvailable()).register(meterRegistry);
+        Gauge.builder("feign.pool.pending", this, m -> m.getTotalStats().getPending()).register(meterRegistry);
+        Gauge.builder("feign.pool.reuse.ratio", this, InstrumentedConnectionManager::reuseRatio).register(meterRegistry);
+    }
+
+    @Override
+    public ConnectionRequest requestConnection(HttpRoute route, Object state) {
+        applyHostLimit(route);
+        final ConnectionRequest request = super.requestConnection(route, state);
+        final Timer acquire = meterRegistry.timer("feign.pool.acquire", "host", route.getTargetHost().toHostString());
+        return new ConnectionRequest() {
+            @Override
+            public HttpClientConnection get(long timeout, TimeUnit tunit)
+                    throws InterruptedException, ExecutionException, ConnectionPoolTimeoutException {
+                long start = System.nanoTime();
+                try {
+                    HttpClientConnection connection = request.get(timeout, tunit);
+                    //超时和中断没有拿到连接，不计入租用次数
+                    leases.increment();
+                    return connection;
+                } finally {
+                    acquire.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                }
+            }
+
+            @Override
+            public boolean cancel() {
+                return request.cancel();
+            }
+        };
+    }
+
+    /**
+     * 关闭过期和空闲超时的连接，由定时任务调用
+     */
+    public void evictIdleConnections() {
+        closeExpiredConnections();
+        closeIdleConnections(properties.getIdleTimeoutMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private double reuseRatio() {
+        double leased = leases.count();
+        return leased == 0 ? 0D : Math.max(0D, 1D - created.count() / leased);
+    }
+
+    /**
+     * 实例由服务发现动态获得，第一次请求时再按配置设置连接数上限
+     */
+    private void applyHostLimit(HttpRoute route) {
+        if (!configuredRoutes.add(route)) {
+            return;
+        }
+        Map<String, Integer> maxPerHost = properties.getMaxPerHost();
+        HttpHost target = route.getTargetHost();
+        Integer max = maxPerHost.get(target.toHostString());
+        if (max == null) {
+            max = maxPerHost.get(target.getHostName());
+        }
+        if (max != null) {
+            setMaxPerRoute(route, max);
+        }
+    }
+
+    private static final class CountingConnectionFactory implements HttpConnectionFactory<HttpRoute, ManagedHttpClientConnection> {
+
+        private final Counter created;
+
+        CountingConnectionFactory(Counter created) {
+            this.created = created;
+        }
+
+        @Override
+        public ManagedHttpClientConnection create(HttpRoute route, ConnectionConfig config) {
+            created.increment();
+            return ManagedHttpClientConnectionFactory.INSTANCE.create(route, config);
+        }
+    }
+}
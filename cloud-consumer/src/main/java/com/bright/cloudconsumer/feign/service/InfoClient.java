@@ -1,9 +1,14 @@
 package com.bright.cloudconsumer.feign.service;
 
+import com.bright.cloudconsumer.dto.InfoItem;
 import com.bright.cloudconsumer.feign.config.MyFeignConfig;
 import com.bright.cloudconsumer.feign.hystrix.InfoFallBack;
 import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+
+import java.util.List;
 
 //1.name为被调用的服务应用名称
 //2.InfoFallBack作为熔断实现，当请求cloud-provider失败时调用其中的方法
@@ -14,4 +19,8 @@ public interface InfoClient {
     //被请求微服务的地址
     @RequestMapping("/info")
     String info();
+
+    //批量查询，一次请求代替N次info调用，返回顺序与keys无关
+    @RequestMapping(value = "/info/batch", method = RequestMethod.POST)
+    List<InfoItem> infoBatch(@RequestBody List<String> keys);
 }
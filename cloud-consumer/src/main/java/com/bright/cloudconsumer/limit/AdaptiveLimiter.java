@@ -0,0 +1,128 @@
+package com.bright.cloudconsumer.limit;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 自适应并发上限[耗时梯度 + AIMD退避]
+ *
+ * 每次请求完成后比较长期平均耗时longRtt与当前耗时：
+ *  gradient = clamp(longRtt / rtt, 0.5, 1)
+ *  newLimit = limit * gradient + sqrt(limit)
+ * 耗时没有上升时上限逐步增加，耗时上升[下游开始排队]时上限按比例下降；
+ * 失败或超时时上限乘以backoffRatio。进行中的请求数达到上限后新请求直接拒绝，不排队
+ */
+public class AdaptiveLimiter {
+
+    private final String name;
+
+    private final int minLimit;
+
+    private final int maxLimit;
+
+    private final double smoothing;
+
+    private final double backoffRatio;
+
+    private final int longWindow;
+
+    private final AtomicInteger inflight = new AtomicInteger();
+
+    private volatile double limit;
+
+    private volatile double longRttNanos;
+
+    private long samples;
+
+    private volatile double lastRttNanos;
+
+    AdaptiveLimiter(String name, int initialLimit, int minLimit, int maxLimit,
+                    double smoothing, double backoffRatio, int longWindow) {
+        this.name = name;
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.smoothing = smoothing;
+        this.backoffRatio = backoffRatio;
+        this.longWindow = longWindow;
+    }
+
+    /**
+     * @return 开始时间[System.nanoTime()]，请求成功后传给onSuccess
+     * @throws LimitExceededException 进行中的请求数已达到上限
+     */
+    public long acquire() {
+        int current;
+        do {
+            current = inflight.get();
+            if (current >= (int) limit) {
+                throw new LimitExceededException(name, (int) limit);
+            }
+        } while (!inflight.compareAndSet(current, current + 1));
+        return System.nanoTime();
+    }
+
+    public void onSuccess(long start) {
+        int current = inflight.getAndDecrement();
+        update(System.nanoTime() - start, current);
+    }
+
+    /**
+     * 请求失败或超时
+     */
+    public void onDropped() {
+        inflight.decrementAndGet();
+        synchronized (this) {
+            limit = Math.max(minLimit, limit * backoffRatio);
+        }
+    }
+
+    /**
+     * 请求被取消，不参与计算
+     */
+    public void onIgnore() {
+        inflight.decrementAndGet();
+    }
+
+    private synchronized void update(long rtt, int inflightAtEnd) {
+        lastRttNanos = rtt;
+        samples++;
+        if (samples == 1) {
+            longRttNanos = rtt;
+            return;
+        }
+        //样本数达到窗口前按算术平均，之后按EWMA
+        double factor = 1D / Math.min(samples, longWindow);
+        longRttNanos = longRttNanos * (1 - factor) + rtt * factor;
+        //长期耗时被拉高后逐步回落，避免持续过载后上限无法恢复
+        if (longRttNanos / rtt > 2) {
+            longRttNanos *= 0.95;
+        }
+        //进行中的请求远低于上限时，耗时不能说明上限是否合适
+        if (inflightAtEnd < limit / 2) {
+            return;
+        }
+        double gradient = Math.max(0.5, Math.min(1D, longRttNanos / rtt));
+        double newLimit = limit * gradient + Math.sqrt(limit);
+        newLimit = limit * (1 - smoothing) + newLimit * smoothing;
+        limit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInflight() {
+        return inflight.get();
+    }
+
+    /**
+     * @return 最近一次耗时高出长期平均耗时的部分[ms]，即下游的排队时间估计
+     */
+    public double getQueueDelayMillis() {
+        return Math.max(0D, lastRttNanos - longRttNanos) / 1000000D;
+    }
+}
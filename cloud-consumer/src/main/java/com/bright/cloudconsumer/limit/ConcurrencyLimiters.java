@@ -0,0 +1,115 @@
+package com.bright.cloudconsumer.limit;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 下游调用的自适应并发限制，按名称[服务名cloud-provider、redis]各自独立
+ *
+ * 指标：
+ *  concurrency.limit 当前并发上限
+ *  concurrency.inflight 进行中的请求数
+ *  concurrency.queue.delay 下游排队时间估计[ms]
+ *  concurrency.rejected 被拒绝的请求数
+ */
+@ConfigurationProperties(prefix = "concurrency.limit")
+@Component
+public class ConcurrencyLimiters {
+
+    private boolean enabled = true;
+
+    private int initialLimit = 20;
+
+    private int minLimit = 1;
+
+    private int maxLimit = 200;
+
+    /**
+     * 每次调整时新上限所占的权重
+     */
+    private double smoothing = 0.2;
+
+    /**
+     * 失败或超时时上限乘以该比例
+     */
+    private double backoffRatio = 0.9;
+
+    /**
+     * 长期平均耗时的样本窗口
+     */
+    private int longWindow = 600;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final ConcurrentMap<String, AdaptiveLimiter> limiters = new ConcurrentHashMap<String, AdaptiveLimiter>();
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public void setInitialLimit(int initialLimit) {
+        this.initialLimit = initialLimit;
+    }
+
+    public void setMinLimit(int minLimit) {
+        this.minLimit = minLimit;
+    }
+
+    public void setMaxLimit(int maxLimit) {
+        this.maxLimit = maxLimit;
+    }
+
+    public void setSmoothing(double smoothing) {
+        this.smoothing = smoothing;
+    }
+
+    public void setBackoffRatio(double backoffRatio) {
+        this.backoffRatio = backoffRatio;
+    }
+
+    public void setLongWindow(int longWindow) {
+        this.longWindow = longWindow;
+    }
+
+    /**
+     * @return 未开启时返回null
+     */
+    public AdaptiveLimiter get(String name) {
+        if (!enabled) {
+            return null;
+        }
+        return limiters.computeIfAbsent(name, this::create);
+    }
+
+    /**
+     * 获取许可，被拒绝时计数并抛出LimitExceededException
+     *
+     * @return 开始时间，未开启时返回-1
+     */
+    public long acquire(AdaptiveLimiter limiter) {
+        if (limiter == null) {
+            return -1;
+        }
+        try {
+            return limiter.acquire();
+        } catch (LimitExceededException e) {
+            meterRegistry.counter("concurrency.rejected", "name", limiter.getName()).increment();
+            throw e;
+        }
+    }
+
+    private AdaptiveLimiter create(String name) {
+        AdaptiveLimiter limiter = new AdaptiveLimiter(name, initialLimit, minLimit, maxLimit, smoothing, backoffRatio, longWindow);
+        Gauge.builder("concurrency.limit", limiter, AdaptiveLimiter::getLimit).tag("name", name).register(meterRegistry);
+        Gauge.builder("concurrency.inflight", limiter, AdaptiveLimiter::getInflight).tag("name", name).register(meterRegistry);
+        Gauge.builder("concurrency.queue.delay", limiter, AdaptiveLimiter::getQueueDelayMillis).tag("name", name).register(meterRegistry);
+        return limiter;
+    }
+}
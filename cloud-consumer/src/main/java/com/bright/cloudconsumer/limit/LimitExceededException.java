@@ -0,0 +1,12 @@
+package com.bright.cloudconsumer.limit;
+
+/**
+ * 进行中的请求数已达到并发上限，请求被直接拒绝
+ * 过载时会大量抛出，不记录堆栈
+ */
+public class LimitExceededException extends RuntimeException {
+
+    public LimitExceededException(String name, int limit) {
+        super("concurrency limit exceeded: " + name + " limit=" + limit, null, false, false);
+    }
+}
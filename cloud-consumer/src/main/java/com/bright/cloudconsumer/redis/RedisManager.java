@@ -1,18 +1,29 @@
 package com.bright.cloudconsumer.redis;
 
 import com.alibaba.fastjson.JSON;
+import com.bright.cloudconsumer.deadline.Deadline;
+import com.bright.cloudconsumer.deadline.DeadlineExceededException;
+import com.bright.cloudconsumer.limit.AdaptiveLimiter;
+import com.bright.cloudconsumer.limit.ConcurrencyLimiters;
+import com.bright.cloudconsumer.limit.LimitExceededException;
 import com.bright.cloudconsumer.utils.GfJsonUtil;
+import com.bright.cloudconsumer.utils.LazyJsonObject;
 import com.bright.cloudconsumer.utils.LogExceptionStackTrace;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.stereotype.Component;
 import redis.clients.jedis.*;
 
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 @ConfigurationProperties(prefix = "redis.manager")
 @Component
@@ -66,6 +77,16 @@ public class RedisManager {
 
     private JedisPool jedisPool = null;
 
+    private static final String LIMITER_NAME = "redis";
+
+    @Autowired
+    private ConcurrencyLimiters concurrencyLimiters;
+
+    /**
+     * 已借出的jedis及借出时间
+     */
+    private final Map<Jedis, Long> leases = new ConcurrentHashMap<Jedis, Long>();
+
     @Bean
     protected JedisPool init() {
         JedisPoolConfig config = new JedisPoolConfig();
@@ -84,13 +105,99 @@ public class RedisManager {
     }
 
     /**
-     * 释放jedis资源
+     * 获取jedis资源，受自适应并发上限限制，超出时抛出LimitExceededException[由各方法的catch交给failed处理，返回null]；
+     * 当前请求有截止时间时，已超时抛出DeadlineExceededException，否则读超时取剩余时间与timeOut中较小的一个
+     *
+     * @return
+     */
+    private Jedis getResource() {
+        Deadline.check();
+        AdaptiveLimiter limiter = limiter();
+        long start = limiter == null ? -1 : concurrencyLimiters.acquire(limiter);
+        try {
+            Jedis jedis = jedisPool.getResource();
+            if (limiter != null) {
+                leases.put(jedis, start);
+            }
+            if (Deadline.isSet()) {
+                setSoTimeout(jedis, Deadline.timeout(timeOut));
+            }
+            return jedis;
+        } catch (RuntimeException e) {
+            if (limiter != null) {
+                limiter.onDropped();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * 修改已建立连接的读超时，连接已断开时忽略
+     */
+    private void setSoTimeout(Jedis jedis, int timeout) {
+        Socket socket = jedis.getClient().getSocket();
+        if (socket == null || socket.isClosed()) {
+            return;
+        }
+        try {
+            socket.setSoTimeout(timeout);
+        } catch (SocketException e) {
+            logger.warn("set redis so timeout failed: {}", e.toString());
+        }
+    }
+
+    /**
+     * 不经过Spring创建[如基准测试]时不限制
+     */
+    private AdaptiveLimiter limiter() {
+        return concurrencyLimiters == null ? null : concurrencyLimiters.get(LIMITER_NAME);
+    }
+
+    /**
+     * 命令执行失败时调用[各方法的catch]：
+     * 被并发上限拒绝时只记录debug[已计入concurrency.rejected]，返回false；
+     * 超过请求截止时间[获取资源前已超时，或读超时被截短后超时]是过载时的正常结果，只记录debug，返回false；
+     * 其他失败[超时、连接错误等]返回true由调用方记录error。
+     * 获取到资源后的失败都按失败释放许可，使上限按比例下降
+     *
+     * @param jedis 获取资源前失败时为null
+     */
+    private boolean failed(final Jedis jedis, Exception e) {
+        if (e instanceof LimitExceededException) {
+            logger.debug("redis command rejected: {}", e.getMessage());
+            return false;
+        }
+        if (jedis != null) {
+            Long start = leases.remove(jedis);
+            AdaptiveLimiter limiter = limiter();
+            if (start != null && limiter != null) {
+                limiter.onDropped();
+            }
+        }
+        if (e instanceof DeadlineExceededException || (Deadline.isSet() && Deadline.remainingMillis() <= 0)) {
+            logger.debug("redis command deadline exceeded: {}", e.toString());
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * 释放jedis资源，执行失败的命令已在failed中释放许可，这里只记录成功。
+     * 通过close释放：读超时等连接错误后连接已标记为broken，由连接池销毁，不会把读了一半的连接交给下一个使用者
      *
      * @param jedis
      */
     private void returnResource(final Jedis jedis) {
         if (jedis != null) {
-            jedisPool.returnResource(jedis);
+            if (Deadline.isSet()) {
+                setSoTimeout(jedis, timeOut);
+            }
+            Long start = leases.remove(jedis);
+            jedis.close();
+            AdaptiveLimiter limiter = limiter();
+            if (start != null && limiter != null) {
+                limiter.onSuccess(start);
+            }
         }
     }
 
@@ -98,7 +205,7 @@ public class RedisManager {
         Long start = System.currentTimeMillis();
         Jedis sj = null;
         try {
-            sj = jedisPool.getResource();
+            sj = getResource();
             Long v = sj.incr(key);
             Long end = System.currentTimeMillis();
             Long time = end - start;
@@ -107,7 +214,9 @@ public class RedisManager {
             }
             return v;
         } catch (Exception e) {
-            logger.error("command：incr key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            if (failed(sj, e)) {
+                logger.error("command：incr key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            }
         } finally {
             if (sj != null) {
                 returnResource(sj);
@@ -120,7 +229,7 @@ public class RedisManager {
         Long start = System.currentTimeMillis();
         Jedis sj = null;
         try {
-            sj = jedisPool.getResource();
+            sj = getResource();
             Long v = sj.incrBy(key, integer);
             Long end = System.currentTimeMillis();
             Long time = end - start;
@@ -129,7 +238,9 @@ public class RedisManager {
             }
             return v;
         } catch (Exception e) {
-            logger.error("command：incr key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            if (failed(sj, e)) {
+                logger.error("command：incr key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            }
         } finally {
             if (sj != null) {
                 returnResource(sj);
@@ -147,10 +258,12 @@ public class RedisManager {
         Long start = System.currentTimeMillis();
         Jedis sj = null;
         try {
-            sj = jedisPool.getResource();
+            sj = getResource();
             return sj.keys(pattern);
         } catch (Exception e) {
-            logger.error("command：keys key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            if (failed(sj, e)) {
+                logger.error("command：keys key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            }
         } finally {
             if (sj != null) {
                 returnResource(sj);
@@ -164,7 +277,7 @@ public class RedisManager {
         Long start = System.currentTimeMillis();
         Jedis sj = null;
         try {
-            sj = jedisPool.getResource();
+            sj = getResource();
             Set<String> v = sj.hkeys(key);
             Long end = System.currentTimeMillis();
             Long time = end - start;
@@ -173,7 +286,9 @@ public class RedisManager {
             }
             return v;
         } catch (Exception e) {
-            logger.error("command：hkeys key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            if (failed(sj, e)) {
+                logger.error("command：hkeys key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            }
         } finally {
             if (sj != null) {
                 returnResource(sj);
@@ -186,7 +301,7 @@ public class RedisManager {
         Long start = System.currentTimeMillis();
         Jedis sj = null;
         try {
-            sj = jedisPool.getResource();
+            sj = getResource();
             List<String> v = sj.hvals(key);
             Long end = System.currentTimeMillis();
             Long time = end - start;
@@ -195,7 +310,9 @@ public class RedisManager {
             }
             return v;
         } catch (Exception e) {
-            logger.error("command：hvals key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            if (failed(sj, e)) {
+                logger.error("command：hvals key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            }
         } finally {
             if (sj != null) {
                 returnResource(sj);
@@ -208,7 +325,7 @@ public class RedisManager {
         Long start = System.currentTimeMillis();
         Jedis sj = null;
         try {
-            sj = jedisPool.getResource();
+            sj = getResource();
             String v = sj.get(key);
             Long end = System.currentTimeMillis();
             Long time = end - start;
@@ -217,7 +334,37 @@ public class RedisManager {
             }
             return v;
         } catch (Exception e) {
-            logger.error("command：get key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            if (failed(sj, e)) {
+                logger.error("command：get key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            }
+        } finally {
+            if (sj != null) {
+                returnResource(sj);
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * 按字节读取，供GfJsonUtil直接解析UTF-8，省去String中转
+     */
+    public byte[] getBytes(String key) {
+        Long start = System.currentTimeMillis();
+        Jedis sj = null;
+        try {
+            sj = getResource();
+            byte[] v = sj.get(key.getBytes(StandardCharsets.UTF_8));
+            Long end = System.currentTimeMillis();
+            Long time = end - start;
+            if (time > 500) {
+                logger.warn("ip:{} port:{} command：getBytes key:{} execution time:{}ms", this.host, this.port, key, time);
+            }
+            return v;
+        } catch (Exception e) {
+            if (failed(sj, e)) {
+                logger.error("command：getBytes key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            }
         } finally {
             if (sj != null) {
                 returnResource(sj);
@@ -227,11 +374,22 @@ public class RedisManager {
         return null;
     }
 
+    public <T> T getObject(String key, Class<T> clazz) {
+        return GfJsonUtil.parseObject(getBytes(key), clazz);
+    }
+
+    /**
+     * 大文档只读取少数字段时使用，字段按需解析
+     */
+    public LazyJsonObject getLazy(String key) {
+        return GfJsonUtil.parseLazy(getBytes(key));
+    }
+
     public String getrange(String key, long startOffSet, long endOffSet) {
         long start = System.currentTimeMillis();
         Jedis jedis = null;
         try {
-            jedis = jedisPool.getResource();
+            jedis = getResource();
             String ret = jedis.getrange(key, startOffSet, endOffSet);
             long time = System.currentTimeMillis() - start;
             if (time > 500) {
@@ -239,7 +397,9 @@ public class RedisManager {
             }
             return ret;
         } catch (Exception e) {
-            logger.error("command=getrange, key={}, error={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            if (failed(jedis, e)) {
+                logger.error("command=getrange, key={}, error={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            }
         } finally {
             returnResource(jedis);
         }
@@ -250,7 +410,7 @@ public class RedisManager {
         Long start = System.currentTimeMillis();
         Jedis sj = null;
         try {
-            sj = jedisPool.getResource();
+            sj = getResource();
             String v = sj.spop(key);
             Long end = System.currentTimeMillis();
             Long time = end - start;
@@ -259,7 +419,9 @@ public class RedisManager {
             }
             return v;
         } catch (Exception e) {
-            logger.error("command：sadd key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            if (failed(sj, e)) {
+                logger.error("command：sadd key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            }
         } finally {
             if (sj != null) {
                 returnResource(sj);
@@ -272,7 +434,7 @@ public class RedisManager {
         Long start = System.currentTimeMillis();
         Jedis sj = null;
         try {
-            sj = jedisPool.getResource();
+            sj = getResource();
             Long v = sj.scard(key);
             Long end = System.currentTimeMillis();
             Long time = end - start;
@@ -281,7 +443,9 @@ public class RedisManager {
             }
             return v;
         } catch (Exception e) {
-            logger.error("command：scard key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            if (failed(sj, e)) {
+                logger.error("command：scard key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            }
         } finally {
             if (sj != null) {
                 returnResource(sj);
@@ -294,7 +458,7 @@ public class RedisManager {
         long start = System.currentTimeMillis();
         Jedis jedis = null;
         try {
-            jedis = jedisPool.getResource();
+            jedis = getResource();
             Set<String> set = jedis.sdiff(keys);
             long time = System.currentTimeMillis() - start;
             if (time > 500) {
@@ -302,7 +466,9 @@ public class RedisManager {
             }
             return set;
         } catch (Exception e) {
-            logger.error(" command= sdiff, keys={}, error={}", keys, LogExceptionStackTrace.erroStackTrace(e));
+            if (failed(jedis, e)) {
+                logger.error(" command= sdiff, keys={}, error={}", keys, LogExceptionStackTrace.erroStackTrace(e));
+            }
         } finally {
             returnResource(jedis);
         }
@@ -313,7 +479,7 @@ public class RedisManager {
         long start = System.currentTimeMillis();
         Jedis jedis = null;
         try {
-            jedis = jedisPool.getResource();
+            jedis = getResource();
             Long num = jedis.sdiffstore(dstkey, keys);
             long time = System.currentTimeMillis() - start;
             if (time > 500) {
@@ -321,7 +487,9 @@ public class RedisManager {
             }
             return num;
         } catch (Exception e) {
-            logger.error("command=sdiffstore, dstkey={}, error={}", dstkey, LogExceptionStackTrace.erroStackTrace(e));
+            if (failed(jedis, e)) {
+                logger.error("command=sdiffstore, dstkey={}, error={}", dstkey, LogExceptionStackTrace.erroStackTrace(e));
+            }
         } finally {
             returnResource(jedis);
         }
@@ -332,14 +500,16 @@ public class RedisManager {
         long start = System.currentTimeMillis();
         Jedis jedis = null;
         try {
-            jedis = jedisPool.getResource();
+            jedis = getResource();
             Set<String> set = jedis.sinter(keys);
             long time = System.currentTimeMillis() - start;
             if (time > 500)
                 logger.warn("ip={}, port={}, command=sinter, execute_time={}", host, port, time);
             return set;
         } catch (Exception e) {
-            logger.error("command=sinter, keys={}, error={}", JSON.toJSONString(keys), LogExceptionStackTrace.erroStackTrace(e));
+            if (failed(jedis, e)) {
+                logger.error("command=sinter, keys={}, error={}", JSON.toJSONString(keys), LogExceptionStackTrace.erroStackTrace(e));
+            }
         } finally {
             returnResource(jedis);
         }
@@ -350,7 +520,7 @@ public class RedisManager {
         long start = System.currentTimeMillis();
         Jedis jedis = null;
         try {
-            jedis = jedisPool.getResource();
+            jedis = getResource();
             Long ret = jedis.sinterstore(dstkey, keys);
             long time = System.currentTimeMillis() - start;
             if (time > 500) {
@@ -358,7 +528,9 @@ public class RedisManager {
             }
             return ret;
         } catch (Exception e) {
-            logger.error("command=sinterstore, dstkey={}, error={}", dstkey, LogExceptionStackTrace.erroStackTrace(e));
+            if (failed(jedis, e)) {
+                logger.error("command=sinterstore, dstkey={}, error={}", dstkey, LogExceptionStackTrace.erroStackTrace(e));
+            }
         } finally {
             returnResource(jedis);
         }
@@ -369,7 +541,7 @@ public class RedisManager {
         Long start = System.currentTimeMillis();
         Jedis sj = null;
         try {
-            sj = jedisPool.getResource();
+            sj = getResource();
             Set<String> v = sj.spop(key, count);
             Long end = System.currentTimeMillis();
             Long time = end - start;
@@ -378,7 +550,9 @@ public class RedisManager {
             }
             return v;
         } catch (Exception e) {
-            logger.error("command：sadd key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            if (failed(sj, e)) {
+                logger.error("command：sadd key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            }
         } finally {
             if (sj != null) {
                 returnResource(sj);
@@ -391,7 +565,7 @@ public class RedisManager {
         Long start = System.currentTimeMillis();
         Jedis sj = null;
         try {
-            sj = jedisPool.getResource();
+            sj = getResource();
             String v = sj.set(key, value);
             Long end = System.currentTimeMillis();
             Long time = end - start;
@@ -400,7 +574,9 @@ public class RedisManager {
             }
             return v;
         } catch (Exception e) {
-            logger.error("command：set key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            if (failed(sj, e)) {
+                logger.error("command：set key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            }
         } finally {
             if (sj != null) {
                 returnResource(sj);
@@ -414,14 +590,16 @@ public class RedisManager {
         long start = System.currentTimeMillis();
         Jedis jedis = null;
         try {
-            jedis = jedisPool.getResource();
+            jedis = getResource();
             String ret = jedis.setex(key, seconds, value);
             long time = System.currentTimeMillis() - start;
             if (time > 500)
                 logger.warn("ip={}, port={}, command=setex, execute_time={}ms", host, port, time);
             return ret;
         } catch (Exception e) {
-            logger.error("command=setex, key={}, seconds={}, value={}, error={}", key, seconds, value, LogExceptionStackTrace.erroStackTrace(e));
+            if (failed(jedis, e)) {
+                logger.error("command=setex, key={}, seconds={}, value={}, error={}", key, seconds, value, LogExceptionStackTrace.erroStackTrace(e));
+            }
         } finally {
             returnResource(jedis);
         }
@@ -432,14 +610,16 @@ public class RedisManager {
         long start = System.currentTimeMillis();
         Jedis jedis = null;
         try {
-            jedis = jedisPool.getResource();
+            jedis = getResource();
             Long ret = jedis.setnx(key, value);
             long time = System.currentTimeMillis() - start;
             if (time > 500)
                 logger.warn("ip={}, port={}, command=setnx, execute_time={}ms", host, port, time);
             return ret;
         } catch (Exception e) {
-            logger.error("command=setnx, key={}, error={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            if (failed(jedis, e)) {
+                logger.error("command=setnx, key={}, error={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            }
         } finally {
             returnResource(jedis);
         }
@@ -450,14 +630,16 @@ public class RedisManager {
         long start = System.currentTimeMillis();
         Jedis jedis = null;
         try {
-            jedis = jedisPool.getResource();
+            jedis = getResource();
             Long ret = jedis.setrange(key, offset, value);
             long time = System.currentTimeMillis() - start;
             if (time > 500)
                 logger.warn("ip={}, host={}, command=setrange, execute_time={}ms", host, port, time);
             return ret;
         } catch (Exception e) {
-            logger.error("command=setrange, key={}, error={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            if (failed(jedis, e)) {
+                logger.error("command=setrange, key={}, error={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            }
         } finally {
             returnResource(jedis);
         }
@@ -468,14 +650,16 @@ public class RedisManager {
         long start = System.currentTimeMillis();
         Jedis jedis = null;
         try {
-            jedis = jedisPool.getResource();
+            jedis = getResource();
             Long ret = jedis.strlen(key);
             long time = System.currentTimeMillis() - start;
             if (time > 500)
                 logger.warn("ip={}, host={}, command=strlen, execute_time={}ms", host, port, time);
             return ret;
         } catch (Exception e) {
-            logger.error("command=strlen, key={}, error={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            if (failed(jedis, e)) {
+                logger.error("command=strlen, key={}, error={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            }
         } finally {
             returnResource(jedis);
         }
@@ -486,7 +670,7 @@ public class RedisManager {
         Long start = System.currentTimeMillis();
         Jedis sj = null;
         try {
-            sj = jedisPool.getResource();
+            sj = getResource();
             Pipeline pip = sj.pipelined();
             for (int i = 0; i < keys.size(); i++) {
                 pip.set(keys.get(i), values.get(i));
@@ -498,7 +682,9 @@ public class RedisManager {
                 logger.warn("ip:{} port:{} command：set list key:{} execution time:{}ms", this.host, this.port, GfJsonUtil.toJSONString(keys), time);
             }
         } catch (Exception e) {
-            logger.error("command：set key:{} ex={}", GfJsonUtil.toJSONString(keys), LogExceptionStackTrace.erroStackTrace(e));
+            if (failed(sj, e)) {
+                logger.error("command：set key:{} ex={}", GfJsonUtil.toJSONString(keys), LogExceptionStackTrace.erroStackTrace(e));
+            }
         } finally {
             if (sj != null) {
                 returnResource(sj);
@@ -510,7 +696,7 @@ public class RedisManager {
         Long start = System.currentTimeMillis();
         Jedis sj = null;
         try {
-            sj = jedisPool.getResource();
+            sj = getResource();
             sj.mset(keysvalues);
             Long end = System.currentTimeMillis();
             Long time = end - start;
@@ -518,7 +704,9 @@ public class RedisManager {
                 logger.warn("ip:{} port:{} command：mset key:{} execution time:{}ms", this.host, this.port, keysvalues, time);
             }
         } catch (Exception e) {
-            logger.error("command：mset key:{} ex={}", GfJsonUtil.toJSONString(keysvalues), LogExceptionStackTrace.erroStackTrace(e), LogExceptionStackTrace.erroStackTrace(e));
+            if (failed(sj, e)) {
+                logger.error("command：mset key:{} ex={}", GfJsonUtil.toJSONString(keysvalues), LogExceptionStackTrace.erroStackTrace(e), LogExceptionStackTrace.erroStackTrace(e));
+            }
         } finally {
             if (sj != null) {
                 returnResource(sj);
@@ -530,9 +718,10 @@ public class RedisManager {
         Long start = System.currentTimeMillis();
         Jedis sj = null;
         try {
-            sj = jedisPool.getResource();
-            String objectValue = GfJsonUtil.toJSONString(value);
-            String v = sj.set(key, objectValue);
+            sj = getResource();
+            //直接序列化为UTF-8字节写入，省去String中转
+            byte[] objectValue = GfJsonUtil.toJSONBytes(value);
+            String v = sj.set(key.getBytes(StandardCharsets.UTF_8), objectValue);
             Long end = System.currentTimeMillis();
             Long time = end - start;
             if (time > 500) {
@@ -540,7 +729,9 @@ public class RedisManager {
             }
             return v;
         } catch (Exception e) {
-            logger.error("command：setObject key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            if (failed(sj, e)) {
+                logger.error("command：setObject key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            }
         } finally {
             if (sj != null) {
                 returnResource(sj);
@@ -554,7 +745,7 @@ public class RedisManager {
         Long start = System.currentTimeMillis();
         Jedis sj = null;
         try {
-            sj = jedisPool.getResource();
+            sj = getResource();
             Pipeline pip = sj.pipelined();
             for (String s : strings) {
                 pip.set(key, s);
@@ -566,7 +757,9 @@ public class RedisManager {
                 logger.warn("ip:{} port:{} command：set key:{} execution time:{}ms", this.host, this.port, key, time);
             }
         } catch (Exception e) {
-            logger.error("command：Pipeline set key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            if (failed(sj, e)) {
+                logger.error("command：Pipeline set key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            }
         } finally {
             if (sj != null) {
                 returnResource(sj);
@@ -578,7 +771,7 @@ public class RedisManager {
         Long start = System.currentTimeMillis();
         Jedis sj = null;
         try {
-            sj = jedisPool.getResource();
+            sj = getResource();
             String v = sj.getSet(key, value);
             Long end = System.currentTimeMillis();
             Long time = end - start;
@@ -587,7 +780,9 @@ public class RedisManager {
             }
             return v;
         } catch (Exception e) {
-            logger.error("command：getSet key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            if (failed(sj, e)) {
+                logger.error("command：getSet key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            }
         } finally {
             if (sj != null) {
                 returnResource(sj);
@@ -600,7 +795,7 @@ public class RedisManager {
         Long start = System.currentTimeMillis();
         Jedis sj = null;
         try {
-            sj = jedisPool.getResource();
+            sj = getResource();
             Long v = sj.sadd(key, members);
             Long end = System.currentTimeMillis();
             Long time = end - start;
@@ -609,7 +804,9 @@ public class RedisManager {
             }
             return v;
         } catch (Exception e) {
-            logger.error("command：sadd key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            if (failed(sj, e)) {
+                logger.error("command：sadd key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            }
         } finally {
             if (sj != null) {
                 returnResource(sj);
@@ -622,7 +819,7 @@ public class RedisManager {
         Long start = System.currentTimeMillis();
         Jedis sj = null;
         try {
-            sj = jedisPool.getResource();
+            sj = getResource();
             Long v = sj.srem(key, members);
             Long end = System.currentTimeMillis();
             Long time = end - start;
@@ -631,7 +828,9 @@ public class RedisManager {
             }
             return v;
         } catch (Exception e) {
-            logger.error("command：srem key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            if (failed(sj, e)) {
+                logger.error("command：srem key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            }
         } finally {
             if (sj != null) {
                 returnResource(sj);
@@ -644,14 +843,16 @@ public class RedisManager {
         long start = System.currentTimeMillis();
         Jedis jedis = null;
         try {
-            jedis = jedisPool.getResource();
+            jedis = getResource();
             Set<String> ret = jedis.sunion(keys);
             long time = System.currentTimeMillis() - start;
             if (time > 500)
                 logger.warn("ip={}, port={}, command=sunion, execute_time={}ms", host, port, time);
             return ret;
         } catch (Exception e) {
-            logger.error("command=sunion, keys={}, error={}", JSON.toJSONString(keys), LogExceptionStackTrace.erroStackTrace(e));
+            if (failed(jedis, e)) {
+                logger.error("command=sunion, keys={}, error={}", JSON.toJSONString(keys), LogExceptionStackTrace.erroStackTrace(e));
+            }
         } finally {
             returnResource(jedis);
         }
@@ -662,14 +863,16 @@ public class RedisManager {
         long start = System.currentTimeMillis();
         Jedis jedis = null;
         try {
-            jedis = jedisPool.getResource();
+            jedis = getResource();
             Long ret = jedis.incrBy(key, num);
             long time = System.currentTimeMillis() - start;
             if (time > 500)
                 logger.warn("ip={}, host={}, command=incrby, execute_time={}ms", host, port, time);
             return ret;
         } catch (Exception e) {
-            logger.error("command=incrby, key={}, error={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            if (failed(jedis, e)) {
+                logger.error("command=incrby, key={}, error={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            }
         } finally {
             returnResource(jedis);
         }
@@ -680,14 +883,16 @@ public class RedisManager {
         long start = System.currentTimeMillis();
         Jedis jedis = null;
         try {
-            jedis = jedisPool.getResource();
+            jedis = getResource();
             Double ret = jedis.incrByFloat(key, d);
             long time = System.currentTimeMillis() - start;
             if (time > 500)
                 logger.warn("ip={}, host={}, command=incrbyfloat, execute_time={}ms", host, port, time);
             return ret;
         } catch (Exception e) {
-            logger.error("command=incrbyfloat, key={}, error={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            if (failed(jedis, e)) {
+                logger.error("command=incrbyfloat, key={}, error={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            }
         } finally {
             returnResource(jedis);
         }
@@ -698,14 +903,16 @@ public class RedisManager {
         long start = System.currentTimeMillis();
         Jedis jedis = null;
         try {
-            jedis = jedisPool.getResource();
+            jedis = getResource();
             Long ret = jedis.sunionstore(dstkey, keys);
             long time = System.currentTimeMillis();
             if (time > 500)
                 logger.warn("ip={}, port={}, command=sunionstore, execute_time={}ms", host, port, time);
             return ret;
         } catch (Exception e) {
-            logger.error("command=sunionstore, dstkey={}, error={}", dstkey, LogExceptionStackTrace.erroStackTrace(e));
+            if (failed(jedis, e)) {
+                logger.error("command=sunionstore, dstkey={}, error={}", dstkey, LogExceptionStackTrace.erroStackTrace(e));
+            }
         } finally {
             returnResource(jedis);
         }
@@ -716,7 +923,7 @@ public class RedisManager {
         Long start = System.currentTimeMillis();
         Jedis sj = null;
         try {
-            sj = jedisPool.getResource();
+            sj = getResource();
             Long v = sj.zadd(key, map);
             Long end = System.currentTimeMillis();
             Long time = end - start;
@@ -725,7 +932,9 @@ public class RedisManager {
             }
             return v;
         } catch (Exception e) {
-            logger.error("command：zadd key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            if (failed(sj, e)) {
+                logger.error("command：zadd key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            }
         } finally {
             if (sj != null) {
                 returnResource(sj);
@@ -738,7 +947,7 @@ public class RedisManager {
         Long start = System.currentTimeMillis();
         Jedis sj = null;
         try {
-            sj = jedisPool.getResource();
+            sj = getResource();
             Pipeline pip = sj.pipelined();
             for (Map<String, Double> map : maps) {
                 pip.zadd(key, map);
@@ -750,7 +959,9 @@ public class RedisManager {
                 logger.warn("ip:{} port:{} command：Pipeline zadd key:{} execution time:{}ms", this.host, this.port, key, time);
             }
         } catch (Exception e) {
-            logger.error("command：Pipeline zadd key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            if (failed(sj, e)) {
+                logger.error("command：Pipeline zadd key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            }
         } finally {
             if (sj != null) {
                 returnResource(sj);
@@ -762,7 +973,7 @@ public class RedisManager {
         Long start = System.currentTimeMillis();
         Jedis sj = null;
         try {
-            sj = jedisPool.getResource();
+            sj = getResource();
             Pipeline pip = sj.pipelined();
             for (String s : strings) {
                 pip.sadd(key, s);
@@ -774,7 +985,9 @@ public class RedisManager {
                 logger.warn("ip:{} port:{} command：Pipeline sadd key:{} execution time:{}ms", this.host, this.port, key, time);
             }
         } catch (Exception e) {
-            logger.error("command：Pipeline sadd key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            if (failed(sj, e)) {
+                logger.error("command：Pipeline sadd key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            }
         } finally {
             if (sj != null) {
                 returnResource(sj);
@@ -786,7 +999,7 @@ public class RedisManager {
         Long start = System.currentTimeMillis();
         Jedis sj = null;
         try {
-            sj = jedisPool.getResource();
+            sj = getResource();
             String v = sj.hget(key, field);
             Long end = System.currentTimeMillis();
             Long time = end - start;
@@ -795,7 +1008,9 @@ public class RedisManager {
             }
             return v;
         } catch (Exception e) {
-            logger.error("command：hget key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            if (failed(sj, e)) {
+                logger.error("command：hget key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            }
         } finally {
             if (sj != null) {
                 returnResource(sj);
@@ -808,7 +1023,7 @@ public class RedisManager {
         Long start = System.currentTimeMillis();
         Jedis sj = null;
         try {
-            sj = jedisPool.getResource();
+            sj = getResource();
             String v = sj.hmset(key, hash);
             Long end = System.currentTimeMillis();
             Long time = end - start;
@@ -817,7 +1032,9 @@ public class RedisManager {
             }
             return v;
         } catch (Exception e) {
-            logger.error("command：hmset key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            if (failed(sj, e)) {
+                logger.error("command：hmset key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            }
         } finally {
             if (sj != null) {
                 returnResource(sj);
@@ -830,7 +1047,7 @@ public class RedisManager {
         Long start = System.currentTimeMillis();
         Jedis sj = null;
         try {
-            sj = jedisPool.getResource();
+            sj = getResource();
             Pipeline pip = sj.pipelined();
             for (Map<String, String> h : hash) {
                 pip.hmset(key, h);
@@ -842,7 +1059,9 @@ public class RedisManager {
                 logger.warn("ip:{} port:{} command：Pipeline hmset key:{} execution time:{}ms", this.host, this.port, key, time);
             }
         } catch (Exception e) {
-            logger.error("command：Pipeline hmset key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            if (failed(sj, e)) {
+                logger.error("command：Pipeline hmset key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            }
         } finally {
             if (sj != null) {
                 returnResource(sj);
@@ -854,7 +1073,7 @@ public class RedisManager {
         Long start = System.currentTimeMillis();
         Jedis sj = null;
         try {
-            sj = jedisPool.getResource();
+            sj = getResource();
             List<String> v = sj.hmget(key, fields);
             Long end = System.currentTimeMillis();
             Long time = end - start;
@@ -863,7 +1082,9 @@ public class RedisManager {
             }
             return v;
         } catch (Exception e) {
-            logger.error("command：hmget key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            if (failed(sj, e)) {
+                logger.error("command：hmget key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            }
         } finally {
             if (sj != null) {
                 returnResource(sj);
@@ -876,7 +1097,7 @@ public class RedisManager {
         Long start = System.currentTimeMillis();
         Jedis sj = null;
         try {
-            sj = jedisPool.getResource();
+            sj = getResource();
             Long v = sj.del(key);
             Long end = System.currentTimeMillis();
             Long time = end - start;
@@ -885,7 +1106,9 @@ public class RedisManager {
             }
             return v;
         } catch (Exception e) {
-            logger.error("command：del key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            if (failed(sj, e)) {
+                logger.error("command：del key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            }
         } finally {
             if (sj != null) {
                 returnResource(sj);
@@ -898,7 +1121,7 @@ public class RedisManager {
         Long start = System.currentTimeMillis();
         Jedis sj = null;
         try {
-            sj = jedisPool.getResource();
+            sj = getResource();
             Long v = sj.decr(key);
             Long end = System.currentTimeMillis();
             Long time = end - start;
@@ -907,7 +1130,9 @@ public class RedisManager {
             }
             return v;
         } catch (Exception e) {
-            logger.error("command：decr key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            if (failed(sj, e)) {
+                logger.error("command：decr key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            }
         } finally {
             if (sj != null) {
                 returnResource(sj);
@@ -920,7 +1145,7 @@ public class RedisManager {
         Long start = System.currentTimeMillis();
         Jedis sj = null;
         try {
-            sj = jedisPool.getResource();
+            sj = getResource();
             Long v = sj.decrBy(key, integer);
             Long end = System.currentTimeMillis();
             Long time = end - start;
@@ -929,7 +1154,9 @@ public class RedisManager {
             }
             return v;
         } catch (Exception e) {
-            logger.error("command：decrBy key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            if (failed(sj, e)) {
+                logger.error("command：decrBy key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            }
         } finally {
             if (sj != null) {
                 returnResource(sj);
@@ -942,7 +1169,7 @@ public class RedisManager {
         Long start = System.currentTimeMillis();
         Jedis sj = null;
         try {
-            sj = jedisPool.getResource();
+            sj = getResource();
             Long v = sj.append(key, value);
             Long end = System.currentTimeMillis();
             Long time = end - start;
@@ -951,7 +1178,9 @@ public class RedisManager {
             }
             return v;
         } catch (Exception e) {
-            logger.error("command：append key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            if (failed(sj, e)) {
+                logger.error("command：append key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            }
         } finally {
             if (sj != null) {
                 returnResource(sj);
@@ -964,7 +1193,7 @@ public class RedisManager {
         Long start = System.currentTimeMillis();
         Jedis sj = null;
         try {
-            sj = jedisPool.getResource();
+            sj = getResource();
             Long v = sj.bitcount(key);
             Long end = System.currentTimeMillis();
             Long time = end - start;
@@ -973,7 +1202,9 @@ public class RedisManager {
             }
             return v;
         } catch (Exception e) {
-            logger.error("command：bitcount key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            if (failed(sj, e)) {
+                logger.error("command：bitcount key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            }
         } finally {
             if (sj != null) {
                 returnResource(sj);
@@ -986,7 +1217,7 @@ public class RedisManager {
         Long start = System.currentTimeMillis();
         Jedis sj = null;
         try {
-            sj = jedisPool.getResource();
+            sj = getResource();
             Long v = sj.bitpos(key, bool);
             Long end = System.currentTimeMillis();
             Long time = end - start;
@@ -995,7 +1226,9 @@ public class RedisManager {
             }
             return v;
         } catch (Exception e) {
-            logger.error("command：bitpos key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            if (failed(sj, e)) {
+                logger.error("command：bitpos key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            }
         } finally {
             if (sj != null) {
                 returnResource(sj);
@@ -1008,7 +1241,7 @@ public class RedisManager {
         Long start = System.currentTimeMillis();
         Jedis sj = null;
         try {
-            sj = jedisPool.getResource();
+            sj = getResource();
             Long v = sj.expire(key, seconds);
             Long end = System.currentTimeMillis();
             Long time = end - start;
@@ -1017,7 +1250,9 @@ public class RedisManager {
             }
             return v;
         } catch (Exception e) {
-            logger.error("command：expire key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            if (failed(sj, e)) {
+                logger.error("command：expire key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            }
         } finally {
             if (sj != null) {
                 returnResource(sj);
@@ -1030,7 +1265,7 @@ public class RedisManager {
         Long start = System.currentTimeMillis();
         Jedis sj = null;
         try {
-            sj = jedisPool.getResource();
+            sj = getResource();
             Long v = sj.expireAt(key, unixTime);
             Long end = System.currentTimeMillis();
             Long time = end - start;
@@ -1039,7 +1274,9 @@ public class RedisManager {
             }
             return v;
         } catch (Exception e) {
-            logger.error("command：expireAt key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            if (failed(sj, e)) {
+                logger.error("command：expireAt key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            }
         } finally {
             if (sj != null) {
                 returnResource(sj);
@@ -1052,7 +1289,7 @@ public class RedisManager {
         Long start = System.currentTimeMillis();
         Jedis sj = null;
         try {
-            sj = jedisPool.getResource();
+            sj = getResource();
             Long v = sj.hdel(key, fields);
             Long end = System.currentTimeMillis();
             Long time = end - start;
@@ -1061,7 +1298,9 @@ public class RedisManager {
             }
             return v;
         } catch (Exception e) {
-            logger.error("command：hdel key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            if (failed(sj, e)) {
+                logger.error("command：hdel key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            }
         } finally {
             if (sj != null) {
                 returnResource(sj);
@@ -1074,14 +1313,16 @@ public class RedisManager {
         long start = System.currentTimeMillis();
         Jedis jedis = null;
         try {
-            jedis = jedisPool.getResource();
+            jedis = getResource();
             Boolean ret = jedis.hexists(key, field);
             long time = System.currentTimeMillis() - start;
             if (time > 500)
                 logger.warn("ip={}, host={}, command=hexists, execute_time={}ms", host, port, time);
             return ret;
         } catch (Exception e) {
-            logger.error("command=hexists, key={}, error={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            if (failed(jedis, e)) {
+                logger.error("command=hexists, key={}, error={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            }
         } finally {
             returnResource(jedis);
         }
@@ -1092,7 +1333,7 @@ public class RedisManager {
         Long start = System.currentTimeMillis();
         Jedis sj = null;
         try {
-            sj = jedisPool.getResource();
+            sj = getResource();
             Long v = sj.hincrBy(key, field, value);
             Long end = System.currentTimeMillis();
             Long time = end - start;
@@ -1101,7 +1342,9 @@ public class RedisManager {
             }
             return v;
         } catch (Exception e) {
-            logger.error("command：hincrBy key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            if (failed(sj, e)) {
+                logger.error("command：hincrBy key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            }
         } finally {
             if (sj != null) {
                 returnResource(sj);
@@ -1114,14 +1357,16 @@ public class RedisManager {
         long start = System.currentTimeMillis();
         Jedis jedis = null;
         try {
-            jedis = jedisPool.getResource();
+            jedis = getResource();
             Double ret = jedis.hincrByFloat(key, field, d);
             long time = System.currentTimeMillis() - start;
             if (time > 500)
                 logger.warn("ip={}, host={}, command=hincrbyfloat, execute_time={}ms", host, port, time);
             return ret;
         } catch (Exception e) {
-            logger.error("command=hincrbyfloat, key={}, error={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            if (failed(jedis, e)) {
+                logger.error("command=hincrbyfloat, key={}, error={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            }
         } finally {
             returnResource(jedis);
         }
@@ -1132,7 +1377,7 @@ public class RedisManager {
         Long start = System.currentTimeMillis();
         Jedis sj = null;
         try {
-            sj = jedisPool.getResource();
+            sj = getResource();
             Long v = sj.hlen(key);
             Long end = System.currentTimeMillis();
             Long time = end - start;
@@ -1141,7 +1386,9 @@ public class RedisManager {
             }
             return v;
         } catch (Exception e) {
-            logger.error("command：hlen key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            if (failed(sj, e)) {
+                logger.error("command：hlen key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            }
         } finally {
             if (sj != null) {
                 returnResource(sj);
@@ -1154,7 +1401,7 @@ public class RedisManager {
         Long start = System.currentTimeMillis();
         Jedis sj = null;
         try {
-            sj = jedisPool.getResource();
+            sj = getResource();
             Long v = sj.hset(key, field, value);
             Long end = System.currentTimeMillis();
             Long time = end - start;
@@ -1163,7 +1410,9 @@ public class RedisManager {
             }
             return v;
         } catch (Exception e) {
-            logger.error("command：hset key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            if (failed(sj, e)) {
+                logger.error("command：hset key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            }
         } finally {
             if (sj != null) {
                 returnResource(sj);
@@ -1176,7 +1425,7 @@ public class RedisManager {
         Long start = System.currentTimeMillis();
         Jedis sj = null;
         try {
-            sj = jedisPool.getResource();
+            sj = getResource();
             Pipeline pip = sj.pipelined();
             for (String s : strings) {
                 pip.hset(key, field, s);
@@ -1188,7 +1437,9 @@ public class RedisManager {
                 logger.warn("ip:{} port:{} command：Pipeline hset key:{} execution time:{}ms", this.host, this.port, key, time);
             }
         } catch (Exception e) {
-            logger.error("command：Pipeline hset key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            if (failed(sj, e)) {
+                logger.error("command：Pipeline hset key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            }
         } finally {
             if (sj != null) {
                 returnResource(sj);
@@ -1200,7 +1451,7 @@ public class RedisManager {
         Long start = System.currentTimeMillis();
         Jedis sj = null;
         try {
-            sj = jedisPool.getResource();
+            sj = getResource();
             Long v = sj.hsetnx(key, field, value);
             Long end = System.currentTimeMillis();
             Long time = end - start;
@@ -1209,7 +1460,9 @@ public class RedisManager {
             }
             return v;
         } catch (Exception e) {
-            logger.error("command：hsetnx key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            if (failed(sj, e)) {
+                logger.error("command：hsetnx key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            }
         } finally {
             if (sj != null) {
                 returnResource(sj);
@@ -1222,7 +1475,7 @@ public class RedisManager {
         Long start = System.currentTimeMillis();
         Jedis sj = null;
         try {
-            sj = jedisPool.getResource();
+            sj = getResource();
             Pipeline pip = sj.pipelined();
             for (String s : strings) {
                 pip.hsetnx(key, field, s);
@@ -1234,7 +1487,9 @@ public class RedisManager {
                 logger.warn("ip:{} port:{} command：Pipeline hsetnx key:{} execution time:{}ms", this.host, this.port, key, time);
             }
         } catch (Exception e) {
-            logger.error("command：Pipeline hsetnx key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            if (failed(sj, e)) {
+                logger.error("command：Pipeline hsetnx key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            }
         } finally {
             if (sj != null) {
                 returnResource(sj);
@@ -1246,7 +1501,7 @@ public class RedisManager {
         Long start = System.currentTimeMillis();
         Jedis sj = null;
         try {
-            sj = jedisPool.getResource();
+            sj = getResource();
             Long v = sj.llen(key);
             Long end = System.currentTimeMillis();
             Long time = end - start;
@@ -1255,7 +1510,9 @@ public class RedisManager {
             }
             return v;
         } catch (Exception e) {
-            logger.error("command：llen key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            if (failed(sj, e)) {
+                logger.error("command：llen key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            }
         } finally {
             if (sj != null) {
                 returnResource(sj);
@@ -1268,7 +1525,7 @@ public class RedisManager {
         Long start = System.currentTimeMillis();
         Jedis sj = null;
         try {
-            sj = jedisPool.getResource();
+            sj = getResource();
             Long v = sj.lpush(key, strings);
             Long end = System.currentTimeMillis();
             Long time = end - start;
@@ -1277,7 +1534,9 @@ public class RedisManager {
             }
             return v;
         } catch (Exception e) {
-            logger.error("command：lpush key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            if (failed(sj, e)) {
+                logger.error("command：lpush key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            }
         } finally {
             if (sj != null) {
                 returnResource(sj);
@@ -1290,14 +1549,16 @@ public class RedisManager {
         long start = System.currentTimeMillis();
         Jedis jedis = null;
         try {
-            jedis = jedisPool.getResource();
+            jedis = getResource();
             Long ret = jedis.lpushx(key, string);
             long time = System.currentTimeMillis() - start;
             if (time > 500)
                 logger.warn("ip={}, host={}, command=lpushx, execute_time={}ms", host, port, time);
             return ret;
         } catch (Exception e) {
-            logger.error("command=lpushx, key={}, error={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            if (failed(jedis, e)) {
+                logger.error("command=lpushx, key={}, error={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            }
         } finally {
             returnResource(jedis);
         }
@@ -1308,7 +1569,7 @@ public class RedisManager {
         Long start = System.currentTimeMillis();
         Jedis sj = null;
         try {
-            sj = jedisPool.getResource();
+            sj = getResource();
             Pipeline pip = sj.pipelined();
             for (String s : strings) {
                 pip.lpush(key, s);
@@ -1320,7 +1581,9 @@ public class RedisManager {
                 logger.warn("ip:{} port:{} command：Pipeline lpush key:{} execution time:{}ms", this.host, this.port, key, time);
             }
         } catch (Exception e) {
-            logger.error("command：Pipeline lpush key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            if (failed(sj, e)) {
+                logger.error("command：Pipeline lpush key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            }
         } finally {
             if (sj != null) {
                 returnResource(sj);
@@ -1332,7 +1595,7 @@ public class RedisManager {
         Long start = System.currentTimeMillis();
         Jedis sj = null;
         try {
-            sj = jedisPool.getResource();
+            sj = getResource();
             Long v = sj.lpushx(key, string);
             Long end = System.currentTimeMillis();
             Long time = end - start;
@@ -1341,7 +1604,9 @@ public class RedisManager {
             }
             return v;
         } catch (Exception e) {
-            logger.error("command：lpushx key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            if (failed(sj, e)) {
+                logger.error("command：lpushx key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            }
         } finally {
             if (sj != null) {
                 returnResource(sj);
@@ -1354,7 +1619,7 @@ public class RedisManager {
         Long start = System.currentTimeMillis();
         Jedis sj = null;
         try {
-            sj = jedisPool.getResource();
+            sj = getResource();
             Pipeline pip = sj.pipelined();
             for (String s : strings) {
                 pip.lpushx(key, s);
@@ -1366,7 +1631,9 @@ public class RedisManager {
                 logger.warn("ip:{} port:{} command：Pipeline lpushx key:{} execution time:{}ms", this.host, this.port, key, time);
             }
         } catch (Exception e) {
-            logger.error("command：Pipeline lpushx key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            if (failed(sj, e)) {
+                logger.error("command：Pipeline lpushx key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            }
         } finally {
             if (sj != null) {
                 returnResource(sj);
@@ -1378,7 +1645,7 @@ public class RedisManager {
         Long start = System.currentTimeMillis();
         Jedis sj = null;
         try {
-            sj = jedisPool.getResource();
+            sj = getResource();
             String v = sj.lindex(key, index);
             Long end = System.currentTimeMillis();
             Long time = end - start;
@@ -1387,7 +1654,9 @@ public class RedisManager {
             }
             return v;
         } catch (Exception e) {
-            logger.error("command：lindex key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            if (failed(sj, e)) {
+                logger.error("command：lindex key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            }
         } finally {
             if (sj != null) {
                 returnResource(sj);
@@ -1400,7 +1669,7 @@ public class RedisManager {
         Long start = System.currentTimeMillis();
         Jedis sj = null;
         try {
-            sj = jedisPool.getResource();
+            sj = getResource();
             String v = sj.lpop(key);
             Long end = System.currentTimeMillis();
             Long time = end - start;
@@ -1409,7 +1678,9 @@ public class RedisManager {
             }
             return v;
         } catch (Exception e) {
-            logger.error("command：lpop key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            if (failed(sj, e)) {
+                logger.error("command：lpop key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            }
         } finally {
             if (sj != null) {
                 returnResource(sj);
@@ -1422,7 +1693,7 @@ public class RedisManager {
         Long startTime = System.currentTimeMillis();
         Jedis sj = null;
         try {
-            sj = jedisPool.getResource();
+            sj = getResource();
             List<String> v = sj.lrange(key, start, end);
             Long endTime = System.currentTimeMillis();
             Long time = endTime - startTime;
@@ -1431,7 +1702,9 @@ public class RedisManager {
             }
             return v;
         } catch (Exception e) {
-            logger.error("command：lpop key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            if (failed(sj, e)) {
+                logger.error("command：lpop key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            }
         } finally {
             if (sj != null) {
                 returnResource(sj);
@@ -1444,7 +1717,7 @@ public class RedisManager {
         Long start = System.currentTimeMillis();
         Jedis sj = null;
         try {
-            sj = jedisPool.getResource();
+            sj = getResource();
             Long v = sj.lrem(key, count, value);
             Long end = System.currentTimeMillis();
             Long time = end - start;
@@ -1453,7 +1726,9 @@ public class RedisManager {
             }
             return v;
         } catch (Exception e) {
-            logger.error("command：lrem key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            if (failed(sj, e)) {
+                logger.error("command：lrem key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            }
         } finally {
             if (sj != null) {
                 returnResource(sj);
@@ -1466,14 +1741,16 @@ public class RedisManager {
         long start = System.currentTimeMillis();
         Jedis jedis = null;
         try {
-            jedis = jedisPool.getResource();
+            jedis = getResource();
             String ret = jedis.lset(key, index, value);
             long time = System.currentTimeMillis() - start;
             if (time > 500)
                 logger.warn("ip={}, host={}, command=lset, execute_time={}ms", host, port, time);
             return ret;
         } catch (Exception e) {
-            logger.error("command=lset, key={}, error={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            if (failed(jedis, e)) {
+                logger.error("command=lset, key={}, error={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            }
         } finally {
             returnResource(jedis);
         }
@@ -1484,14 +1761,16 @@ public class RedisManager {
         long startTime = System.currentTimeMillis();
         Jedis jedis = null;
         try {
-            jedis = jedisPool.getResource();
+            jedis = getResource();
             String ret = jedis.ltrim(key, start, end);
             long time = System.currentTimeMillis() - startTime;
             if (time > 500)
                 logger.warn("ip={}, host={}, command=ltrim, execute_time={}ms", host, port, time);
             return ret;
         } catch (Exception e) {
-            logger.error("command=ltrim, key={}, error={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            if (failed(jedis, e)) {
+                logger.error("command=ltrim, key={}, error={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            }
         } finally {
             returnResource(jedis);
         }
@@ -1502,7 +1781,7 @@ public class RedisManager {
         Long start = System.currentTimeMillis();
         Jedis sj = null;
         try {
-            sj = jedisPool.getResource();
+            sj = getResource();
             Long v = sj.move(key, dbIndex);
             Long end = System.currentTimeMillis();
             Long time = end - start;
@@ -1511,7 +1790,9 @@ public class RedisManager {
             }
             return v;
         } catch (Exception e) {
-            logger.error("command：move key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            if (failed(sj, e)) {
+                logger.error("command：move key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            }
         } finally {
             if (sj != null) {
                 returnResource(sj);
@@ -1524,7 +1805,7 @@ public class RedisManager {
         Long start = System.currentTimeMillis();
         Jedis sj = null;
         try {
-            sj = jedisPool.getResource();
+            sj = getResource();
             Long v = sj.persist(key);
             Long end = System.currentTimeMillis();
             Long time = end - start;
@@ -1533,7 +1814,9 @@ public class RedisManager {
             }
             return v;
         } catch (Exception e) {
-            logger.error("command：persist key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            if (failed(sj, e)) {
+                logger.error("command：persist key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            }
         } finally {
             if (sj != null) {
                 returnResource(sj);
@@ -1546,7 +1829,7 @@ public class RedisManager {
         Long start = System.currentTimeMillis();
         Jedis sj = null;
         try {
-            sj = jedisPool.getResource();
+            sj = getResource();
             Long v = sj.pexpire(key, milliseconds);
             Long end = System.currentTimeMillis();
             Long time = end - start;
@@ -1555,7 +1838,9 @@ public class RedisManager {
             }
             return v;
         } catch (Exception e) {
-            logger.error("command：persist key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            if (failed(sj, e)) {
+                logger.error("command：persist key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            }
         } finally {
             if (sj != null) {
                 returnResource(sj);
@@ -1568,7 +1853,7 @@ public class RedisManager {
         Long start = System.currentTimeMillis();
         Jedis sj = null;
         try {
-            sj = jedisPool.getResource();
+            sj = getResource();
             Long v = sj.pexpireAt(key, milliseconds);
             Long end = System.currentTimeMillis();
             Long time = end - start;
@@ -1577,7 +1862,9 @@ public class RedisManager {
             }
             return v;
         } catch (Exception e) {
-            logger.error("command：pexpireAt key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            if (failed(sj, e)) {
+                logger.error("command：pexpireAt key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            }
         } finally {
             if (sj != null) {
                 returnResource(sj);
@@ -1590,7 +1877,7 @@ public class RedisManager {
         Long start = System.currentTimeMillis();
         Jedis sj = null;
         try {
-            sj = jedisPool.getResource();
+            sj = getResource();
             Long v = sj.pfadd(key, elements);
             Long end = System.currentTimeMillis();
             Long time = end - start;
@@ -1599,7 +1886,9 @@ public class RedisManager {
             }
             return v;
         } catch (Exception e) {
-            logger.error("command：pfadd key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            if (failed(sj, e)) {
+                logger.error("command：pfadd key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            }
         } finally {
             if (sj != null) {
                 returnResource(sj);
@@ -1612,7 +1901,7 @@ public class RedisManager {
         Long start = System.currentTimeMillis();
         Jedis sj = null;
         try {
-            sj = jedisPool.getResource();
+            sj = getResource();
             Long v = sj.pttl(key);
             Long end = System.currentTimeMillis();
             Long time = end - start;
@@ -1621,7 +1910,9 @@ public class RedisManager {
             }
             return v;
         } catch (Exception e) {
-            logger.error("command：pttl key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            if (failed(sj, e)) {
+                logger.error("command：pttl key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            }
             return null;
         } finally {
             if (sj != null) {
@@ -1634,7 +1925,7 @@ public class RedisManager {
         Long start = System.currentTimeMillis();
         Jedis sj = null;
         try {
-            sj = jedisPool.getResource();
+            sj = getResource();
             Long v = sj.pfcount(key);
             Long end = System.currentTimeMillis();
             Long time = end - start;
@@ -1643,7 +1934,9 @@ public class RedisManager {
             }
             return v;
         } catch (Exception e) {
-            logger.error("command：pfcount key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            if (failed(sj, e)) {
+                logger.error("command：pfcount key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            }
         } finally {
             if (sj != null) {
                 returnResource(sj);
@@ -1656,7 +1949,7 @@ public class RedisManager {
         Long start = System.currentTimeMillis();
         Jedis sj = null;
         try {
-            sj = jedisPool.getResource();
+            sj = getResource();
             Long v = sj.rpush(key, strings);
             Long end = System.currentTimeMillis();
             Long time = end - start;
@@ -1665,7 +1958,9 @@ public class RedisManager {
             }
             return v;
         } catch (Exception e) {
-            logger.error("command：rpush key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            if (failed(sj, e)) {
+                logger.error("command：rpush key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            }
         } finally {
             if (sj != null) {
                 returnResource(sj);
@@ -1678,7 +1973,7 @@ public class RedisManager {
         Long start = System.currentTimeMillis();
         Jedis sj = null;
         try {
-            sj = jedisPool.getResource();
+            sj = getResource();
             Pipeline pip = sj.pipelined();
             for (String s : strings) {
                 pip.rpush(key, s);
@@ -1690,7 +1985,9 @@ public class RedisManager {
                 logger.warn("ip:{} port:{} command：Pipeline rpush key:{} execution time:{}ms", this.host, this.port, key, time);
             }
         } catch (Exception e) {
-            logger.error("command：Pipeline rpush key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            if (failed(sj, e)) {
+                logger.error("command：Pipeline rpush key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            }
         } finally {
             if (sj != null) {
                 returnResource(sj);
@@ -1702,7 +1999,7 @@ public class RedisManager {
         Long start = System.currentTimeMillis();
         Jedis sj = null;
         try {
-            sj = jedisPool.getResource();
+            sj = getResource();
             Pipeline pip = sj.pipelined();
             for (String s : strings) {
                 pip.rpushx(key, s);
@@ -1714,7 +2011,9 @@ public class RedisManager {
                 logger.warn("ip:{} port:{} command：Pipeline rpushx key:{} execution time:{}ms", this.host, this.port, key, time);
             }
         } catch (Exception e) {
-            logger.error("command：Pipeline rpushx key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            if (failed(sj, e)) {
+                logger.error("command：Pipeline rpushx key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            }
         } finally {
             if (sj != null) {
                 returnResource(sj);
@@ -1726,7 +2025,7 @@ public class RedisManager {
         Long start = System.currentTimeMillis();
         Jedis sj = null;
         try {
-            sj = jedisPool.getResource();
+            sj = getResource();
             Long v = sj.rpushx(key, strings);
             Long end = System.currentTimeMillis();
             Long time = end - start;
@@ -1735,7 +2034,9 @@ public class RedisManager {
             }
             return v;
         } catch (Exception e) {
-            logger.error("command：rpushx key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            if (failed(sj, e)) {
+                logger.error("command：rpushx key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            }
         } finally {
             if (sj != null) {
                 returnResource(sj);
@@ -1748,7 +2049,7 @@ public class RedisManager {
         Long start = System.currentTimeMillis();
         Jedis sj = null;
         try {
-            sj = jedisPool.getResource();
+            sj = getResource();
             String v = sj.rpop(key);
             Long end = System.currentTimeMillis();
             Long time = end - start;
@@ -1757,7 +2058,9 @@ public class RedisManager {
             }
             return v;
         } catch (Exception e) {
-            logger.error("command：rpop key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            if (failed(sj, e)) {
+                logger.error("command：rpop key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            }
         } finally {
             if (sj != null) {
                 returnResource(sj);
@@ -1770,7 +2073,7 @@ public class RedisManager {
         Long start = System.currentTimeMillis();
         Jedis sj = null;
         try {
-            sj = jedisPool.getResource();
+            sj = getResource();
             Double v = sj.zscore(key, member);
             Long end = System.currentTimeMillis();
             Long time = end - start;
@@ -1779,7 +2082,9 @@ public class RedisManager {
             }
             return v;
         } catch (Exception e) {
-            logger.error("command：zscore key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            if (failed(sj, e)) {
+                logger.error("command：zscore key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            }
         } finally {
             if (sj != null) {
                 returnResource(sj);
@@ -1792,7 +2097,7 @@ public class RedisManager {
         long start = System.currentTimeMillis();
         Jedis jedis = null;
         try {
-            jedis = jedisPool.getResource();
+            jedis = getResource();
             Long len = jedis.zcard(key);
             long time = System.currentTimeMillis() - start;
             if (time > 500) {
@@ -1800,7 +2105,9 @@ public class RedisManager {
             }
             return len;
         } catch (Exception e) {
-            logger.error(" command: zcard, key: {}, ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            if (failed(jedis, e)) {
+                logger.error(" command: zcard, key: {}, ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            }
         } finally {
             returnResource(jedis);
         }
@@ -1811,7 +2118,7 @@ public class RedisManager {
         long start = System.currentTimeMillis();
         Jedis jedis = null;
         try {
-            jedis = jedisPool.getResource();
+            jedis = getResource();
             Long val = jedis.zcount(key, min, max);
             long time = System.currentTimeMillis() - start;
             if (time > 500) {
@@ -1819,7 +2126,9 @@ public class RedisManager {
             }
             return val;
         } catch (Exception e) {
-            logger.error("command= zcount, key={}, min={}, max={}, error={}", key, min, max, LogExceptionStackTrace.erroStackTrace(e));
+            if (failed(jedis, e)) {
+                logger.error("command= zcount, key={}, min={}, max={}, error={}", key, min, max, LogExceptionStackTrace.erroStackTrace(e));
+            }
         } finally {
             returnResource(jedis);
         }
@@ -1830,7 +2139,7 @@ public class RedisManager {
         long start = System.currentTimeMillis();
         Jedis jedis = null;
         try {
-            jedis = jedisPool.getResource();
+            jedis = getResource();
             Double newScore = jedis.zincrby(key, score, member);
             long time = System.currentTimeMillis() - start;
             if (time > 500) {
@@ -1838,7 +2147,9 @@ public class RedisManager {
             }
             return newScore;
         } catch (Exception e) {
-            logger.error("command= zincrby, key={}, score={}, member={}, error={}", key, score, member, LogExceptionStackTrace.erroStackTrace(e));
+            if (failed(jedis, e)) {
+                logger.error("command= zincrby, key={}, score={}, member={}, error={}", key, score, member, LogExceptionStackTrace.erroStackTrace(e));
+            }
         } finally {
             returnResource(jedis);
         }
@@ -1849,7 +2160,7 @@ public class RedisManager {
         long start = System.currentTimeMillis();
         Jedis jedis = null;
         try {
-            jedis = jedisPool.getResource();
+            jedis = getResource();
             Long ret = jedis.zinterstore(dstkey, sets);
             long time = System.currentTimeMillis() - start;
             if (time > 500) {
@@ -1857,7 +2168,9 @@ public class RedisManager {
             }
             return ret;
         } catch (Exception e) {
-            logger.error("command=zinterstore, dstkey={}, error={}", dstkey, LogExceptionStackTrace.erroStackTrace(e));
+            if (failed(jedis, e)) {
+                logger.error("command=zinterstore, dstkey={}, error={}", dstkey, LogExceptionStackTrace.erroStackTrace(e));
+            }
         } finally {
             returnResource(jedis);
         }
@@ -1868,7 +2181,7 @@ public class RedisManager {
         long start = System.currentTimeMillis();
         Jedis jedis = null;
         try {
-            jedis = jedisPool.getResource();
+            jedis = getResource();
             Long ret = jedis.zlexcount(key, min, max);
             long time = System.currentTimeMillis() - start;
             if (time > 500) {
@@ -1876,7 +2189,9 @@ public class RedisManager {
             }
             return ret;
         } catch (Exception e) {
-            logger.error(" command= zlexcount, key={}, min={}, max={}, error={}", key, min, max, LogExceptionStackTrace.erroStackTrace(e));
+            if (failed(jedis, e)) {
+                logger.error(" command= zlexcount, key={}, min={}, max={}, error={}", key, min, max, LogExceptionStackTrace.erroStackTrace(e));
+            }
         } finally {
             returnResource(jedis);
         }
@@ -1887,7 +2202,7 @@ public class RedisManager {
         long start = System.currentTimeMillis();
         Jedis jedis = null;
         try {
-            jedis = jedisPool.getResource();
+            jedis = getResource();
             Long rank = jedis.zrank(key, member);
             long time = System.currentTimeMillis() - start;
             if (time > 500) {
@@ -1895,7 +2210,9 @@ public class RedisManager {
             }
             return rank;
         } catch (Exception e) {
-            logger.error("command=zrank, key={}, member={}, error={}", key, member, LogExceptionStackTrace.erroStackTrace(e));
+            if (failed(jedis, e)) {
+                logger.error("command=zrank, key={}, member={}, error={}", key, member, LogExceptionStackTrace.erroStackTrace(e));
+            }
         } finally {
             returnResource(jedis);
         }
@@ -1906,7 +2223,7 @@ public class RedisManager {
         Long start = System.currentTimeMillis();
         Jedis sj = null;
         try {
-            sj = jedisPool.getResource();
+            sj = getResource();
             Set<String> v = sj.smembers(key);
             Long end = System.currentTimeMillis();
             Long time = end - start;
@@ -1915,7 +2232,9 @@ public class RedisManager {
             }
             return v;
         } catch (Exception e) {
-            logger.error("command：smembers key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            if (failed(sj, e)) {
+                logger.error("command：smembers key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            }
         } finally {
             if (sj != null) {
                 returnResource(sj);
@@ -1928,14 +2247,16 @@ public class RedisManager {
         long start = System.currentTimeMillis();
         Jedis jedis = null;
         try {
-            jedis = jedisPool.getResource();
+            jedis = getResource();
             Long ret = jedis.smove(srckey, dstkey, member);
             long time = System.currentTimeMillis() - start;
             if (time > 500)
                 logger.warn("ip={}, port={}, command=smove, execute_time={}ms", host, port, time);
             return ret;
         } catch (Exception e) {
-            logger.error("command=smove, srckey={}, dstkey={}, member={}, error={}", srckey, dstkey, member, LogExceptionStackTrace.erroStackTrace(e));
+            if (failed(jedis, e)) {
+                logger.error("command=smove, srckey={}, dstkey={}, member={}, error={}", srckey, dstkey, member, LogExceptionStackTrace.erroStackTrace(e));
+            }
         } finally {
             returnResource(jedis);
         }
@@ -1946,7 +2267,7 @@ public class RedisManager {
         Long start = System.currentTimeMillis();
         Jedis sj = null;
         try {
-            sj = jedisPool.getResource();
+            sj = getResource();
             Boolean v = sj.sismember(key, member);
             Long end = System.currentTimeMillis();
             Long time = end - start;
@@ -1955,7 +2276,9 @@ public class RedisManager {
             }
             return v;
         } catch (Exception e) {
-            logger.error("command：sismember key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            if (failed(sj, e)) {
+                logger.error("command：sismember key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            }
         } finally {
             if (sj != null) {
                 returnResource(sj);
@@ -1968,7 +2291,7 @@ public class RedisManager {
         Long start = System.currentTimeMillis();
         Jedis sj = null;
         try {
-            sj = jedisPool.getResource();
+            sj = getResource();
             Boolean v = sj.exists(key);
             Long end = System.currentTimeMillis();
             Long time = end - start;
@@ -1977,7 +2300,9 @@ public class RedisManager {
             }
             return v;
         } catch (Exception e) {
-            logger.error("command：exists key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            if (failed(sj, e)) {
+                logger.error("command：exists key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            }
         } finally {
             if (sj != null) {
                 returnResource(sj);
@@ -1990,7 +2315,7 @@ public class RedisManager {
         Long start = System.currentTimeMillis();
         Jedis sj = null;
         try {
-            sj = jedisPool.getResource();
+            sj = getResource();
             String v = sj.echo(key);
             Long end = System.currentTimeMillis();
             Long time = end - start;
@@ -1999,7 +2324,9 @@ public class RedisManager {
             }
             return v;
         } catch (Exception e) {
-            logger.error("command：echo key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            if (failed(sj, e)) {
+                logger.error("command：echo key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            }
         } finally {
             if (sj != null) {
                 returnResource(sj);
@@ -2012,7 +2339,7 @@ public class RedisManager {
         Long startTime = System.currentTimeMillis();
         Jedis sj = null;
         try {
-            sj = jedisPool.getResource();
+            sj = getResource();
             Set<String> v = sj.zrange(key, start, end);
             Long endTime = System.currentTimeMillis();
             Long time = endTime - startTime;
@@ -2021,7 +2348,9 @@ public class RedisManager {
             }
             return v;
         } catch (Exception e) {
-            logger.error("command：zrange key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            if (failed(sj, e)) {
+                logger.error("command：zrange key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            }
         } finally {
             if (sj != null) {
                 returnResource(sj);
@@ -2034,14 +2363,16 @@ public class RedisManager {
         long start = System.currentTimeMillis();
         Jedis jedis = null;
         try {
-            jedis = jedisPool.getResource();
+            jedis = getResource();
             Long ret = jedis.zunionstore(key, sets);
             long time = System.currentTimeMillis() - start;
             if (time > 500)
                 logger.warn("ip={}, port={}, command=zunionstore, execute_time={}ms", host, port, time);
             return ret;
         } catch (Exception e) {
-            logger.error("command=zunionstore, key={}, error={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            if (failed(jedis, e)) {
+                logger.error("command=zunionstore, key={}, error={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            }
         } finally {
             returnResource(jedis);
         }
@@ -2052,7 +2383,7 @@ public class RedisManager {
         long start = System.currentTimeMillis();
         Jedis jedis = null;
         try {
-            jedis = jedisPool.getResource();
+            jedis = getResource();
             Set<String> set = jedis.zrangeByLex(key, min, max);
             long time = System.currentTimeMillis() - start;
             if (time > 500) {
@@ -2060,7 +2391,9 @@ public class RedisManager {
             }
             return set;
         } catch (Exception e) {
-            logger.error("command=zrangebylex, key={}, min={}, max={}, error={}", key, min, max, LogExceptionStackTrace.erroStackTrace(e));
+            if (failed(jedis, e)) {
+                logger.error("command=zrangebylex, key={}, min={}, max={}, error={}", key, min, max, LogExceptionStackTrace.erroStackTrace(e));
+            }
         } finally {
             returnResource(jedis);
         }
@@ -2071,7 +2404,7 @@ public class RedisManager {
         long start = System.currentTimeMillis();
         Jedis jedis = null;
         try {
-            jedis = jedisPool.getResource();
+            jedis = getResource();
             Set<String> set = jedis.zrangeByScore(key, min, max);
             long time = System.currentTimeMillis() - start;
             if (time > 500) {
@@ -2079,7 +2412,9 @@ public class RedisManager {
             }
             return set;
         } catch (Exception e) {
-            logger.error("command= zrangebyscore, key={}, min={}, max={}, error={}", key, min, max, LogExceptionStackTrace.erroStackTrace(e));
+            if (failed(jedis, e)) {
+                logger.error("command= zrangebyscore, key={}, min={}, max={}, error={}", key, min, max, LogExceptionStackTrace.erroStackTrace(e));
+            }
         } finally {
             returnResource(jedis);
         }
@@ -2090,7 +2425,7 @@ public class RedisManager {
         Long start = System.currentTimeMillis();
         Jedis sj = null;
         try {
-            sj = jedisPool.getResource();
+            sj = getResource();
             Long v = sj.zrem(key, members);
             Long end = System.currentTimeMillis();
             Long time = end - start;
@@ -2099,7 +2434,9 @@ public class RedisManager {
             }
             return v;
         } catch (Exception e) {
-            logger.error("command：zrem key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            if (failed(sj, e)) {
+                logger.error("command：zrem key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            }
         } finally {
             if (sj != null) {
                 returnResource(sj);
@@ -2112,7 +2449,7 @@ public class RedisManager {
         long start = System.currentTimeMillis();
         Jedis jedis = null;
         try {
-            jedis = jedisPool.getResource();
+            jedis = getResource();
             Long ret = jedis.zremrangeByLex(key, min, max);
             long time = System.currentTimeMillis() - start;
             if (time > 500) {
@@ -2120,7 +2457,9 @@ public class RedisManager {
             }
             return ret;
         } catch (Exception e) {
-            logger.error("command= zremrangebylex, key={}, min={}, max={}, error={}", key, min, max, LogExceptionStackTrace.erroStackTrace(e));
+            if (failed(jedis, e)) {
+                logger.error("command= zremrangebylex, key={}, min={}, max={}, error={}", key, min, max, LogExceptionStackTrace.erroStackTrace(e));
+            }
         } finally {
             returnResource(jedis);
         }
@@ -2131,7 +2470,7 @@ public class RedisManager {
         long startTime = System.currentTimeMillis();
         Jedis jedis = null;
         try {
-            jedis = jedisPool.getResource();
+            jedis = getResource();
             Long ret = jedis.zremrangeByRank(key, start, end);
             long time = System.currentTimeMillis() - startTime;
             if (time > 500) {
@@ -2139,7 +2478,9 @@ public class RedisManager {
             }
             return ret;
         } catch (Exception e) {
-            logger.error("command= zremrangebyrank, key={}, error={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            if (failed(jedis, e)) {
+                logger.error("command= zremrangebyrank, key={}, error={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            }
         } finally {
             returnResource(jedis);
         }
@@ -2150,7 +2491,7 @@ public class RedisManager {
         long startTime = System.currentTimeMillis();
         Jedis jedis = null;
         try {
-            jedis = jedisPool.getResource();
+            jedis = getResource();
             Long ret = jedis.zremrangeByScore(key, start, end);
             long time = System.currentTimeMillis() - startTime;
             if (time > 500) {
@@ -2158,7 +2499,9 @@ public class RedisManager {
             }
             return ret;
         } catch (Exception e) {
-            logger.error("command=zremrangebyscore, key={}, error={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            if (failed(jedis, e)) {
+                logger.error("command=zremrangebyscore, key={}, error={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            }
         } finally {
             returnResource(jedis);
         }
@@ -2170,7 +2513,7 @@ public class RedisManager {
         Long start = System.currentTimeMillis();
         Jedis sj = null;
         try {
-            sj = jedisPool.getResource();
+            sj = getResource();
             Set<String> v = sj.zrange(key, 0, -1);
             Long end = System.currentTimeMillis();
             Long time = end - start;
@@ -2179,7 +2522,9 @@ public class RedisManager {
             }
             return v;
         } catch (Exception e) {
-            logger.error("command：zrange key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            if (failed(sj, e)) {
+                logger.error("command：zrange key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            }
         } finally {
             if (sj != null) {
                 returnResource(sj);
@@ -2192,7 +2537,7 @@ public class RedisManager {
         Long startTime = System.currentTimeMillis();
         Jedis sj = null;
         try {
-            sj = jedisPool.getResource();
+            sj = getResource();
             Set<String> v = sj.zrevrange(key, start, end);
             Long endTime = System.currentTimeMillis();
             Long time = endTime - startTime;
@@ -2201,7 +2546,9 @@ public class RedisManager {
             }
             return v;
         } catch (Exception e) {
-            logger.error("command：zrevrange key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            if (failed(sj, e)) {
+                logger.error("command：zrevrange key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            }
         } finally {
             if (sj != null) {
                 returnResource(sj);
@@ -2214,7 +2561,7 @@ public class RedisManager {
         long start = System.currentTimeMillis();
         Jedis jedis = null;
         try {
-            jedis = jedisPool.getResource();
+            jedis = getResource();
             Set<String> set = jedis.zrevrangeByLex(key, max, min);
             long time = System.currentTimeMillis() - start;
             if (time > 500) {
@@ -2222,7 +2569,9 @@ public class RedisManager {
             }
             return set;
         } catch (Exception e) {
-            logger.error("command=zrevrangebylex, key={}, error={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            if (failed(jedis, e)) {
+                logger.error("command=zrevrangebylex, key={}, error={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            }
         } finally {
             returnResource(jedis);
         }
@@ -2233,14 +2582,16 @@ public class RedisManager {
         long start = System.currentTimeMillis();
         Jedis jedis = null;
         try {
-            jedis = jedisPool.getResource();
+            jedis = getResource();
             Set<String> set = jedis.zrevrangeByScore(key, max, min);
             long time = System.currentTimeMillis() - start;
             if (time > 500)
                 logger.warn("ip={}, port={}, command=zrevrangebyscore, execute_time={}ms", host, port, time);
             return set;
         } catch (Exception e) {
-            logger.error("command=zrevrangebyscore, key={}, error={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            if (failed(jedis, e)) {
+                logger.error("command=zrevrangebyscore, key={}, error={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            }
         } finally {
             returnResource(jedis);
         }
@@ -2251,14 +2602,16 @@ public class RedisManager {
         long start = System.currentTimeMillis();
         Jedis jedis = null;
         try {
-            jedis = jedisPool.getResource();
+            jedis = getResource();
             Long ret = jedis.zrevrank(key, member);
             long time = System.currentTimeMillis() - start;
             if (time > 500)
                 logger.warn("ip={}, port={}, command=zrevrank, execute_time={}ms", host, port, time);
             return ret;
         } catch (Exception e) {
-            logger.error("command=zrevrank, key={}, error={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            if (failed(jedis, e)) {
+                logger.error("command=zrevrank, key={}, error={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            }
         } finally {
             returnResource(jedis);
         }
@@ -2269,7 +2622,7 @@ public class RedisManager {
         Long start = System.currentTimeMillis();
         Jedis sj = null;
         try {
-            sj = jedisPool.getResource();
+            sj = getResource();
             Set<String> v = sj.zrevrange(key, 0, -1);
             Long end = System.currentTimeMillis();
             Long time = end - start;
@@ -2278,7 +2631,9 @@ public class RedisManager {
             }
             return v;
         } catch (Exception e) {
-            logger.error("command：zrevrange key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            if (failed(sj, e)) {
+                logger.error("command：zrevrange key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            }
         } finally {
             if (sj != null) {
                 returnResource(sj);
@@ -2291,7 +2646,7 @@ public class RedisManager {
         Long start = System.currentTimeMillis();
         Jedis sj = null;
         try {
-            sj = jedisPool.getResource();
+            sj = getResource();
             Map<String, String> v = sj.hgetAll(key);
             Long end = System.currentTimeMillis();
             Long time = end - start;
@@ -2300,7 +2655,9 @@ public class RedisManager {
             }
             return v;
         } catch (Exception e) {
-            logger.error("command：hgetAll key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            if (failed(sj, e)) {
+                logger.error("command：hgetAll key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            }
         } finally {
             if (sj != null) {
                 returnResource(sj);
@@ -2313,7 +2670,7 @@ public class RedisManager {
         Long start = System.currentTimeMillis();
         Jedis sj = null;
         try {
-            sj = jedisPool.getResource();
+            sj = getResource();
             List<String> v = sj.brpop(arg);
             Long end = System.currentTimeMillis();
             Long time = end - start;
@@ -2322,7 +2679,9 @@ public class RedisManager {
             }
             return v;
         } catch (Exception e) {
-            logger.error("command：brpop key:{} ex={}", arg, LogExceptionStackTrace.erroStackTrace(e));
+            if (failed(sj, e)) {
+                logger.error("command：brpop key:{} ex={}", arg, LogExceptionStackTrace.erroStackTrace(e));
+            }
         } finally {
             if (sj != null) {
                 returnResource(sj);
@@ -2335,7 +2694,7 @@ public class RedisManager {
         Long start = System.currentTimeMillis();
         Jedis sj = null;
         try {
-            sj = jedisPool.getResource();
+            sj = getResource();
             List<String> v = sj.sort(key);
             Long end = System.currentTimeMillis();
             Long time = end - start;
@@ -2344,7 +2703,9 @@ public class RedisManager {
             }
             return v;
         } catch (Exception e) {
-            logger.error("command：sort key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            if (failed(sj, e)) {
+                logger.error("command：sort key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            }
         } finally {
             if (sj != null) {
                 returnResource(sj);
@@ -2357,7 +2718,7 @@ public class RedisManager {
         Long start = System.currentTimeMillis();
         Jedis sj = null;
         try {
-            sj = jedisPool.getResource();
+            sj = getResource();
             List<String> v = sj.srandmember(key, count);
             Long end = System.currentTimeMillis();
             Long time = end - start;
@@ -2366,7 +2727,9 @@ public class RedisManager {
             }
             return v;
         } catch (Exception e) {
-            logger.error("command：srandmember key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            if (failed(sj, e)) {
+                logger.error("command：srandmember key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            }
         } finally {
             if (sj != null) {
                 returnResource(sj);
@@ -2379,7 +2742,7 @@ public class RedisManager {
         Long start = System.currentTimeMillis();
         Jedis sj = null;
         try {
-            sj = jedisPool.getResource();
+            sj = getResource();
             Long v = sj.pttl(key);
             Long end = System.currentTimeMillis();
             Long time = end - start;
@@ -2388,7 +2751,9 @@ public class RedisManager {
             }
             return v;
         } catch (Exception e) {
-            logger.error("command：pttl key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            if (failed(sj, e)) {
+                logger.error("command：pttl key:{} ex={}", key, LogExceptionStackTrace.erroStackTrace(e));
+            }
         } finally {
             if (sj != null) {
                 returnResource(sj);
@@ -2401,7 +2766,7 @@ public class RedisManager {
         Long start = System.currentTimeMillis();
         Jedis sj = null;
         try {
-            sj = jedisPool.getResource();
+            sj = getResource();
             sj.subscribe(pubSub, channels);
             Long end = System.currentTimeMillis();
             Long time = end - start;
@@ -2409,7 +2774,9 @@ public class RedisManager {
                 logger.warn("ip:{} port:{} command：subscribe key:{} execution time:{}ms", this.host, this.port, channels, time);
             }
         } catch (Exception e) {
-            logger.error("command：subscribe channels:{} ex={}", channels, LogExceptionStackTrace.erroStackTrace(e));
+            if (failed(sj, e)) {
+                logger.error("command：subscribe channels:{} ex={}", channels, LogExceptionStackTrace.erroStackTrace(e));
+            }
         } finally {
             if (sj != null) {
                 returnResource(sj);
@@ -2421,7 +2788,7 @@ public class RedisManager {
         Long start = System.currentTimeMillis();
         Jedis sj = null;
         try {
-            sj = jedisPool.getResource();
+            sj = getResource();
             Long re = sj.publish(channel, msg);
             Long end = System.currentTimeMillis();
             Long time = end - start;
@@ -2430,7 +2797,9 @@ public class RedisManager {
             }
             return re;
         } catch (Exception e) {
-            logger.error("command：publish channels:{} ex={}", channel, LogExceptionStackTrace.erroStackTrace(e));
+            if (failed(sj, e)) {
+                logger.error("command：publish channels:{} ex={}", channel, LogExceptionStackTrace.erroStackTrace(e));
+            }
         } finally {
             if (sj != null) {
                 returnResource(sj);
@@ -0,0 +1,64 @@
+package com.bright.cloudconsumer.ribbon;
+
+import com.netflix.loadbalancer.Server;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * 同一次逻辑调用的多个请求[第一次请求与对冲请求]共用，记录已经选过的实例
+ * 请求执行期间绑定在执行线程上，PeakEwmaRule选择实例时避开已经选过的实例，全部选过时不再排除；
+ * Ribbon在发出Feign调用的线程中同步选择实例[开启hystrix时Feign在hystrix线程中执行，排除不生效]
+ */
+public final class ServerExclusion {
+
+    private static final ThreadLocal<ServerExclusion> CURRENT = new ThreadLocal<ServerExclusion>();
+
+    private final Set<String> chosen = ConcurrentHashMap.newKeySet();
+
+    static ServerExclusion current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * task执行期间绑定到执行线程
+     */
+    public <T> Supplier<T> bind(Supplier<T> task) {
+        return () -> {
+            ServerExclusion previous = CURRENT.get();
+            CURRENT.set(this);
+            try {
+                return task.get();
+            } finally {
+                if (previous == null) {
+                    CURRENT.remove();
+                } else {
+                    CURRENT.set(previous);
+                }
+            }
+        };
+    }
+
+    /**
+     * @return 没有选过的实例，全部选过时返回servers
+     */
+    List<Server> filter(List<Server> servers) {
+        if (chosen.isEmpty()) {
+            return servers;
+        }
+        List<Server> remaining = new ArrayList<Server>(servers.size());
+        for (Server server : servers) {
+            if (!chosen.contains(server.getId())) {
+                remaining.add(server);
+            }
+        }
+        return remaining.isEmpty() ? servers : remaining;
+    }
+
+    void chosen(Server server) {
+        chosen.add(server.getId());
+    }
+}
@@ -0,0 +1,57 @@
+package com.bright.cloudconsumer.startup;
+
+import com.netflix.appinfo.ApplicationInfoManager;
+import com.netflix.appinfo.InstanceInfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * 延迟Eureka注册
+ * 实例以eureka.instance.initial-status=STARTING注册，Ribbon只选择UP的实例；
+ * 应用启动完成后再改为UP，状态变化会立即同步到Eureka Server；
+ * 开启预热时先在后台线程执行WarmUpRunner，预热结束后再改为UP
+ */
+@Component
+public class InstanceStatusPublisher implements ApplicationListener<ApplicationReadyEvent> {
+    private static final Logger logger = LoggerFactory.getLogger(InstanceStatusPublisher.class);
+
+    @Autowired(required = false)
+    private ApplicationInfoManager applicationInfoManager;
+
+    @Autowired
+    private WarmUpRunner warmUpRunner;
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        if (!warmUpRunner.isEnabled()) {
+            up();
+            return;
+        }
+        int port = event.getApplicationContext().getEnvironment().getProperty("local.server.port", Integer.class, 0);
+        Thread warmUp = new Thread(() -> {
+            try {
+                warmUpRunner.run(port);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                logger.warn("warm-up failed", e);
+            }
+            up();
+        }, "warm-up-main");
+        warmUp.setDaemon(true);
+        warmUp.start();
+    }
+
+    private void up() {
+        if (applicationInfoManager == null) {
+            return;
+        }
+        applicationInfoManager.setInstanceStatus(InstanceInfo.InstanceStatus.UP);
+        logger.info("instance status UP");
+    }
+}
@@ -0,0 +1,46 @@
+package com.bright.cloudconsumer.startup;
+
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * fast-startup配置下把bean改为延迟初始化，第一次使用时才创建
+ * Spring内部的基础设施bean保持原样；
+ * 必须在启动时创建的bean[如有@Scheduled方法]通过fast-startup.eager-beans按名称排除
+ *
+ * Servlet Filter[DeadlineFilter、DebugHeaderFilter]和事件监听器[InstanceStatusPublisher、ExitAfterStartListener]
+ * 由容器在启动过程中按类型获取，延迟初始化不影响其生效；
+ * Feign客户端、连接池、feignAsyncExecutor等在第一次请求时创建，需要时由WarmUpRunner预热
+ */
+@Component
+@Profile("fast-startup")
+public class LazyInitBeanFactoryPostProcessor implements BeanFactoryPostProcessor, EnvironmentAware {
+
+    private Set<String> eagerBeans = new HashSet<String>();
+
+    @Override
+    public void setEnvironment(Environment environment) {
+        eagerBeans = StringUtils.commaDelimitedListToSet(environment.getProperty("fast-startup.eager-beans", ""));
+    }
+
+    @Override
+    public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) throws BeansException {
+        for (String name : beanFactory.getBeanDefinitionNames()) {
+            BeanDefinition definition = beanFactory.getBeanDefinition(name);
+            if (definition.getRole() == BeanDefinition.ROLE_INFRASTRUCTURE || eagerBeans.contains(name.trim())) {
+                continue;
+            }
+            definition.setLazyInit(true);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.bright.cloudconsumer.startup;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 预热配置
+ * 启动完成后、注册为UP之前按批次请求本实例的接口，使热点代码在接收流量前完成JIT编译
+ */
+@ConfigurationProperties(prefix = "warm-up")
+@Component
+public class WarmUpProperties {
+
+    private boolean enabled = false;
+
+    /**
+     * 预热请求的路径[GET]，依次轮流请求
+     */
+    private List<String> paths = new ArrayList<String>();
+
+    /**
+     * 预热的最长时间[s]，超过后不论耗时是否稳定都注册为UP
+     */
+    private int maxSeconds = 60;
+
+    /**
+     * 每批请求数，按批统计耗时中位数
+     */
+    private int batchSize = 200;
+
+    /**
+     * 并发请求数
+     */
+    private int concurrency = 4;
+
+    /**
+     * 相邻两批耗时中位数的变化不超过该比例时认为这一批稳定
+     */
+    private double tolerance = 0.1;
+
+    /**
+     * 连续稳定的批数达到该值时结束预热
+     */
+    private int stableBatches = 3;
+
+    /**
+     * 单个请求的超时时间[ms]
+     */
+    private int timeoutMillis = 10000;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public List<String> getPaths() {
+        return paths;
+    }
+
+    public void setPaths(List<String> paths) {
+        this.paths = paths;
+    }
+
+    public int getMaxSeconds() {
+        return maxSeconds;
+    }
+
+    public void setMaxSeconds(int maxSeconds) {
+        this.maxSeconds = maxSeconds;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    public void setConcurrency(int concurrency) {
+        this.concurrency = concurrency;
+    }
+
+    public double getTolerance() {
+        return tolerance;
+    }
+
+    public void setTolerance(double tolerance) {
+        this.tolerance = tolerance;
+    }
+
+    public int getStableBatches() {
+        return stableBatches;
+    }
+
+    public void setStableBatches(int stableBatches) {
+        this.stableBatches = stableBatches;
+    }
+
+    public int getTimeoutMillis() {
+        return timeoutMillis;
+    }
+
+    public void setTimeoutMillis(int timeoutMillis) {
+        this.timeoutMillis = timeoutMillis;
+    }
+}
@@ -0,0 +1,135 @@
+package com.bright.cloudconsumer.startup;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 预热：按批次请求本实例的接口，直到相邻批次的耗时中位数连续stableBatches批变化不超过tolerance，或超过maxSeconds
+ * 请求经过完整的Tomcat/Spring MVC链路以及接口内的Redis调用、请求合并和结果缓存，与真实流量走相同的代码
+ */
+@Component
+public class WarmUpRunner {
+    private static final Logger logger = LoggerFactory.getLogger(WarmUpRunner.class);
+
+    @Autowired
+    private WarmUpProperties properties;
+
+    public boolean isEnabled() {
+        return properties.isEnabled() && !properties.getPaths().isEmpty();
+    }
+
+    /**
+     * @param port 本实例的端口
+     */
+    public void run(int port) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(properties.getMaxSeconds());
+        ExecutorService executor = Executors.newFixedThreadPool(properties.getConcurrency(), r -> {
+            Thread t = new Thread(r, "warm-up");
+            t.setDaemon(true);
+            return t;
+        });
+        try {
+            long last = -1;
+            int stable = 0;
+            int batches = 0;
+            while (stable < properties.getStableBatches()) {
+                if (System.nanoTime() >= deadline) {
+                    logger.info("warm-up stopped after {}s, {} batches, latency not stable", properties.getMaxSeconds(), batches);
+                    return;
+                }
+                long[] latencies = batch(executor, port, deadline);
+                batches++;
+                if (latencies.length == 0) {
+                    logger.warn("warm-up stopped, all requests of batch {} failed", batches);
+                    return;
+                }
+                long median = latencies[latencies.length / 2];
+                logger.info("warm-up batch {}: {} ok, p50 {}us", batches, latencies.length, TimeUnit.NANOSECONDS.toMicros(median));
+                stable = last > 0 && Math.abs(median - last) <= last * properties.getTolerance() ? stable + 1 : 0;
+                last = median;
+            }
+            logger.info("warm-up finished after {} batches", batches);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * @return 成功请求的耗时[ns]，升序
+     */
+    private long[] batch(ExecutorService executor, int port, long deadline) throws InterruptedException {
+        List<String> paths = properties.getPaths();
+        AtomicInteger next = new AtomicInteger();
+        List<Future<Long>> futures = new ArrayList<Future<Long>>(properties.getBatchSize());
+        for (int i = 0; i < properties.getBatchSize(); i++) {
+            futures.add(executor.submit(() -> {
+                if (System.nanoTime() >= deadline) {
+                    return -1L;
+                }
+                String path = paths.get(Math.floorMod(next.getAndIncrement(), paths.size()));
+                return request("http://localhost:" + port + path);
+            }));
+        }
+        long[] latencies = new long[futures.size()];
+        int ok = 0;
+        for (Future<Long> future : futures) {
+            try {
+                long latency = future.get();
+                if (latency >= 0) {
+                    latencies[ok++] = latency;
+                }
+            } catch (ExecutionException e) {
+                //失败的请求不计入耗时
+            }
+        }
+        long[] result = Arrays.copyOf(latencies, ok);
+        Arrays.sort(result);
+        return result;
+    }
+
+    /**
+     * @return 耗时[ns]，失败或非2xx时返回-1
+     */
+    private long request(String url) {
+        long start = System.nanoTime();
+        HttpURLConnection conn = null;
+        try {
+            conn = (HttpURLConnection) new URL(url).openConnection();
+            conn.setConnectTimeout(properties.getTimeoutMillis());
+            conn.setReadTimeout(properties.getTimeoutMillis());
+            int status = conn.getResponseCode();
+            if (status < 200 || status >= 300) {
+                conn.disconnect();
+                return -1;
+            }
+            //读完响应体后关闭流，连接放回keep-alive缓存供下一个请求复用
+            try (InputStream in = conn.getInputStream()) {
+                byte[] buffer = new byte[4096];
+                while (in.read(buffer) >= 0) {
+                }
+            }
+            return System.nanoTime() - start;
+        } catch (IOException e) {
+            if (conn != null) {
+                conn.disconnect();
+            }
+            return -1;
+        }
+    }
+}
@@ -2,15 +2,51 @@ package com.bright.cloudconsumer.utils;
 
 import com.alibaba.fastjson.JSON;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Function;
 
 
 public abstract class GfJsonUtil {
 
+    /**
+     * 批量解析时超过该条数才拆分到ForkJoin线程池并行解析
+     */
+    private static final int PARALLEL_THRESHOLD = 2048;
+
+    /**
+     * 并行解析时每个子任务至少处理的条数
+     */
+    private static final int PARALLEL_GRAIN = 512;
+
+    /**
+     * 批量解析专用线程池，避免与parallelStream等共用commonPool
+     */
+    private static final ForkJoinPool DECODE_POOL = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+
+    /**
+     * 线程本地输出缓冲区超过该大小时用完即丢弃，避免大对象长期驻留
+     */
+    private static final int MAX_RETAINED_BUFFER = 1024 * 1024;
+
+    private static final ThreadLocal<CharsetDecoder> UTF8_DECODER = ThreadLocal.withInitial(StandardCharsets.UTF_8::newDecoder);
+
+    private static final ThreadLocal<ReusableOutputStream> OUTPUT_BUFFER = ThreadLocal.withInitial(ReusableOutputStream::new);
+
     private GfJsonUtil() {
     }
 
@@ -41,6 +77,137 @@ public abstract class GfJsonUtil {
         return JSON.toJSONString(t);
     }
 
+    /**
+     * UTF-8字节转对象，不经过String
+     *
+     * @param json
+     * @param clazz
+     * @return
+     */
+    public static <T> T parseObject(byte[] json, Class<T> clazz) {
+        if (json == null) {
+            return null;
+        }
+        return (T) JSON.parseObject(json, clazz);
+    }
+
+    /**
+     * UTF-8字节的一段转对象，不经过String
+     *
+     * @param json
+     * @param offset
+     * @param length
+     * @param clazz
+     * @return
+     */
+    public static <T> T parseObject(byte[] json, int offset, int length, Class<T> clazz) {
+        if (json == null) {
+            return null;
+        }
+        return (T) JSON.parseObject(json, offset, length, UTF8_DECODER.get(), clazz);
+    }
+
+    /**
+     * ByteBuffer中剩余的UTF-8字节转对象，不改变buffer的position
+     *
+     * @param json
+     * @param clazz
+     * @return
+     */
+    public static <T> T parseObject(ByteBuffer json, Class<T> clazz) {
+        if (json == null) {
+            return null;
+        }
+        if (json.hasArray()) {
+            return parseObject(json.array(), json.arrayOffset() + json.position(), json.remaining(), clazz);
+        }
+        //堆外buffer只能先拷贝出来
+        byte[] bytes = new byte[json.remaining()];
+        json.duplicate().get(bytes);
+        return parseObject(bytes, clazz);
+    }
+
+    /**
+     * UTF-8字节转延迟解析的JSON对象视图，只建立顶层字段索引，字段在访问时才解析
+     *
+     * @param json
+     * @return
+     */
+    public static LazyJsonObject parseLazy(byte[] json) {
+        if (json == null) {
+            return null;
+        }
+        return new LazyJsonObject(json);
+    }
+
+    /**
+     * UTF-8输入流转对象，流由调用方关闭
+     *
+     * @param json
+     * @param clazz
+     * @return
+     * @throws IOException
+     */
+    public static <T> T parseObject(InputStream json, Class<T> clazz) throws IOException {
+        if (json == null) {
+            return null;
+        }
+        return (T) JSON.parseObject(json, StandardCharsets.UTF_8, clazz);
+    }
+
+    /**
+     * 对象转UTF-8字节，不经过String
+     *
+     * @param t
+     * @return
+     */
+    public static <T> byte[] toJSONBytes(T t) {
+        if (t == null) {
+            return null;
+        }
+        return JSON.toJSONBytes(t);
+    }
+
+    /**
+     * 对象序列化到线程本地的复用缓冲区
+     * 返回的ByteBuffer只在当前线程下一次调用前有效，需要保留时自行拷贝
+     *
+     * @param t
+     * @return
+     */
+    public static <T> ByteBuffer toJSONByteBuffer(T t) {
+        if (t == null) {
+            return null;
+        }
+        ReusableOutputStream out = OUTPUT_BUFFER.get();
+        out.reset();
+        try {
+            JSON.writeJSONString(out, t);
+        } catch (IOException e) {
+            //写内存不会出现IO异常
+            throw new UncheckedIOException(e);
+        }
+        ByteBuffer buffer = out.toByteBuffer();
+        if (out.capacity() > MAX_RETAINED_BUFFER) {
+            OUTPUT_BUFFER.remove();
+        }
+        return buffer;
+    }
+
+    /**
+     * 对象直接序列化为UTF-8写入输出流
+     *
+     * @param t
+     * @param out
+     * @throws IOException
+     */
+    public static <T> void writeJSON(T t, OutputStream out) throws IOException {
+        if (t == null) {
+            return;
+        }
+        JSON.writeJSONString(out, t);
+    }
+
     /**
      * JSON的字符串Iterable转对象List
      * 
@@ -136,4 +303,165 @@ public abstract class GfJsonUtil {
         }
         return uidMap;
     }
+
+    /**
+     * JSON的字符串Iterable转对象List[大批量时并行解析]
+     *
+     * @param <T>
+     * @param jsonList
+     * @param clazz
+     * @return 与jsonList顺序一致
+     */
+    public static <T> List<T> parseListParallel(Iterable<String> jsonList, Class<T> clazz) {
+        Object[] decoded = decodeAll(toArray(jsonList), json -> parseObject(json, clazz));
+        return toList(decoded);
+    }
+
+    /**
+     * JSON数组的字符串Iterable转对象List[大批量时并行解析]
+     *
+     * @param <T>
+     * @param jsonList
+     * @param clazz
+     * @return 与jsonList顺序一致
+     */
+    public static <T> List<List<T>> parseArrayListParallel(Iterable<String> jsonList, Class<T> clazz) {
+        Object[] decoded = decodeAll(toArray(jsonList), json -> parseArray(json, clazz));
+        return toList(decoded);
+    }
+
+    /**
+     * 对应的UID的对应的JSON字符串转对应集合MAP[大批量时并行解析，uid不装箱]
+     *
+     * @param <T>
+     * @param jsonList
+     * @param uids
+     * @param clazz
+     * @param isContainsNull
+     *            MAP中是否包含NULL值
+     * @return
+     */
+    public static <T> LongObjectHashMap<T> parseMapByUidParallel(List<String> jsonList, long[] uids, Class<T> clazz, boolean isContainsNull) {
+        if (jsonList.size() != uids.length) {
+            return null;
+        }
+        Object[] decoded = decodeAll(toArray(jsonList), json -> parseObject(json, clazz));
+        return toUidMap(decoded, uids, isContainsNull);
+    }
+
+    /**
+     * 对应的UID的对应的JSON数组字符串转对应集合MAP[大批量时并行解析，uid不装箱]
+     *
+     * @param <T>
+     * @param jsonList
+     * @param uids
+     * @param clazz
+     * @param isContainsNull
+     *            MAP中是否包含NULL值
+     * @return
+     */
+    public static <T> LongObjectHashMap<List<T>> parseArrayMapByUidParallel(List<String> jsonList, long[] uids, Class<T> clazz, boolean isContainsNull) {
+        if (jsonList.size() != uids.length) {
+            return null;
+        }
+        Object[] decoded = decodeAll(toArray(jsonList), json -> parseArray(json, clazz));
+        return toUidMap(decoded, uids, isContainsNull);
+    }
+
+    /**
+     * 解析结果写入预分配的数组，条数不超过PARALLEL_THRESHOLD时直接在调用线程解析
+     */
+    private static Object[] decodeAll(String[] jsons, Function<String, ?> decoder) {
+        Object[] decoded = new Object[jsons.length];
+        if (jsons.length <= PARALLEL_THRESHOLD) {
+            for (int i = 0; i < jsons.length; i++) {
+                decoded[i] = decoder.apply(jsons[i]);
+            }
+        } else {
+            DECODE_POOL.invoke(new DecodeTask(jsons, decoded, 0, jsons.length, decoder));
+        }
+        return decoded;
+    }
+
+    /**
+     * decoded中的元素由同一个decoder解析，类型都是E
+     */
+    private static <E> LongObjectHashMap<E> toUidMap(Object[] decoded, long[] uids, boolean isContainsNull) {
+        LongObjectHashMap<E> uidMap = new LongObjectHashMap<E>(uids.length);
+        for (int i = 0; i < uids.length; i++) {
+            if (isContainsNull || decoded[i] != null) {
+                uidMap.put(uids[i], (E) decoded[i]);
+            }
+        }
+        return uidMap;
+    }
+
+    private static String[] toArray(Iterable<String> jsonList) {
+        if (jsonList instanceof Collection) {
+            return ((Collection<String>) jsonList).toArray(new String[0]);
+        }
+        List<String> list = new ArrayList<String>();
+        for (String json : jsonList) {
+            list.add(json);
+        }
+        return list.toArray(new String[0]);
+    }
+
+    private static <E> List<E> toList(Object[] decoded) {
+        List<E> list = new ArrayList<E>(decoded.length);
+        for (Object value : decoded) {
+            list.add((E) value);
+        }
+        return list;
+    }
+
+    /**
+     * 按下标区间二分的解析任务，各子任务只写自己区间内的结果
+     */
+    private static final class DecodeTask extends RecursiveAction {
+        private final String[] jsons;
+        private final Object[] decoded;
+        private final int from;
+        private final int to;
+        private final Function<String, ?> decoder;
+
+        DecodeTask(String[] jsons, Object[] decoded, int from, int to, Function<String, ?> decoder) {
+            this.jsons = jsons;
+            this.decoded = decoded;
+            this.from = from;
+            this.to = to;
+            this.decoder = decoder;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= PARALLEL_GRAIN) {
+                for (int i = from; i < to; i++) {
+                    decoded[i] = decoder.apply(jsons[i]);
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new DecodeTask(jsons, decoded, from, mid, decoder),
+                    new DecodeTask(jsons, decoded, mid, to, decoder));
+        }
+    }
+
+    /**
+     * 暴露内部数组的ByteArrayOutputStream，避免toByteArray()的拷贝
+     */
+    private static final class ReusableOutputStream extends ByteArrayOutputStream {
+
+        ReusableOutputStream() {
+            super(4096);
+        }
+
+        ByteBuffer toByteBuffer() {
+            return ByteBuffer.wrap(buf, 0, count);
+        }
+
+        int capacity() {
+            return buf.length;
+        }
+    }
 }
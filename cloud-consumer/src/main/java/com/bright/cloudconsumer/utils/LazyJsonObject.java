@@ -0,0 +1,291 @@
+package com.bright.cloudconsumer.utils;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * JSON对象的延迟解析视图
+ * 构造时只扫描一遍顶层结构，记录每个字段值在字节数组中的位置，
+ * 字段在第一次访问时才解析，解析结果缓存。适用于大文档只读取少数字段的场景，非线程安全
+ */
+public class LazyJsonObject {
+
+    private static final Object UNRESOLVED = new Object();
+
+    private final byte[] json;
+
+    /**
+     * 字段名 -> 字段下标
+     */
+    private final Map<String, Integer> index;
+
+    /**
+     * 字段值的起止位置，第i个字段为[offsets[2i], offsets[2i+1])
+     */
+    private final int[] offsets;
+
+    private final Object[] values;
+
+    public LazyJsonObject(byte[] json) {
+        this(json, 0, json.length);
+    }
+
+    /**
+     * @param json  UTF-8编码的JSON
+     * @param from  对象起始位置[含]
+     * @param to    对象结束位置[不含]
+     */
+    public LazyJsonObject(byte[] json, int from, int to) {
+        this.json = json;
+        Scanner scanner = new Scanner(json, from, to);
+        this.index = new HashMap<String, Integer>();
+        this.offsets = scanner.scanObject(index);
+        this.values = new Object[index.size()];
+        Arrays.fill(values, UNRESOLVED);
+    }
+
+    public boolean containsKey(String key) {
+        return index.containsKey(key);
+    }
+
+    public Set<String> keySet() {
+        return Collections.unmodifiableSet(index.keySet());
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    /**
+     * 解析字段值，同一字段只解析一次
+     *
+     * @param key
+     * @param clazz
+     * @return 字段不存在时返回null
+     */
+    public <T> T get(String key, Class<T> clazz) {
+        Integer slot = index.get(key);
+        if (slot == null) {
+            return null;
+        }
+        Object cached = values[slot];
+        if (cached != UNRESOLVED && (cached == null || clazz.isInstance(cached))) {
+            return (T) cached;
+        }
+        T value = GfJsonUtil.parseObject(json, offsets[2 * slot], offsets[2 * slot + 1] - offsets[2 * slot], clazz);
+        values[slot] = value;
+        return value;
+    }
+
+    public String getString(String key) {
+        return get(key, String.class);
+    }
+
+    public Long getLong(String key) {
+        return get(key, Long.class);
+    }
+
+    public Integer getInteger(String key) {
+        return get(key, Integer.class);
+    }
+
+    public Boolean getBoolean(String key) {
+        return get(key, Boolean.class);
+    }
+
+    /**
+     * 嵌套对象同样以延迟视图返回，与当前视图共享字节数组
+     *
+     * @param key
+     * @return 字段不存在或不是对象时返回null
+     */
+    public LazyJsonObject getLazy(String key) {
+        Integer slot = index.get(key);
+        if (slot == null) {
+            return null;
+        }
+        Object cached = values[slot];
+        if (cached instanceof LazyJsonObject) {
+            return (LazyJsonObject) cached;
+        }
+        int start = offsets[2 * slot];
+        if (json[start] != '{') {
+            return null;
+        }
+        LazyJsonObject nested = new LazyJsonObject(json, start, offsets[2 * slot + 1]);
+        values[slot] = nested;
+        return nested;
+    }
+
+    /**
+     * 字段值的原始JSON文本
+     */
+    public String getRaw(String key) {
+        Integer slot = index.get(key);
+        if (slot == null) {
+            return null;
+        }
+        int start = offsets[2 * slot];
+        return new String(json, start, offsets[2 * slot + 1] - start, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 只识别结构[字符串、对象、数组的边界]，不解析值
+     */
+    private static final class Scanner {
+        private final byte[] json;
+        private final int to;
+        private int pos;
+
+        Scanner(byte[] json, int from, int to) {
+            this.json = json;
+            this.pos = from;
+            this.to = to;
+        }
+
+        int[] scanObject(Map<String, Integer> index) {
+            int[] offsets = new int[16];
+            skipWhitespace();
+            expect('{');
+            skipWhitespace();
+            if (peek() == '}') {
+                return offsets;
+            }
+            while (true) {
+                skipWhitespace();
+                String key = readKey();
+                skipWhitespace();
+                expect(':');
+                skipWhitespace();
+                int start = pos;
+                skipValue();
+                int slot = index.size();
+                Integer previous = index.put(key, slot);
+                if (previous != null) {
+                    //重复字段以最后一个为准，与fastjson一致
+                    index.put(key, previous);
+                    slot = previous;
+                }
+                if (2 * slot + 1 >= offsets.length) {
+                    offsets = Arrays.copyOf(offsets, offsets.length * 2);
+                }
+                offsets[2 * slot] = start;
+                offsets[2 * slot + 1] = pos;
+                skipWhitespace();
+                byte b = next();
+                if (b == '}') {
+                    return offsets;
+                }
+                if (b != ',') {
+                    throw error("expect ',' or '}'");
+                }
+            }
+        }
+
+        private String readKey() {
+            int start = pos;
+            expect('"');
+            boolean escaped = skipStringBody();
+            if (escaped) {
+                return (String) JSON.parse(new String(json, start, pos - start, StandardCharsets.UTF_8));
+            }
+            return new String(json, start + 1, pos - start - 2, StandardCharsets.UTF_8);
+        }
+
+        private void skipValue() {
+            byte b = peek();
+            if (b == '"') {
+                pos++;
+                skipStringBody();
+            } else if (b == '{' || b == '[') {
+                skipContainer();
+            } else {
+                //数字、true/false/null
+                while (pos < to) {
+                    b = json[pos];
+                    if (b == ',' || b == '}' || b == ']' || isWhitespace(b)) {
+                        break;
+                    }
+                    pos++;
+                }
+            }
+        }
+
+        private void skipContainer() {
+            int depth = 0;
+            while (pos < to) {
+                byte b = json[pos++];
+                if (b == '"') {
+                    skipStringBody();
+                } else if (b == '{' || b == '[') {
+                    depth++;
+                } else if (b == '}' || b == ']') {
+                    if (--depth == 0) {
+                        return;
+                    }
+                }
+            }
+            throw error("unclosed object or array");
+        }
+
+        /**
+         * 跳过字符串内容，pos停在结束引号之后
+         *
+         * @return 是否包含转义字符
+         */
+        private boolean skipStringBody() {
+            boolean escaped = false;
+            while (pos < to) {
+                byte b = json[pos++];
+                if (b == '\\') {
+                    escaped = true;
+                    pos++;
+                } else if (b == '"') {
+                    return escaped;
+                }
+            }
+            throw error("unclosed string");
+        }
+
+        private void skipWhitespace() {
+            while (pos < to && isWhitespace(json[pos])) {
+                pos++;
+            }
+        }
+
+        private void expect(char c) {
+            if (next() != c) {
+                throw error("expect '" + c + "'");
+            }
+        }
+
+        private byte next() {
+            if (pos >= to) {
+                throw error("unexpected end");
+            }
+            return json[pos++];
+        }
+
+        private byte peek() {
+            if (pos >= to) {
+                throw error("unexpected end");
+            }
+            return json[pos];
+        }
+
+        private JSONException error(String message) {
+            return new JSONException(message + ", pos " + pos);
+        }
+
+        private static boolean isWhitespace(byte b) {
+            return b == ' ' || b == '\n' || b == '\r' || b == '\t';
+        }
+    }
+}
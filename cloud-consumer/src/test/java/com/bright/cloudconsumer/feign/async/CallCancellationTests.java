@@ -0,0 +1,47 @@
+package com.bright.cloudconsumer.feign.async;
+
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class CallCancellationTests {
+
+	@Test
+	public void cancelAbortsRegisteredRequest() {
+		CallCancellation cancellation = new CallCancellation();
+		AtomicInteger aborts = new AtomicInteger();
+		cancellation.register(aborts::incrementAndGet);
+		assertEquals(0, aborts.get());
+		cancellation.cancel();
+		assertEquals(1, aborts.get());
+		assertTrue(cancellation.isCancelled());
+	}
+
+	@Test
+	public void requestRegisteredAfterCancelIsAbortedImmediately() {
+		CallCancellation cancellation = new CallCancellation();
+		cancellation.cancel();
+		AtomicInteger aborts = new AtomicInteger();
+		cancellation.register(aborts::incrementAndGet);
+		assertEquals(1, aborts.get());
+	}
+
+	@Test
+	public void boundOnlyWhileTaskRuns() {
+		CallCancellation cancellation = new CallCancellation();
+		assertNull(CallCancellation.current());
+		assertSame(cancellation, cancellation.bind(CallCancellation::current).get());
+		assertNull(CallCancellation.current());
+
+		assertFalse(cancellation.bind(CallCancellation::isCurrentCancelled).get());
+		cancellation.cancel();
+		assertTrue(cancellation.bind(CallCancellation::isCurrentCancelled).get());
+		assertFalse(CallCancellation.isCurrentCancelled());
+	}
+}
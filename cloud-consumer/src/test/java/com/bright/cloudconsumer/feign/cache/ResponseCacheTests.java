@@ -0,0 +1,55 @@
+package com.bright.cloudconsumer.feign.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ResponseCacheTests {
+
+	private static final String KEY = "InfoClient#info()";
+
+	private ResponseCache cache;
+
+	@Before
+	public void setUp() {
+		cache = new ResponseCache();
+		ReflectionTestUtils.setField(cache, "meterRegistry", new SimpleMeterRegistry());
+	}
+
+	@Test
+	public void fallbackIsNotCachedWithoutEntry() {
+		cache.get(KEY, () -> CompletableFuture.completedFuture(cache.markFallback(new String("fallback info"))));
+		assertNull(cache.getLastGood(KEY));
+	}
+
+	@Test
+	public void lateFallbackDoesNotReplaceNewerEntry() {
+		String old = new String("old");
+		cache.put(KEY, old);
+		String late = cache.markFallback(new String(old));
+		String fresh = new String("fresh");
+		cache.put(KEY, fresh);
+		cache.put(KEY, late);
+		assertSame(fresh, cache.getLastGood(KEY));
+	}
+
+	@Test
+	public void cachedValueIsNotFallback() {
+		String value = new String("value");
+		cache.put(KEY, value);
+		String fallback = cache.markFallback(new String(value));
+		assertEquals(value, fallback);
+		assertTrue(cache.isFallback(fallback));
+		assertFalse(cache.isFallback(value));
+		assertFalse(cache.isFallback(null));
+	}
+}
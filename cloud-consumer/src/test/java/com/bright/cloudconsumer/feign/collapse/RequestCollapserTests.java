@@ -0,0 +1,87 @@
+package com.bright.cloudconsumer.feign.collapse;
+
+import com.bright.cloudconsumer.deadline.Deadline;
+import com.bright.cloudconsumer.feign.log.DebugContext;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class RequestCollapserTests {
+
+	private static final String KEY = "InfoClient#info()";
+
+	private RequestCollapser collapser;
+
+	@Before
+	public void setUp() {
+		collapser = new RequestCollapser();
+		collapser.setWindowMillis(50);
+		ReflectionTestUtils.setField(collapser, "meterRegistry", new SimpleMeterRegistry());
+	}
+
+	@After
+	public void tearDown() {
+		collapser.destroy();
+		Deadline.clear();
+		DebugContext.clear();
+	}
+
+	@Test
+	public void firesWithLatestJoinerDeadline() throws Exception {
+		Supplier<CompletableFuture<Long>> call = () -> CompletableFuture.completedFuture(Deadline.remainingMillis());
+		CompletableFuture<Long> first = joinWithBudget(200L, call);
+		CompletableFuture<Long> second = joinWithBudget(2000L, call);
+		long remaining = first.get(1, TimeUnit.SECONDS);
+		assertEquals(remaining, (long) second.get(1, TimeUnit.SECONDS));
+		assertTrue("remaining " + remaining, remaining > 1000 && remaining <= 2000);
+	}
+
+	@Test
+	public void joinerWithoutDeadlineRemovesLimit() throws Exception {
+		Supplier<CompletableFuture<Long>> call = () -> CompletableFuture.completedFuture(Deadline.remainingMillis());
+		CompletableFuture<Long> first = joinWithBudget(200L, call);
+		CompletableFuture<Long> second = joinWithBudget(null, call);
+		assertEquals(Long.MAX_VALUE, (long) first.get(1, TimeUnit.SECONDS));
+		assertEquals(Long.MAX_VALUE, (long) second.get(1, TimeUnit.SECONDS));
+	}
+
+	@Test
+	public void firesAsDebugWhenAnyJoinerIsDebug() throws Exception {
+		Supplier<CompletableFuture<String>> call = () -> CompletableFuture.completedFuture(DebugContext.current());
+		CompletableFuture<String> plain = CompletableFuture.supplyAsync(() -> collapser.execute(KEY, call)).get();
+		CompletableFuture<String> debug = CompletableFuture.supplyAsync(() -> {
+			DebugContext.set("1");
+			try {
+				return collapser.execute(KEY, call);
+			} finally {
+				DebugContext.clear();
+			}
+		}).get();
+		assertEquals("1", plain.get(1, TimeUnit.SECONDS));
+		assertEquals("1", debug.get(1, TimeUnit.SECONDS));
+	}
+
+	private CompletableFuture<Long> joinWithBudget(Long budgetMillis, Supplier<CompletableFuture<Long>> call)
+			throws InterruptedException, ExecutionException {
+		return CompletableFuture.supplyAsync(() -> {
+			if (budgetMillis != null) {
+				Deadline.start(budgetMillis);
+			}
+			try {
+				return collapser.execute(KEY, call);
+			} finally {
+				Deadline.clear();
+			}
+		}).get();
+	}
+}
@@ -0,0 +1,163 @@
+package com.bright.cloudconsumer.feign.hedge;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class RequestHedgerTests {
+
+	private static final String KEY = "InfoClient#info()";
+
+	private static final int MIN_SAMPLES = 5;
+
+	private MeterRegistry meterRegistry;
+
+	private RequestHedger hedger;
+
+	/**
+	 * 每次请求返回的future，第一次请求和对冲请求依次加入
+	 */
+	private final List<CompletableFuture<String>> attempts = new CopyOnWriteArrayList<CompletableFuture<String>>();
+
+	@Before
+	public void setUp() {
+		meterRegistry = new SimpleMeterRegistry();
+		hedger = new RequestHedger();
+		ReflectionTestUtils.setField(hedger, "meterRegistry", meterRegistry);
+		hedger.setKeys(Collections.singleton(KEY));
+		hedger.setWindowSize(10);
+		hedger.setMinSamples(MIN_SAMPLES);
+		hedger.setMinDelayMillis(20);
+		hedger.setBudgetPercent(100);
+	}
+
+	@After
+	public void tearDown() {
+		hedger.destroy();
+	}
+
+	@Test
+	public void hedgedOnlyForConfiguredKeysWhenEnabled() {
+		assertTrue(hedger.isHedged(KEY));
+		assertFalse(hedger.isHedged("InfoClient#other()"));
+		hedger.setEnabled(false);
+		assertFalse(hedger.isHedged(KEY));
+	}
+
+	@Test
+	public void noHedgeBeforeMinSamples() throws Exception {
+		CompletableFuture<String> result = hedger.execute(KEY, this::pending);
+		Thread.sleep(100);
+		assertEquals(1, attempts.size());
+		attempts.get(0).complete("first");
+		assertEquals("first", result.get(1, TimeUnit.SECONDS));
+	}
+
+	@Test
+	public void hedgeWinsWhenFirstAttemptIsSlow() throws Exception {
+		warmUp();
+		CompletableFuture<String> result = hedger.execute(KEY, this::pending);
+		awaitAttempts(2);
+		attempts.get(1).complete("hedge");
+
+		assertEquals("hedge", result.get(1, TimeUnit.SECONDS));
+		assertTrue(attempts.get(0).isCancelled());
+		assertEquals(1, count("feign.hedge.sent"), 0);
+		assertEquals(1, count("feign.hedge.won"), 0);
+	}
+
+	@Test
+	public void noHedgeWhenFirstAttemptReturnsInTime() throws Exception {
+		warmUp();
+		CompletableFuture<String> result = hedger.execute(KEY, () -> CompletableFuture.completedFuture("first"));
+		assertEquals("first", result.get(1, TimeUnit.SECONDS));
+		Thread.sleep(100);
+		assertEquals(0, count("feign.hedge.sent"), 0);
+	}
+
+	@Test
+	public void noHedgeWithoutBudget() throws Exception {
+		hedger.setBudgetPercent(0);
+		warmUp();
+		CompletableFuture<String> result = hedger.execute(KEY, this::pending);
+		Thread.sleep(100);
+		assertEquals(1, attempts.size());
+		assertEquals(1, count("feign.hedge.rejected"), 0);
+		attempts.get(0).complete("first");
+		assertEquals("first", result.get(1, TimeUnit.SECONDS));
+	}
+
+	@Test
+	public void failedHedgeDoesNotFailResult() throws Exception {
+		warmUp();
+		CompletableFuture<String> result = hedger.execute(KEY, this::pending);
+		awaitAttempts(2);
+		attempts.get(1).completeExceptionally(new IllegalStateException("hedge"));
+		assertFalse(result.isDone());
+
+		attempts.get(0).complete("first");
+		assertEquals("first", result.get(1, TimeUnit.SECONDS));
+		assertEquals(0, count("feign.hedge.won"), 0);
+	}
+
+	@Test
+	public void failsWhenAllAttemptsFail() throws Exception {
+		warmUp();
+		CompletableFuture<String> result = hedger.execute(KEY, this::pending);
+		awaitAttempts(2);
+		attempts.get(0).completeExceptionally(new IllegalStateException("first"));
+		attempts.get(1).completeExceptionally(new IllegalStateException("hedge"));
+		try {
+			result.get(1, TimeUnit.SECONDS);
+			fail("expected ExecutionException");
+		} catch (ExecutionException e) {
+			assertTrue(e.getCause() instanceof IllegalStateException);
+		}
+	}
+
+	/**
+	 * 记录MIN_SAMPLES次立即返回的调用，对冲等待时间为minDelayMillis，同时积累预算
+	 */
+	private void warmUp() throws Exception {
+		for (int i = 0; i < MIN_SAMPLES; i++) {
+			hedger.execute(KEY, () -> CompletableFuture.completedFuture("warm")).get(1, TimeUnit.SECONDS);
+		}
+	}
+
+	private CompletableFuture<String> pending() {
+		CompletableFuture<String> attempt = new CompletableFuture<String>();
+		attempts.add(attempt);
+		return attempt;
+	}
+
+	private void awaitAttempts(int count) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+		while (attempts.size() < count) {
+			if (System.nanoTime() - deadline >= 0) {
+				fail("expected " + count + " attempts, got " + attempts.size());
+			}
+			Thread.sleep(5);
+		}
+	}
+
+	private double count(String name) {
+		Counter counter = meterRegistry.find(name).tag("key", KEY).counter();
+		return counter == null ? 0 : counter.count();
+	}
+}
@@ -0,0 +1,97 @@
+package com.bright.cloudconsumer.limit;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class AdaptiveLimiterTests {
+
+	@Test
+	public void rejectsWhenInflightReachesLimit() {
+		AdaptiveLimiter limiter = new AdaptiveLimiter("provider", 2, 1, 10, 1.0, 0.5, 10);
+		limiter.acquire();
+		limiter.acquire();
+		assertEquals(2, limiter.getInflight());
+		try {
+			limiter.acquire();
+			fail("expected LimitExceededException");
+		} catch (LimitExceededException e) {
+			//expected
+		}
+		assertEquals(2, limiter.getInflight());
+
+		limiter.onIgnore();
+		assertEquals(1, limiter.getInflight());
+		assertEquals(2, limiter.getLimit());
+		limiter.acquire();
+	}
+
+	@Test
+	public void dropBacksOffToMinLimit() {
+		AdaptiveLimiter limiter = new AdaptiveLimiter("provider", 10, 3, 20, 1.0, 0.5, 10);
+		limiter.acquire();
+		limiter.onDropped();
+		assertEquals(5, limiter.getLimit());
+		assertEquals(0, limiter.getInflight());
+		limiter.acquire();
+		limiter.onDropped();
+		assertEquals(3, limiter.getLimit());
+	}
+
+	@Test
+	public void stableLatencyGrowsLimitUpToMax() {
+		AdaptiveLimiter limiter = new AdaptiveLimiter("provider", 4, 1, 8, 1.0, 0.5, 10);
+		for (int round = 0; round < 10; round++) {
+			saturate(limiter, 10);
+		}
+		assertEquals(8, limiter.getLimit());
+		assertEquals(0, limiter.getInflight());
+	}
+
+	@Test
+	public void lowInflightDoesNotChangeLimit() {
+		AdaptiveLimiter limiter = new AdaptiveLimiter("provider", 10, 1, 20, 1.0, 0.5, 10);
+		for (int i = 0; i < 20; i++) {
+			limiter.acquire();
+			limiter.onSuccess(startedAgo(10));
+		}
+		assertEquals(10, limiter.getLimit());
+	}
+
+	@Test
+	public void risingLatencyShrinksLimit() {
+		AdaptiveLimiter limiter = new AdaptiveLimiter("provider", 20, 1, 20, 1.0, 0.5, 10);
+		//进行中的请求少，只建立长期耗时
+		for (int i = 0; i < 20; i++) {
+			limiter.acquire();
+			limiter.onSuccess(startedAgo(10));
+		}
+		assertEquals(20, limiter.getLimit());
+
+		saturate(limiter, 100);
+		assertTrue(limiter.getLimit() < 20);
+		assertTrue(limiter.getLimit() >= 1);
+		assertTrue(limiter.getQueueDelayMillis() > 0);
+	}
+
+	/**
+	 * 占满上限后全部以rttMillis的耗时完成
+	 */
+	private static void saturate(AdaptiveLimiter limiter, long rttMillis) {
+		int limit = limiter.getLimit();
+		for (int i = 0; i < limit; i++) {
+			limiter.acquire();
+		}
+		for (int i = 0; i < limit; i++) {
+			limiter.onSuccess(startedAgo(rttMillis));
+		}
+	}
+
+	private static long startedAgo(long millis) {
+		return System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(millis);
+	}
+}
@@ -0,0 +1,38 @@
+package com.bright.cloudconsumer.ribbon;
+
+import com.netflix.loadbalancer.BaseLoadBalancer;
+import com.netflix.loadbalancer.Server;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+public class PeakEwmaRuleTests {
+
+	private PeakEwmaRule rule;
+
+	@Before
+	public void setUp() {
+		rule = new PeakEwmaRule();
+		BaseLoadBalancer lb = new BaseLoadBalancer();
+		lb.setRule(rule);
+		lb.addServers(Arrays.asList(new Server("10.0.0.1", 8080), new Server("10.0.0.2", 8080), new Server("10.0.0.3", 8080)));
+	}
+
+	@Test
+	public void exclusionAvoidsServersAlreadyChosen() {
+		ServerExclusion exclusion = new ServerExclusion();
+		Set<String> chosen = new HashSet<String>();
+		for (int i = 0; i < 3; i++) {
+			chosen.add(exclusion.bind(() -> rule.choose(null)).get().getId());
+		}
+		assertEquals(3, chosen.size());
+		//全部选过后不再排除
+		assertNotNull(exclusion.bind(() -> rule.choose(null)).get());
+	}
+}
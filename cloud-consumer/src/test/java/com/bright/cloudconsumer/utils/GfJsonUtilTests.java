@@ -0,0 +1,99 @@
+package com.bright.cloudconsumer.utils;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class GfJsonUtilTests {
+
+	/**
+	 * 超过并行解析的阈值[2048]，走ForkJoin拆分
+	 */
+	private static final int LARGE = 5000;
+
+	private static final int SMALL = 100;
+
+	@Test
+	public void parseListParallelKeepsOrder() {
+		for (int size : new int[]{SMALL, LARGE}) {
+			List<String> jsons = numbers(size);
+			List<Long> parsed = GfJsonUtil.parseListParallel(jsons, Long.class);
+			assertEquals(GfJsonUtil.parseList(jsons, Long.class), parsed);
+			assertEquals(size, parsed.size());
+			assertEquals(Long.valueOf(size - 1), parsed.get(size - 1));
+		}
+	}
+
+	@Test
+	public void parseArrayListParallelKeepsOrder() {
+		List<String> jsons = arrays(LARGE);
+		List<List<Long>> parsed = GfJsonUtil.parseArrayListParallel(jsons, Long.class);
+		assertEquals(GfJsonUtil.parseArrayList(jsons, Long.class), parsed);
+		assertEquals(Arrays.asList(1234L, 1235L), parsed.get(1234));
+	}
+
+	@Test
+	public void parseMapByUidParallel() {
+		List<String> jsons = numbers(LARGE);
+		//null的JSON解析为null
+		jsons.set(7, null);
+		long[] uids = uids(LARGE);
+
+		LongObjectHashMap<Long> withoutNull = GfJsonUtil.parseMapByUidParallel(jsons, uids, Long.class, false);
+		assertEquals(LARGE - 1, withoutNull.size());
+		assertFalse(withoutNull.containsKey(uids[7]));
+		for (int i = 0; i < LARGE; i++) {
+			if (i != 7) {
+				assertEquals(Long.valueOf(i), withoutNull.get(uids[i]));
+			}
+		}
+
+		LongObjectHashMap<Long> withNull = GfJsonUtil.parseMapByUidParallel(jsons, uids, Long.class, true);
+		assertEquals(LARGE, withNull.size());
+		assertTrue(withNull.containsKey(uids[7]));
+		assertNull(withNull.get(uids[7]));
+
+		assertNull(GfJsonUtil.parseMapByUidParallel(jsons, new long[1], Long.class, false));
+	}
+
+	@Test
+	public void parseArrayMapByUidParallel() {
+		long[] uids = uids(LARGE);
+		LongObjectHashMap<List<Long>> parsed = GfJsonUtil.parseArrayMapByUidParallel(arrays(LARGE), uids, Long.class, false);
+		assertEquals(LARGE, parsed.size());
+		for (int i = 0; i < LARGE; i++) {
+			assertEquals(Arrays.asList((long) i, (long) i + 1), parsed.get(uids[i]));
+		}
+	}
+
+	private static List<String> numbers(int size) {
+		List<String> jsons = new ArrayList<String>(size);
+		for (int i = 0; i < size; i++) {
+			jsons.add(String.valueOf(i));
+		}
+		return jsons;
+	}
+
+	private static List<String> arrays(int size) {
+		List<String> jsons = new ArrayList<String>(size);
+		for (int i = 0; i < size; i++) {
+			jsons.add("[" + i + "," + (i + 1) + "]");
+		}
+		return jsons;
+	}
+
+	private static long[] uids(int size) {
+		long[] uids = new long[size];
+		for (int i = 0; i < size; i++) {
+			uids[i] = 10000000000L + i * 7919L;
+		}
+		return uids;
+	}
+}
@@ -0,0 +1,104 @@
+package com.bright.cloudconsumer.utils;
+
+import com.alibaba.fastjson.JSONException;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashSet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class LazyJsonObjectTests {
+
+	@Test
+	public void indexesTopLevelFields() {
+		LazyJsonObject object = lazy(" {\n\t\"id\" : 42, \"name\":\"bright\",\"ok\":true,\"none\":null,"
+				+ "\"tags\":[\"a]\",\"b}\"],\"user\":{\"uid\":7,\"memo\":\"x\\\"}\"}} ");
+		assertEquals(6, object.size());
+		assertEquals(new HashSet<String>(Arrays.asList("id", "name", "ok", "none", "tags", "user")), object.keySet());
+		assertEquals("42", object.getRaw("id"));
+		assertEquals("\"bright\"", object.getRaw("name"));
+		assertEquals("true", object.getRaw("ok"));
+		assertEquals("null", object.getRaw("none"));
+		assertEquals("[\"a]\",\"b}\"]", object.getRaw("tags"));
+		assertEquals("{\"uid\":7,\"memo\":\"x\\\"}\"}", object.getRaw("user"));
+		assertFalse(object.containsKey("missing"));
+		assertNull(object.getRaw("missing"));
+	}
+
+	@Test
+	public void parsesFieldsOnAccess() {
+		LazyJsonObject object = lazy("{\"id\":42,\"uid\":9007199254740993,\"name\":\"bright\",\"ok\":false}");
+		assertEquals(Integer.valueOf(42), object.getInteger("id"));
+		assertEquals(Long.valueOf(9007199254740993L), object.getLong("uid"));
+		assertEquals("bright", object.getString("name"));
+		assertEquals(Boolean.FALSE, object.getBoolean("ok"));
+		assertNull(object.getString("missing"));
+		//解析结果缓存
+		assertSame(object.getString("name"), object.getString("name"));
+	}
+
+	@Test
+	public void nestedObjectSharesBytes() {
+		LazyJsonObject object = lazy("{\"user\":{\"uid\":7,\"profile\":{\"city\":\"sh\"}},\"id\":1}");
+		LazyJsonObject user = object.getLazy("user");
+		assertEquals(2, user.size());
+		assertEquals("7", user.getRaw("uid"));
+		assertEquals("\"sh\"", user.getLazy("profile").getRaw("city"));
+		assertSame(user, object.getLazy("user"));
+		assertNull(object.getLazy("id"));
+		assertNull(object.getLazy("missing"));
+	}
+
+	@Test
+	public void emptyAndManyFields() {
+		assertEquals(0, lazy("{ }").size());
+		StringBuilder json = new StringBuilder("{");
+		for (int i = 0; i < 20; i++) {
+			json.append(i == 0 ? "" : ",").append("\"f").append(i).append("\":").append(i);
+		}
+		LazyJsonObject object = lazy(json.append('}').toString());
+		assertEquals(20, object.size());
+		for (int i = 0; i < 20; i++) {
+			assertEquals(String.valueOf(i), object.getRaw("f" + i));
+		}
+	}
+
+	@Test
+	public void duplicateKeyKeepsLastValue() {
+		LazyJsonObject object = lazy("{\"a\":1,\"b\":2,\"a\":3}");
+		assertEquals(2, object.size());
+		assertEquals("3", object.getRaw("a"));
+		assertEquals("2", object.getRaw("b"));
+	}
+
+	@Test
+	public void escapedKeyIsDecoded() {
+		LazyJsonObject object = lazy("{\"a\\\"b\":1,\"中文\":2}");
+		assertTrue(object.containsKey("a\"b"));
+		assertEquals("2", object.getRaw("中文"));
+	}
+
+	@Test
+	public void rejectsMalformedJson() {
+		String[] malformed = {"", "[1]", "{\"a\":1", "{\"a\" 1}", "{\"a\":1 \"b\":2}", "{\"a\":\"x}", "{\"a\":[1,2}"};
+		for (String json : malformed) {
+			try {
+				lazy(json);
+				fail("expected JSONException: " + json);
+			} catch (JSONException e) {
+				//expected
+			}
+		}
+	}
+
+	private static LazyJsonObject lazy(String json) {
+		return new LazyJsonObject(json.getBytes(StandardCharsets.UTF_8));
+	}
+}
@@ -0,0 +1,99 @@
+package com.bright.cloudconsumer.utils;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class LongObjectHashMapTests {
+
+	@Test
+	public void putGetAndReplace() {
+		LongObjectHashMap<String> map = new LongObjectHashMap<String>();
+		assertTrue(map.isEmpty());
+		assertNull(map.put(1L, "a"));
+		assertNull(map.put(-1L, "b"));
+		assertNull(map.put(Long.MIN_VALUE, "c"));
+		assertEquals("a", map.put(1L, "d"));
+
+		assertEquals(3, map.size());
+		assertEquals("d", map.get(1L));
+		assertEquals("b", map.get(-1L));
+		assertEquals("c", map.get(Long.MIN_VALUE));
+		assertNull(map.get(2L));
+		assertFalse(map.containsKey(2L));
+	}
+
+	@Test
+	public void zeroKey() {
+		LongObjectHashMap<String> map = new LongObjectHashMap<String>();
+		assertFalse(map.containsKey(0L));
+		assertNull(map.put(0L, "zero"));
+		assertEquals("zero", map.put(0L, "zero2"));
+		assertEquals("zero2", map.get(0L));
+		assertTrue(map.containsKey(0L));
+		assertEquals(1, map.size());
+	}
+
+	@Test
+	public void nullValue() {
+		LongObjectHashMap<String> map = new LongObjectHashMap<String>();
+		map.put(7L, null);
+		map.put(0L, null);
+		assertTrue(map.containsKey(7L));
+		assertTrue(map.containsKey(0L));
+		assertNull(map.get(7L));
+		assertEquals(2, map.size());
+	}
+
+	@Test
+	public void growsPastExpectedSize() {
+		LongObjectHashMap<Long> map = new LongObjectHashMap<Long>(4);
+		Map<Long, Long> expected = new HashMap<Long, Long>();
+		Random random = new Random(42);
+		for (int i = 0; i < 10000; i++) {
+			//连续的uid和随机的key混合
+			long key = i % 2 == 0 ? i : random.nextLong();
+			map.put(key, key * 31);
+			expected.put(key, key * 31);
+		}
+		assertEquals(expected.size(), map.size());
+		for (Map.Entry<Long, Long> entry : expected.entrySet()) {
+			assertEquals(entry.getValue(), map.get(entry.getKey()));
+		}
+	}
+
+	@Test
+	public void forEachVisitsEveryEntry() {
+		LongObjectHashMap<String> map = new LongObjectHashMap<String>();
+		for (long key = 0; key < 100; key++) {
+			map.put(key, "v" + key);
+		}
+		Map<Long, String> visited = new HashMap<Long, String>();
+		map.forEach((key, value) -> visited.put(key, value));
+		assertEquals(100, visited.size());
+		for (long key = 0; key < 100; key++) {
+			assertEquals("v" + key, visited.get(key));
+		}
+	}
+
+	@Test
+	public void clear() {
+		LongObjectHashMap<String> map = new LongObjectHashMap<String>();
+		map.put(0L, "zero");
+		map.put(1L, "one");
+		map.clear();
+		assertTrue(map.isEmpty());
+		assertFalse(map.containsKey(0L));
+		assertFalse(map.containsKey(1L));
+		map.put(1L, "again");
+		assertEquals("again", map.get(1L));
+		assertEquals(1, map.size());
+	}
+}
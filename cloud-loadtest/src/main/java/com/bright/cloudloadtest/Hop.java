@@ -0,0 +1,24 @@
+package com.bright.cloudloadtest;
+
+/**
+ * 链路上的一个被压测节点
+ */
+public class Hop {
+
+    private final String name;
+
+    private final String url;
+
+    public Hop(String name, String url) {
+        this.name = name;
+        this.url = url;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+}
@@ -0,0 +1,97 @@
+package com.bright.cloudloadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 单个节点的压测结果
+ * 延迟从“计划发出时间”开始计算而不是实际发出时间，消除coordinated omission
+ */
+public class HopResult {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(10);
+
+    private final String name;
+
+    private final Histogram histogram = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+
+    private final AtomicLong sent = new AtomicLong();
+
+    private final AtomicLong errors = new AtomicLong();
+
+    private final AtomicLong fallbacks = new AtomicLong();
+
+    private final AtomicLong timeouts = new AtomicLong();
+
+    private volatile long elapsedNanos;
+
+    public HopResult(String name) {
+        this.name = name;
+    }
+
+    void sent() {
+        sent.incrementAndGet();
+    }
+
+    void success(long intendedNanos, long completedNanos, boolean fallback) {
+        record(intendedNanos, completedNanos);
+        if (fallback) {
+            fallbacks.incrementAndGet();
+        }
+    }
+
+    void error(long intendedNanos, long completedNanos) {
+        record(intendedNanos, completedNanos);
+        errors.incrementAndGet();
+    }
+
+    /**
+     * 等待结束时仍未返回，按错误计入，延迟记到等待结束时
+     */
+    void timeout(long intendedNanos, long abandonedNanos) {
+        error(intendedNanos, abandonedNanos);
+        timeouts.incrementAndGet();
+    }
+
+    void finish(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    private void record(long intendedNanos, long completedNanos) {
+        long micros = TimeUnit.NANOSECONDS.toMicros(completedNanos - intendedNanos);
+        histogram.recordValue(Math.min(Math.max(micros, 0), HIGHEST_TRACKABLE_MICROS));
+    }
+
+    public void print(PrintStream out) {
+        long total = histogram.getTotalCount();
+        double seconds = elapsedNanos / 1e9;
+        out.println(String.format("%-10s sent=%d completed=%d throughput=%.1f/s error=%.2f%% timeout=%d fallback=%.2f%%",
+                name, sent.get(), total, seconds > 0 ? total / seconds : 0D, rate(errors.get(), total), timeouts.get(),
+                rate(fallbacks.get(), total)));
+        out.println(String.format("%-10s p50=%.1fms p90=%.1fms p99=%.1fms p99.9=%.1fms max=%.1fms",
+                "", ms(50), ms(90), ms(99), ms(99.9), histogram.getMaxValue() / 1000D));
+    }
+
+    /**
+     * 输出HdrHistogram百分位分布[单位ms]，可用HistogramLogAnalyzer等工具作图
+     */
+    public void printDistribution(PrintStream out) {
+        histogram.outputPercentileDistribution(out, 1000D);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    private double ms(double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1000D;
+    }
+
+    private static double rate(long count, long total) {
+        return total == 0 ? 0D : count * 100D / total;
+    }
+}
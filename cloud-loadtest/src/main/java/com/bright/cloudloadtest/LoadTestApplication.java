@@ -0,0 +1,111 @@
+package com.bright.cloudloadtest;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * zuul -> consumer -> provider全链路压测
+ * 先在本机依次启动eureka/provider/consumer/zuul，再按配置的RPS逐个节点压测，
+ * 输出各节点的延迟百分位、错误率和熔断降级率
+ *
+ * 用法：mvn package -DskipTests 后执行
+ * java -Dloadtest.rps=200 -Dloadtest.duration-seconds=60 -jar cloud-loadtest/target/cloud-loadtest-0.0.1-SNAPSHOT.jar
+ * -Dloadtest.mode=startup时只测量各服务的启动耗时和内存，见StartupBenchmark
+ */
+public class LoadTestApplication {
+    private static final Logger logger = LoggerFactory.getLogger(LoadTestApplication.class);
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = new LoadTestConfig();
+        if ("startup".equals(System.getProperty("loadtest.mode"))) {
+            new StartupBenchmark(config).run();
+            return;
+        }
+        final List<ServiceProcess> services = new ArrayList<ServiceProcess>();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> stopAll(services)));
+
+        List<HopResult> results = new ArrayList<HopResult>();
+        try {
+            if (config.isBoot()) {
+                bootCluster(config, services);
+            }
+            try (OpenLoadGenerator generator = new OpenLoadGenerator(config)) {
+                for (Hop hop : config.hops()) {
+                    logger.info("warming up {} for {}s at {} rps", hop.getName(), config.getWarmupSeconds(), config.getRps());
+                    generator.run(hop, config.getWarmupSeconds());
+                    logger.info("measuring {} for {}s at {} rps", hop.getName(), config.getDurationSeconds(), config.getRps());
+                    results.add(generator.run(hop, config.getDurationSeconds()));
+                }
+            }
+        } finally {
+            stopAll(services);
+        }
+        report(config, results);
+    }
+
+    /**
+     * 按依赖顺序启动四个服务，每个服务第一次请求成功后再启动下一个
+     */
+    static void bootCluster(LoadTestConfig config, List<ServiceProcess> services) throws Exception {
+        String eureka = "--eureka.client.serviceUrl.defaultZone=" + config.eurekaUrl();
+        File logDir = config.getOutputDir();
+        int timeout = config.getStartupTimeoutSeconds();
+
+        ServiceProcess eurekaServer = service(config, "cloud-eureka", "--server.port=" + config.getEurekaPort());
+        services.add(eurekaServer.start(logDir));
+        eurekaServer.awaitReady(config.url(config.getEurekaPort(), "/"), timeout);
+
+        ServiceProcess provider = service(config, "cloud-provider", "--server.port=" + config.getProviderPort(), eureka);
+        services.add(provider.start(logDir));
+        provider.awaitReady(config.url(config.getProviderPort(), "/info"), timeout);
+
+        List<String> consumerArgs = new ArrayList<String>();
+        consumerArgs.add("--server.port=" + config.getConsumerPort());
+        consumerArgs.add(eureka);
+        consumerArgs.addAll(config.consumerArgs());
+        ServiceProcess consumer = service(config, "cloud-consumer", consumerArgs.toArray(new String[0]));
+        services.add(consumer.start(logDir));
+        consumer.awaitReady(config.url(config.getConsumerPort(), "/consumerInfo"), timeout);
+
+        ServiceProcess zuul = service(config, "cloud-zuul", "--server.port=" + config.getZuulPort(), eureka);
+        services.add(zuul.start(logDir));
+        zuul.awaitReady(config.url(config.getZuulPort(), "/api/info?username=bright"), timeout);
+    }
+
+    /**
+     * 附加loadtest.jvm-args和loadtest.app-args
+     */
+    private static ServiceProcess service(LoadTestConfig config, String module, String... args) {
+        List<String> all = new ArrayList<String>();
+        Collections.addAll(all, args);
+        all.addAll(config.appArgs());
+        return new ServiceProcess(module, config.getJavaCommand(), config.jvmArgs(module), config.jar(module),
+                all.toArray(new String[0]));
+    }
+
+    static synchronized void stopAll(List<ServiceProcess> services) {
+        for (int i = services.size() - 1; i >= 0; i--) {
+            services.get(i).stop();
+        }
+        services.clear();
+    }
+
+    private static void report(LoadTestConfig config, List<HopResult> results) throws FileNotFoundException {
+        System.out.println();
+        System.out.println(String.format("open-model load test: %d rps, %ds per hop", config.getRps(), config.getDurationSeconds()));
+        for (HopResult result : results) {
+            result.print(System.out);
+            config.getOutputDir().mkdirs();
+            try (PrintStream out = new PrintStream(new File(config.getOutputDir(), result.getName() + ".hgrm"))) {
+                result.printDistribution(out);
+            }
+        }
+    }
+}
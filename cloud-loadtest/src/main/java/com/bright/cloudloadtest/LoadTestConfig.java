@@ -0,0 +1,203 @@
+package com.bright.cloudloadtest;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 压测参数，全部通过-D系统属性传入
+ */
+public class LoadTestConfig {
+
+    /**
+     * 是否由压测程序在本机启动四个服务[false时压测已部署的服务]
+     */
+    private final boolean boot = Boolean.parseBoolean(System.getProperty("loadtest.boot", "true"));
+
+    /**
+     * bright_cloud根目录，用于查找各模块target下的可执行jar
+     */
+    private final File projectDir = new File(System.getProperty("loadtest.project-dir", "."));
+
+    private final String javaCommand = System.getProperty("loadtest.java",
+            System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+
+    private final String host = System.getProperty("loadtest.host", "localhost");
+
+    private final int eurekaPort = Integer.getInteger("loadtest.eureka.port", 8070);
+
+    private final int zuulPort = Integer.getInteger("loadtest.zuul.port", 8071);
+
+    private final int providerPort = Integer.getInteger("loadtest.provider.port", 8080);
+
+    private final int consumerPort = Integer.getInteger("loadtest.consumer.port", 8081);
+
+    /**
+     * 追加给cloud-consumer的启动参数，例如--redis.manager.host=127.0.0.1
+     */
+    private final String consumerArgs = System.getProperty("loadtest.consumer.args", "");
+
+    /**
+     * 追加给四个服务的JVM参数，例如-XX:TieredStopAtLevel=1 -Xss512k
+     */
+    private final String jvmArgs = System.getProperty("loadtest.jvm-args", "");
+
+    /**
+     * 追加给四个服务的启动参数，例如--spring.profiles.active=fast-startup
+     */
+    private final String appArgs = System.getProperty("loadtest.app-args", "");
+
+    /**
+     * 使用mvn package -Pcds生成的AppCDS归档启动[JDK 10+]，此时启动普通jar而不是可执行jar
+     */
+    private final boolean cds = Boolean.getBoolean("loadtest.cds");
+
+    /**
+     * 启动耗时测试[loadtest.mode=startup]的重复次数
+     */
+    private final int startupRuns = Integer.getInteger("loadtest.startup-runs", 5);
+
+    /**
+     * 开放模型下的目标请求速率，与响应快慢无关
+     */
+    private final int rps = Integer.getInteger("loadtest.rps", 100);
+
+    private final int warmupSeconds = Integer.getInteger("loadtest.warmup-seconds", 10);
+
+    private final int durationSeconds = Integer.getInteger("loadtest.duration-seconds", 60);
+
+    private final int startupTimeoutSeconds = Integer.getInteger("loadtest.startup-timeout-seconds", 180);
+
+    private final int maxConnections = Integer.getInteger("loadtest.max-connections", 2000);
+
+    /**
+     * 依次压测的链路节点：gateway、consumer、provider
+     */
+    private final String targets = System.getProperty("loadtest.targets", "gateway,consumer,provider");
+
+    /**
+     * 响应带有该响应头[值为true]时认为走了熔断降级
+     * consumer降级时优先返回最后一次成功的结果，响应体和正常结果相同，只能靠响应头区分
+     */
+    private final String fallbackHeader = System.getProperty("loadtest.fallback-header", "X-Fallback");
+
+    private final File outputDir = new File(System.getProperty("loadtest.output-dir", "target/loadtest"));
+
+    public List<Hop> hops() {
+        List<Hop> hops = new ArrayList<Hop>();
+        for (String target : targets.split(",")) {
+            String name = target.trim();
+            if ("gateway".equals(name)) {
+                hops.add(new Hop(name, url(zuulPort, "/api/info?username=bright")));
+            } else if ("consumer".equals(name)) {
+                hops.add(new Hop(name, url(consumerPort, "/consumerInfo")));
+            } else if ("provider".equals(name)) {
+                hops.add(new Hop(name, url(providerPort, "/info")));
+            } else if (!name.isEmpty()) {
+                throw new IllegalArgumentException("unknown loadtest target: " + name);
+            }
+        }
+        return hops;
+    }
+
+    public String url(int port, String path) {
+        return "http://" + host + ":" + port + path;
+    }
+
+    public File jar(String module) {
+        if (cds) {
+            //归档记录了生成时jar的绝对路径，需以相同的路径启动
+            File dir = projectDir.getAbsoluteFile().toPath().normalize().toFile();
+            return new File(dir, module + "/target/" + module + "-0.0.1-SNAPSHOT.jar");
+        }
+        return new File(projectDir, module + "/target/" + module + "-0.0.1-SNAPSHOT-exec.jar");
+    }
+
+    public List<String> jvmArgs(String module) {
+        List<String> args = new ArrayList<String>(split(jvmArgs));
+        if (cds) {
+            args.add("-XX:+UseAppCDS");
+            args.add("-XX:SharedArchiveFile=" + new File(projectDir, module + "/target/app.jsa").getAbsolutePath());
+        }
+        return args;
+    }
+
+    public List<String> appArgs() {
+        return split(appArgs);
+    }
+
+    public List<String> consumerArgs() {
+        return split(consumerArgs);
+    }
+
+    public String eurekaUrl() {
+        return url(eurekaPort, "/eureka/");
+    }
+
+    public boolean isBoot() {
+        return boot;
+    }
+
+    public String getJavaCommand() {
+        return javaCommand;
+    }
+
+    public int getEurekaPort() {
+        return eurekaPort;
+    }
+
+    public int getZuulPort() {
+        return zuulPort;
+    }
+
+    public int getProviderPort() {
+        return providerPort;
+    }
+
+    public int getConsumerPort() {
+        return consumerPort;
+    }
+
+    public int getStartupRuns() {
+        return startupRuns;
+    }
+
+    public int getRps() {
+        return rps;
+    }
+
+    public int getWarmupSeconds() {
+        return warmupSeconds;
+    }
+
+    public int getDurationSeconds() {
+        return durationSeconds;
+    }
+
+    public int getStartupTimeoutSeconds() {
+        return startupTimeoutSeconds;
+    }
+
+    public int getMaxConnections() {
+        return maxConnections;
+    }
+
+    public String getFallbackHeader() {
+        return fallbackHeader;
+    }
+
+    public File getOutputDir() {
+        return outputDir;
+    }
+
+    private static List<String> split(String args) {
+        List<String> list = new ArrayList<String>();
+        for (String arg : Arrays.asList(args.trim().split("\\s+"))) {
+            if (!arg.isEmpty()) {
+                list.add(arg);
+            }
+        }
+        return list;
+    }
+}
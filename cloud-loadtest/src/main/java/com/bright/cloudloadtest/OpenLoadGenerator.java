@@ -0,0 +1,121 @@
+package com.bright.cloudloadtest;
+
+import org.apache.http.Header;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.client.HttpAsyncClients;
+import org.apache.http.util.EntityUtils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 开放模型压测：按固定速率发出请求，不等待前一个请求返回
+ * 每个请求都带着自己的计划发出时间，发送线程落后时延迟仍从计划时间算起；
+ * 全部发出后最多等待DRAIN_MINUTES，仍未返回的请求按超时计入[延迟记到等待结束时]，之后返回的结果不再记录
+ */
+public class OpenLoadGenerator implements Closeable {
+
+    private static final long DRAIN_MINUTES = 2;
+
+    private final LoadTestConfig config;
+
+    private final CloseableHttpAsyncClient client;
+
+    public OpenLoadGenerator(LoadTestConfig config) {
+        this.config = config;
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout(5000)
+                .setSocketTimeout(60000)
+                .build();
+        this.client = HttpAsyncClients.custom()
+                .setDefaultRequestConfig(requestConfig)
+                .setMaxConnTotal(config.getMaxConnections())
+                .setMaxConnPerRoute(config.getMaxConnections())
+                .build();
+        this.client.start();
+    }
+
+    public HopResult run(Hop hop, int seconds) throws InterruptedException {
+        final HopResult result = new HopResult(hop.getName());
+        final int total = config.getRps() * seconds;
+        final long intervalNanos = TimeUnit.SECONDS.toNanos(1) / config.getRps();
+        final CountDownLatch done = new CountDownLatch(total);
+        //每个请求只记录一次：1表示已经返回或已按超时计入
+        final AtomicIntegerArray settled = new AtomicIntegerArray(total);
+        final String fallbackHeader = config.getFallbackHeader();
+
+        long start = System.nanoTime();
+        for (int i = 0; i < total; i++) {
+            final int index = i;
+            final long intended = start + i * intervalNanos;
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            result.sent();
+            client.execute(new HttpGet(hop.getUrl()), new FutureCallback<HttpResponse>() {
+                @Override
+                public void completed(HttpResponse response) {
+                    if (!settled.compareAndSet(index, 0, 1)) {
+                        return;
+                    }
+                    try {
+                        int status = response.getStatusLine().getStatusCode();
+                        EntityUtils.consume(response.getEntity());
+                        if (status >= 200 && status < 400) {
+                            Header fallback = response.getFirstHeader(fallbackHeader);
+                            result.success(intended, System.nanoTime(), fallback != null && "true".equals(fallback.getValue()));
+                        } else {
+                            result.error(intended, System.nanoTime());
+                        }
+                    } catch (IOException e) {
+                        result.error(intended, System.nanoTime());
+                    } finally {
+                        done.countDown();
+                    }
+                }
+
+                @Override
+                public void failed(Exception ex) {
+                    if (!settled.compareAndSet(index, 0, 1)) {
+                        return;
+                    }
+                    result.error(intended, System.nanoTime());
+                    done.countDown();
+                }
+
+                @Override
+                public void cancelled() {
+                    if (!settled.compareAndSet(index, 0, 1)) {
+                        return;
+                    }
+                    result.error(intended, System.nanoTime());
+                    done.countDown();
+                }
+            });
+        }
+        if (!done.await(DRAIN_MINUTES, TimeUnit.MINUTES)) {
+            long now = System.nanoTime();
+            for (int i = 0; i < total; i++) {
+                if (settled.compareAndSet(i, 0, 1)) {
+                    result.timeout(start + i * intervalNanos, now);
+                }
+            }
+        }
+        result.finish(System.nanoTime() - start);
+        return result;
+    }
+
+    @Override
+    public void close() throws IOException {
+        client.close();
+    }
+}
@@ -0,0 +1,176 @@
+package com.bright.cloudloadtest;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 以独立JVM进程启动的一个服务，日志输出到target/loadtest/{name}.log
+ */
+public class ServiceProcess {
+    private static final Logger logger = LoggerFactory.getLogger(ServiceProcess.class);
+
+    private final String name;
+
+    private final List<String> command = new ArrayList<String>();
+
+    private Process process;
+
+    private long startNanos;
+
+    private long readyMillis = -1;
+
+    public ServiceProcess(String name, String javaCommand, File jar, String... args) {
+        this(name, javaCommand, new ArrayList<String>(), jar, args);
+    }
+
+    /**
+     * @param jvmArgs 放在-jar之前的JVM参数，例如-XX:SharedArchiveFile=...
+     */
+    public ServiceProcess(String name, String javaCommand, List<String> jvmArgs, File jar, String... args) {
+        this.name = name;
+        command.add(javaCommand);
+        addAll(jvmArgs.toArray(new String[0]));
+        command.add("-jar");
+        command.add(jar.getAbsolutePath());
+        addAll(args);
+    }
+
+    public ServiceProcess start(File logDir) throws IOException {
+        logDir.mkdirs();
+        File log = new File(logDir, name + ".log");
+        logger.info("starting {}: {}", name, command);
+        startNanos = System.nanoTime();
+        process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log)
+                .start();
+        return this;
+    }
+
+    /**
+     * 轮询url直到返回2xx
+     *
+     * @return 从启动进程到第一次请求成功的耗时[ms]
+     */
+    public long awaitReady(String url, int timeoutSeconds) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(timeoutSeconds);
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException(name + " exited with code " + process.exitValue());
+            }
+            if (isOk(url)) {
+                readyMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+                logger.info("{} ready in {}ms ({})", name, readyMillis, url);
+                return readyMillis;
+            }
+            Thread.sleep(200);
+        }
+        throw new IllegalStateException(name + " not ready after " + timeoutSeconds + "s: " + url);
+    }
+
+    public void stop() {
+        if (process == null) {
+            return;
+        }
+        process.destroy();
+        try {
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            process.destroyForcibly();
+        }
+    }
+
+    /**
+     * 进程的常驻内存[VmRSS]，只支持Linux
+     *
+     * @return 单位KB，无法读取时返回-1
+     */
+    public long rssKb() {
+        long pid = pid();
+        File status = new File("/proc/" + pid + "/status");
+        if (pid < 0 || !status.isFile()) {
+            return -1;
+        }
+        try (BufferedReader reader = new BufferedReader(new FileReader(status))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.substring("VmRSS:".length()).replace("kB", "").trim());
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            logger.warn("failed to read rss of {}: {}", name, e.toString());
+        }
+        return -1;
+    }
+
+    /**
+     * JDK 9+通过Process.pid()获取，JDK 8读取UNIXProcess的pid字段
+     */
+    private long pid() {
+        try {
+            Method pid = Process.class.getMethod("pid");
+            return (Long) pid.invoke(process);
+        } catch (ReflectiveOperationException e) {
+            try {
+                Field pid = process.getClass().getDeclaredField("pid");
+                pid.setAccessible(true);
+                return pid.getInt(process);
+            } catch (ReflectiveOperationException | RuntimeException ex) {
+                return -1;
+            }
+        }
+    }
+
+    public long getReadyMillis() {
+        return readyMillis;
+    }
+
+    public Process getProcess() {
+        return process;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    private void addAll(String... args) {
+        for (String arg : args) {
+            if (arg != null && !arg.trim().isEmpty()) {
+                command.add(arg.trim());
+            }
+        }
+    }
+
+    private static boolean isOk(String url) {
+        HttpURLConnection conn = null;
+        try {
+            conn = (HttpURLConnection) new URL(url).openConnection();
+            conn.setConnectTimeout(1000);
+            conn.setReadTimeout(10000);
+            int status = conn.getResponseCode();
+            return status >= 200 && status < 300;
+        } catch (IOException e) {
+            return false;
+        } finally {
+            if (conn != null) {
+                conn.disconnect();
+            }
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.bright.cloudloadtest;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 启动耗时测试
+ * 重复loadtest.startup-runs次启动四个服务，记录每个服务从启动进程到第一次请求成功的耗时，
+ * 以及四个服务都就绪后各进程的常驻内存[RSS]，输出中位数与最大值
+ *
+ * 对比启动优化时改变loadtest.jvm-args、loadtest.app-args和loadtest.cds，例如：
+ * java -Dloadtest.mode=startup -Dloadtest.cds=true -Dloadtest.app-args=--spring.profiles.active=fast-startup \
+ *      -jar cloud-loadtest/target/cloud-loadtest-0.0.1-SNAPSHOT.jar
+ */
+public class StartupBenchmark {
+    private static final Logger logger = LoggerFactory.getLogger(StartupBenchmark.class);
+
+    private final LoadTestConfig config;
+
+    /**
+     * 服务名 -> 每次启动的耗时[ms]
+     */
+    private final Map<String, List<Long>> readyMillis = new LinkedHashMap<String, List<Long>>();
+
+    /**
+     * 服务名 -> 每次启动后的RSS[KB]
+     */
+    private final Map<String, List<Long>> rssKb = new LinkedHashMap<String, List<Long>>();
+
+    public StartupBenchmark(LoadTestConfig config) {
+        this.config = config;
+    }
+
+    public void run() throws Exception {
+        final List<ServiceProcess> services = new ArrayList<ServiceProcess>();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> LoadTestApplication.stopAll(services)));
+        for (int i = 1; i <= config.getStartupRuns(); i++) {
+            logger.info("startup run {}/{}", i, config.getStartupRuns());
+            try {
+                LoadTestApplication.bootCluster(config, services);
+                for (ServiceProcess service : services) {
+                    add(readyMillis, service.getName(), service.getReadyMillis());
+                    add(rssKb, service.getName(), service.rssKb());
+                }
+            } finally {
+                LoadTestApplication.stopAll(services);
+            }
+        }
+        report();
+    }
+
+    private void report() {
+        System.out.println();
+        System.out.println(String.format("startup: %d runs, jvm-args=%s, app-args=%s, cds=%s", config.getStartupRuns(),
+                System.getProperty("loadtest.jvm-args", ""), System.getProperty("loadtest.app-args", ""),
+                Boolean.getBoolean("loadtest.cds")));
+        System.out.println(String.format("%-16s %12s %12s %12s %12s", "service", "ready p50", "ready max", "rss p50", "rss max"));
+        for (String name : readyMillis.keySet()) {
+            List<Long> ready = readyMillis.get(name);
+            List<Long> rss = rssKb.get(name);
+            System.out.println(String.format("%-16s %10dms %10dms %10dMB %10dMB", name,
+                    median(ready), max(ready), median(rss) / 1024, max(rss) / 1024));
+        }
+    }
+
+    private static void add(Map<String, List<Long>> values, String name, long value) {
+        values.computeIfAbsent(name, k -> new ArrayList<Long>()).add(value);
+    }
+
+    private static long median(List<Long> values) {
+        List<Long> sorted = new ArrayList<Long>(values);
+        Collections.sort(sorted);
+        return sorted.get(sorted.size() / 2);
+    }
+
+    private static long max(List<Long> values) {
+        return Collections.max(values);
+    }
+}
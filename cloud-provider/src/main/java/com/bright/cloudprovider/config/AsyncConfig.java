@@ -0,0 +1,24 @@
+package com.bright.cloudprovider.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * 异步接口使用的定时器
+ * 接口返回DeferredResult，由定时器在到期后设置结果，等待期间不占用Tomcat工作线程
+ */
+@Configuration
+public class AsyncConfig {
+
+    @Bean(destroyMethod = "shutdownNow")
+    public ScheduledExecutorService delayScheduler() {
+        return Executors.newScheduledThreadPool(Runtime.getRuntime().availableProcessors(), r -> {
+            Thread t = new Thread(r, "provider-delay");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+}
@@ -0,0 +1,35 @@
+package com.bright.cloudprovider.config;
+
+import com.bright.cloudprovider.shedding.QueueTimingExecutor;
+import org.apache.catalina.Lifecycle;
+import org.apache.coyote.AbstractProtocol;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Tomcat工作线程池替换为QueueTimingExecutor，线程数仍按server.tomcat.*配置，用于按排队时间做过载保护
+ */
+@Configuration
+public class TomcatExecutorConfig {
+
+    @Bean
+    public WebServerFactoryCustomizer<TomcatServletWebServerFactory> queueTimingExecutorCustomizer(ServerProperties serverProperties) {
+        return factory -> factory.addConnectorCustomizers(connector -> {
+            if (!(connector.getProtocolHandler() instanceof AbstractProtocol)) {
+                return;
+            }
+            ServerProperties.Tomcat tomcat = serverProperties.getTomcat();
+            QueueTimingExecutor executor = new QueueTimingExecutor("http-nio-exec-", tomcat.getMinSpareThreads(), tomcat.getMaxThreads());
+            ((AbstractProtocol<?>) connector.getProtocolHandler()).setExecutor(executor);
+            //外部设置的线程池Tomcat不会关闭
+            connector.addLifecycleListener(event -> {
+                if (Lifecycle.AFTER_STOP_EVENT.equals(event.getType())) {
+                    executor.shutdown();
+                }
+            });
+        });
+    }
+}
@@ -1,20 +1,119 @@
 package com.bright.cloudprovider.controller;
 
+import com.bright.cloudprovider.deadline.Deadline;
+import com.bright.cloudprovider.service.InfoService;
+import com.bright.cloudprovider.utils.ETags;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @RestController
 public class MyController {
 
+    /**
+     * 内容不变，ETag只计算一次
+     */
+    private static final String INFO_ETAG = ETags.of(InfoService.INFO);
+
+    /**
+     * 批量查询一次最多的key数
+     */
+    private static final int MAX_BATCH = 500;
+
+    @Autowired
+    private ScheduledExecutorService delayScheduler;
+
+    @Autowired
+    private InfoService infoService;
+
+    /**
+     * 请求带有匹配的If-None-Match时返回304，不返回内容
+     */
     @RequestMapping(value = "/info", method = RequestMethod.GET)
-    public String info() {
+    public DeferredResult<ResponseEntity<String>> info(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        DeferredResult<ResponseEntity<String>> result = new DeferredResult<ResponseEntity<String>>();
+        if (Deadline.remainingMillis() < InfoService.DELAY_MILLIS) {
+            //调用方剩余的时间不够完成处理，直接放弃
+            result.setResult(ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).build());
+            return result;
+        }
+        //延迟2秒返回，测试超时服务熔断[直接关闭服务提供者亦可]；等待期间不占用Tomcat工作线程
+        delayScheduler.schedule(() -> result.setResult(info(ifNoneMatch, InfoService.INFO, INFO_ETAG)),
+                InfoService.DELAY_MILLIS, TimeUnit.MILLISECONDS);
+        return result;
+    }
+
+    /**
+     * 批量查询，各项并发处理，按完成的先后顺序以分块的方式写出JSON数组[每项带key]
+     */
+    @RequestMapping(value = "/info/batch", method = RequestMethod.POST)
+    public ResponseEntity<ResponseBodyEmitter> infoBatch(@RequestBody List<String> keys) {
+        if (keys.size() > MAX_BATCH) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (Deadline.remainingMillis() < InfoService.DELAY_MILLIS) {
+            return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).build();
+        }
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter();
+        AtomicInteger remaining = new AtomicInteger(keys.size());
+        AtomicBoolean first = new AtomicBoolean(true);
+        send(emitter, "[");
+        if (keys.isEmpty()) {
+            send(emitter, "]");
+            emitter.complete();
+        }
+        for (String key : keys) {
+            infoService.info(key).whenComplete((item, error) -> {
+                if (error != null) {
+                    emitter.completeWithError(error);
+                    return;
+                }
+                synchronized (emitter) {
+                    if (!first.compareAndSet(true, false)) {
+                        send(emitter, ",");
+                    }
+                    send(emitter, item);
+                    if (remaining.decrementAndGet() == 0) {
+                        send(emitter, "]");
+                        emitter.complete();
+                    }
+                }
+            });
+        }
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON_UTF8).body(emitter);
+    }
+
+    /**
+     * 调用方断开时结束本次响应，之后的写出都会失败并被忽略
+     */
+    private void send(ResponseBodyEmitter emitter, Object data) {
         try {
-            //休眠2秒，测试超时服务熔断[直接关闭服务提供者亦可]
-            Thread.sleep(2000);
-        } catch (InterruptedException e) {
-            e.printStackTrace();
+            emitter.send(data, MediaType.APPLICATION_JSON_UTF8);
+        } catch (IOException | IllegalStateException e) {
+            emitter.completeWithError(e);
+        }
+    }
+
+    private ResponseEntity<String> info(String ifNoneMatch, String body, String etag) {
+        if (ETags.matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
         }
-        return "Hello, cloud-provider";
+        return ResponseEntity.ok().eTag(etag).body(body);
     }
 }
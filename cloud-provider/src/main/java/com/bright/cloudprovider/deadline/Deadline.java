@@ -0,0 +1,35 @@
+package com.bright.cloudprovider.deadline;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 当前请求的截止时间，由请求头X-Deadline-Ms[剩余时间预算，ms]换算得到
+ */
+public final class Deadline {
+
+    public static final String HEADER = "X-Deadline-Ms";
+
+    private static final ThreadLocal<Long> DEADLINE = new ThreadLocal<Long>();
+
+    private Deadline() {
+    }
+
+    /**
+     * @param deadlineNanos 截止时间[System.nanoTime()]
+     */
+    static void set(long deadlineNanos) {
+        DEADLINE.set(deadlineNanos);
+    }
+
+    static void clear() {
+        DEADLINE.remove();
+    }
+
+    /**
+     * @return 剩余时间[ms]，没有截止时间时返回Long.MAX_VALUE
+     */
+    public static long remainingMillis() {
+        Long deadline = DEADLINE.get();
+        return deadline == null ? Long.MAX_VALUE : TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+    }
+}
@@ -0,0 +1,55 @@
+package com.bright.cloudprovider.deadline;
+
+import com.bright.cloudprovider.shedding.QueueTimingExecutor;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 读取请求头中的时间预算，扣除在Tomcat队列中等待的时间，已经用完的请求直接返回504，不再处理
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class DeadlineFilter extends OncePerRequestFilter {
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Long budget = parse(request.getHeader(Deadline.HEADER));
+        if (budget == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        long queueDelay = Math.max(0L, QueueTimingExecutor.currentQueueDelayNanos());
+        long deadline = System.nanoTime() - queueDelay + TimeUnit.MILLISECONDS.toNanos(budget);
+        if (deadline - System.nanoTime() <= 0) {
+            response.setStatus(HttpServletResponse.SC_GATEWAY_TIMEOUT);
+            return;
+        }
+        Deadline.set(deadline);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            Deadline.clear();
+        }
+    }
+
+    private Long parse(String header) {
+        if (header == null || header.isEmpty()) {
+            return null;
+        }
+        try {
+            return Long.valueOf(header.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
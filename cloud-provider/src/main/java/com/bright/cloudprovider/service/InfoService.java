@@ -0,0 +1,32 @@
+package com.bright.cloudprovider.service;
+
+import com.bright.cloudprovider.dto.InfoItem;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+@Service
+public class InfoService {
+
+    public static final String INFO = "Hello, cloud-provider";
+
+    /**
+     * 模拟查询耗时[ms]，测试超时服务熔断
+     */
+    public static final long DELAY_MILLIS = 2000;
+
+    @Autowired
+    private ScheduledExecutorService delayScheduler;
+
+    /**
+     * 异步查询单项，到期后由定时器完成，不占用调用线程
+     */
+    public CompletableFuture<InfoItem> info(String key) {
+        CompletableFuture<InfoItem> result = new CompletableFuture<InfoItem>();
+        delayScheduler.schedule(() -> result.complete(new InfoItem(key, INFO + ": " + key)), DELAY_MILLIS, TimeUnit.MILLISECONDS);
+        return result;
+    }
+}
@@ -0,0 +1,81 @@
+package com.bright.cloudprovider.shedding;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 按排队时间做过载保护[CoDel]
+ * 每个统计周期结束时，如果周期内最小的排队时间超过target，说明队列一直没有排空，进入过载状态；
+ * 过载时排队超过target的请求、未过载时排队超过interval的请求直接返回503，不再处理。
+ * 这些请求在调用方往往已经超时，处理也是浪费；503由调用方的熔断按失败处理
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class LoadSheddingFilter extends OncePerRequestFilter {
+    private static final Logger logger = LoggerFactory.getLogger(LoadSheddingFilter.class);
+
+    @Autowired
+    private LoadSheddingProperties properties;
+
+    private final AtomicLong shed = new AtomicLong();
+
+    private long intervalEnd = System.nanoTime();
+
+    private long minDelay = Long.MAX_VALUE;
+
+    private volatile boolean overloaded;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long delay = QueueTimingExecutor.currentQueueDelayNanos();
+        if (!properties.isEnabled() || delay < 0 || !shouldShed(delay)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        shed.incrementAndGet();
+        response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        response.setHeader("Retry-After", "1");
+    }
+
+    public boolean isOverloaded() {
+        return overloaded;
+    }
+
+    public long getShedCount() {
+        return shed.get();
+    }
+
+    private boolean shouldShed(long delay) {
+        long target = TimeUnit.MILLISECONDS.toNanos(properties.getTargetMillis());
+        long interval = TimeUnit.MILLISECONDS.toNanos(properties.getIntervalMillis());
+        long now = System.nanoTime();
+        synchronized (this) {
+            if (now - intervalEnd >= 0) {
+                boolean wasOverloaded = overloaded;
+                overloaded = minDelay != Long.MAX_VALUE && minDelay > target;
+                if (overloaded != wasOverloaded) {
+                    logger.warn("load shedding {}, min queue delay:{}ms shed:{}", overloaded ? "started" : "stopped",
+                            TimeUnit.NANOSECONDS.toMillis(minDelay), shed.get());
+                }
+                minDelay = Long.MAX_VALUE;
+                intervalEnd = now + interval;
+            }
+            minDelay = Math.min(minDelay, delay);
+        }
+        return delay > (overloaded ? target : interval);
+    }
+}
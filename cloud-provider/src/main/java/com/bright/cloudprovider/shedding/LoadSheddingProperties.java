@@ -0,0 +1,48 @@
+package com.bright.cloudprovider.shedding;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 过载保护配置[CoDel]
+ */
+@ConfigurationProperties(prefix = "load-shedding")
+@Component
+public class LoadSheddingProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * 目标排队时间[ms]，一个统计周期内最小排队时间都超过该值时认为过载，过载期间排队超过该值的请求直接返回503
+     */
+    private long targetMillis = 50;
+
+    /**
+     * 统计周期[ms]，同时也是未过载时允许的最长排队时间
+     */
+    private long intervalMillis = 500;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getTargetMillis() {
+        return targetMillis;
+    }
+
+    public void setTargetMillis(long targetMillis) {
+        this.targetMillis = targetMillis;
+    }
+
+    public long getIntervalMillis() {
+        return intervalMillis;
+    }
+
+    public void setIntervalMillis(long intervalMillis) {
+        this.intervalMillis = intervalMillis;
+    }
+}
@@ -0,0 +1,67 @@
+package com.bright.cloudprovider.shedding;
+
+import org.apache.tomcat.util.threads.TaskQueue;
+import org.apache.tomcat.util.threads.TaskThreadFactory;
+import org.apache.tomcat.util.threads.ThreadPoolExecutor;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 记录排队时间的Tomcat工作线程池
+ * 任务提交时记下时间，开始执行时把在队列中等待的时间放入当前线程，请求处理期间可以读取
+ */
+public class QueueTimingExecutor extends ThreadPoolExecutor {
+
+    private static final ThreadLocal<Long> QUEUE_DELAY = new ThreadLocal<Long>();
+
+    public QueueTimingExecutor(String namePrefix, int minThreads, int maxThreads) {
+        this(namePrefix, minThreads, maxThreads, new TaskQueue());
+    }
+
+    private QueueTimingExecutor(String namePrefix, int minThreads, int maxThreads, TaskQueue queue) {
+        //与Tomcat内置线程池[AbstractEndpoint.createExecutor]一致
+        super(minThreads, maxThreads, 60, TimeUnit.SECONDS, queue, new TaskThreadFactory(namePrefix, true, Thread.NORM_PRIORITY));
+        queue.setParent(this);
+    }
+
+    /**
+     * @return 当前请求在线程池队列中等待的时间[ns]，不在工作线程中时返回-1
+     */
+    public static long currentQueueDelayNanos() {
+        Long delay = QUEUE_DELAY.get();
+        return delay == null ? -1 : delay;
+    }
+
+    @Override
+    public void execute(Runnable command, long timeout, TimeUnit unit) {
+        super.execute(new TimedTask(command), timeout, unit);
+    }
+
+    @Override
+    protected void beforeExecute(Thread t, Runnable r) {
+        super.beforeExecute(t, r);
+        if (r instanceof TimedTask) {
+            QUEUE_DELAY.set(System.nanoTime() - ((TimedTask) r).submitted);
+        }
+    }
+
+    @Override
+    protected void afterExecute(Runnable r, Throwable t) {
+        QUEUE_DELAY.remove();
+        super.afterExecute(r, t);
+    }
+
+    private static final class TimedTask implements Runnable {
+        final Runnable task;
+        final long submitted = System.nanoTime();
+
+        TimedTask(Runnable task) {
+            this.task = task;
+        }
+
+        @Override
+        public void run() {
+            task.run();
+        }
+    }
+}
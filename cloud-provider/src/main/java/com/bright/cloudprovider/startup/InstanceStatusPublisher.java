@@ -0,0 +1,33 @@
+package com.bright.cloudprovider.startup;
+
+import com.netflix.appinfo.ApplicationInfoManager;
+import com.netflix.appinfo.InstanceInfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * 延迟Eureka注册
+ * 实例以eureka.instance.initial-status=STARTING注册，Ribbon只选择UP的实例；
+ * 应用启动完成后再改为UP，状态变化会立即同步到Eureka Server；
+ * 不预热：接口的耗时由固定的模拟延迟决定，预热只会推迟UP，编译不到多少代码
+ */
+@Component
+public class InstanceStatusPublisher implements ApplicationListener<ApplicationReadyEvent> {
+    private static final Logger logger = LoggerFactory.getLogger(InstanceStatusPublisher.class);
+
+    @Autowired(required = false)
+    private ApplicationInfoManager applicationInfoManager;
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        if (applicationInfoManager == null) {
+            return;
+        }
+        applicationInfoManager.setInstanceStatus(InstanceInfo.InstanceStatus.UP);
+        logger.info("instance status UP");
+    }
+}
@@ -0,0 +1,42 @@
+package com.bright.cloudprovider.utils;
+
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * ETag计算与If-None-Match匹配
+ */
+public final class ETags {
+
+    private ETags() {
+    }
+
+    /**
+     * 按内容计算强校验ETag，内容不变时ETag不变[与实例无关]
+     */
+    public static String of(String body) {
+        return "\"" + DigestUtils.md5DigestAsHex(body.getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    /**
+     * @param ifNoneMatch 请求头If-None-Match，可以是逗号分隔的多个ETag或*
+     * @param etag        当前内容的ETag
+     * @return 匹配时应返回304
+     */
+    public static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isEmpty()) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            candidate = candidate.trim();
+            if (candidate.startsWith("W/")) {
+                candidate = candidate.substring(2);
+            }
+            if ("*".equals(candidate) || etag.equals(candidate)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
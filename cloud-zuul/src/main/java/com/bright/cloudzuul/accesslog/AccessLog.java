@@ -0,0 +1,72 @@
+package com.bright.cloudzuul.accesslog;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+
+/**
+ * 网关访问日志
+ * 请求线程只把定长记录写入环形缓冲区，格式化与文件写入由后台线程完成，请求线程不会因为日志阻塞；
+ * 缓冲区写满时丢弃记录，丢弃数见指标access.log.dropped
+ */
+@Component
+public class AccessLog {
+
+    @Autowired
+    private AccessLogProperties properties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private AccessLogRingBuffer buffer;
+
+    private AccessLogWriter writer;
+
+    private Thread writerThread;
+
+    private CoarseClock clock;
+
+    @PostConstruct
+    public void start() throws IOException {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        clock = new CoarseClock();
+        buffer = new AccessLogRingBuffer(properties.getBufferSize());
+        writer = new AccessLogWriter(buffer, properties);
+        writerThread = new Thread(writer, "access-log-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+        meterRegistry.gauge("access.log.dropped", buffer, AccessLogRingBuffer::dropped);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (writer != null) {
+            //等待写线程写出剩余的记录
+            writer.stop();
+            writerThread.join(5000);
+            clock.stop();
+        }
+    }
+
+    public boolean isEnabled() {
+        return buffer != null;
+    }
+
+    /**
+     * @param durationMicros 耗时[us]
+     * @param route          路由的serviceId，没有路由时为null
+     */
+    public void log(String method, String uri, String address, String route, int status, long durationMicros) {
+        if (buffer == null) {
+            return;
+        }
+        buffer.offer(clock.currentTimeMillis(), (int) Math.min(Integer.MAX_VALUE, durationMicros), status,
+                method, address, route, uri);
+    }
+}
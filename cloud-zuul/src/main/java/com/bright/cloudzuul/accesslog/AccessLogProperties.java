@@ -0,0 +1,97 @@
+package com.bright.cloudzuul.accesslog;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 网关访问日志配置
+ */
+@ConfigurationProperties(prefix = "access-log")
+@Component
+public class AccessLogProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * 日志目录
+     */
+    private String directory = "logs";
+
+    private String fileName = "access.log";
+
+    /**
+     * 环形缓冲区可容纳的记录数[取不小于该值的2的幂]，写满时丢弃新记录并计数
+     */
+    private int bufferSize = 8192;
+
+    /**
+     * 单个文件的最大字节数，超过后滚动为access.log.1、access.log.2...
+     */
+    private long maxFileSize = 100 * 1024 * 1024;
+
+    /**
+     * 保留的历史文件数
+     */
+    private int maxHistory = 10;
+
+    /**
+     * 没有新记录时把已格式化的内容写入文件的间隔[ms]
+     */
+    private long flushIntervalMillis = 200;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getDirectory() {
+        return directory;
+    }
+
+    public void setDirectory(String directory) {
+        this.directory = directory;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public void setFileName(String fileName) {
+        this.fileName = fileName;
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    public void setBufferSize(int bufferSize) {
+        this.bufferSize = bufferSize;
+    }
+
+    public long getMaxFileSize() {
+        return maxFileSize;
+    }
+
+    public void setMaxFileSize(long maxFileSize) {
+        this.maxFileSize = maxFileSize;
+    }
+
+    public int getMaxHistory() {
+        return maxHistory;
+    }
+
+    public void setMaxHistory(int maxHistory) {
+        this.maxHistory = maxHistory;
+    }
+
+    public long getFlushIntervalMillis() {
+        return flushIntervalMillis;
+    }
+
+    public void setFlushIntervalMillis(long flushIntervalMillis) {
+        this.flushIntervalMillis = flushIntervalMillis;
+    }
+}
@@ -0,0 +1,106 @@
+package com.bright.cloudzuul.accesslog;
+
+/**
+ * 定长的访问日志记录[256字节]在环形缓冲区中的布局
+ * 字符串按ASCII写入，超过字段长度时截断，非ASCII字符写为'?'
+ *
+ *  0   时间戳[ms]           8字节
+ *  8   耗时[us]             4字节
+ *  12  响应码               2字节
+ *  14  method               1字节长度 + 8字节
+ *  23  客户端地址            1字节长度 + 46字节
+ *  70  路由                 1字节长度 + 32字节
+ *  103 uri                  1字节长度 + 152字节
+ */
+final class AccessLogRecord {
+
+    static final int SIZE = 256;
+
+    static final int TIMESTAMP = 0;
+
+    static final int DURATION = 8;
+
+    static final int STATUS = 12;
+
+    static final int METHOD = 14;
+
+    static final int METHOD_MAX = 8;
+
+    static final int ADDRESS = METHOD + 1 + METHOD_MAX;
+
+    static final int ADDRESS_MAX = 46;
+
+    static final int ROUTE = ADDRESS + 1 + ADDRESS_MAX;
+
+    static final int ROUTE_MAX = 32;
+
+    static final int URI = ROUTE + 1 + ROUTE_MAX;
+
+    static final int URI_MAX = SIZE - URI - 1;
+
+    private AccessLogRecord() {
+    }
+
+    static void encode(byte[] data, int offset, long timestamp, int durationMicros, int status,
+                       String method, String address, String route, String uri) {
+        putLong(data, offset + TIMESTAMP, timestamp);
+        putInt(data, offset + DURATION, durationMicros);
+        data[offset + STATUS] = (byte) (status >>> 8);
+        data[offset + STATUS + 1] = (byte) status;
+        putString(data, offset + METHOD, METHOD_MAX, method);
+        putString(data, offset + ADDRESS, ADDRESS_MAX, address);
+        putString(data, offset + ROUTE, ROUTE_MAX, route);
+        putString(data, offset + URI, URI_MAX, uri);
+    }
+
+    static long timestamp(byte[] data, int offset) {
+        long value = 0;
+        for (int i = 0; i < 8; i++) {
+            value = (value << 8) | (data[offset + TIMESTAMP + i] & 0xFF);
+        }
+        return value;
+    }
+
+    static int duration(byte[] data, int offset) {
+        int value = 0;
+        for (int i = 0; i < 4; i++) {
+            value = (value << 8) | (data[offset + DURATION + i] & 0xFF);
+        }
+        return value;
+    }
+
+    static int status(byte[] data, int offset) {
+        return ((data[offset + STATUS] & 0xFF) << 8) | (data[offset + STATUS + 1] & 0xFF);
+    }
+
+    /**
+     * @param field 字段的起始位置，如METHOD
+     * @return 字段内容的长度，内容从field + 1开始
+     */
+    static int length(byte[] data, int offset, int field) {
+        return data[offset + field] & 0xFF;
+    }
+
+    private static void putLong(byte[] data, int offset, long value) {
+        for (int i = 7; i >= 0; i--) {
+            data[offset + i] = (byte) value;
+            value >>>= 8;
+        }
+    }
+
+    private static void putInt(byte[] data, int offset, int value) {
+        for (int i = 3; i >= 0; i--) {
+            data[offset + i] = (byte) value;
+            value >>>= 8;
+        }
+    }
+
+    private static void putString(byte[] data, int offset, int max, String value) {
+        int length = value == null ? 0 : Math.min(value.length(), max);
+        data[offset] = (byte) length;
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            data[offset + 1 + i] = c < 0x80 ? (byte) c : (byte) '?';
+        }
+    }
+}
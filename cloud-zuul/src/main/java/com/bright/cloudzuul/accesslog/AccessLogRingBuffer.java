@@ -0,0 +1,94 @@
+package com.bright.cloudzuul.accesslog;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 多写单读的无锁环形缓冲区，记录定长[AccessLogRecord]，预先分配不产生垃圾
+ * 请求线程CAS占用一个槽位后写入记录，再标记该槽位已发布；写线程按顺序读取已发布的槽位。
+ * 缓冲区写满时不等待，丢弃记录并计数
+ */
+class AccessLogRingBuffer {
+
+    interface Handler {
+        void onRecord(byte[] data, int offset);
+    }
+
+    private final int capacity;
+
+    private final int mask;
+
+    private final byte[] data;
+
+    /**
+     * 槽位已发布的序号 + 1，0表示从未写入
+     */
+    private final AtomicLongArray published;
+
+    /**
+     * 下一个待占用的序号
+     */
+    private final AtomicLong tail = new AtomicLong();
+
+    /**
+     * 下一个待读取的序号，只由写线程更新
+     */
+    private final AtomicLong head = new AtomicLong();
+
+    private final AtomicLong dropped = new AtomicLong();
+
+    AccessLogRingBuffer(int size) {
+        int capacity = Integer.highestOneBit(Math.max(2, size) - 1) << 1;
+        this.capacity = capacity;
+        this.mask = capacity - 1;
+        this.data = new byte[capacity * AccessLogRecord.SIZE];
+        this.published = new AtomicLongArray(capacity);
+    }
+
+    /**
+     * @return 缓冲区已满时返回false
+     */
+    boolean offer(long timestamp, int durationMicros, int status, String method, String address, String route, String uri) {
+        long sequence;
+        do {
+            sequence = tail.get();
+            if (sequence - head.get() >= capacity) {
+                dropped.incrementAndGet();
+                return false;
+            }
+        } while (!tail.compareAndSet(sequence, sequence + 1));
+        int slot = (int) (sequence & mask);
+        AccessLogRecord.encode(data, slot * AccessLogRecord.SIZE, timestamp, durationMicros, status,
+                method, address, route, uri);
+        published.lazySet(slot, sequence + 1);
+        return true;
+    }
+
+    /**
+     * 只能由一个线程调用
+     *
+     * @return 读取的记录数
+     */
+    int drain(Handler handler, int max) {
+        long sequence = head.get();
+        int count = 0;
+        while (count < max) {
+            int slot = (int) (sequence & mask);
+            if (published.get(slot) != sequence + 1) {
+                //未写入或写入尚未完成
+                break;
+            }
+            handler.onRecord(data, slot * AccessLogRecord.SIZE);
+            sequence++;
+            count++;
+        }
+        if (count > 0) {
+            head.lazySet(sequence);
+        }
+        return count;
+    }
+
+    long dropped() {
+        return dropped.get();
+    }
+}
@@ -0,0 +1,232 @@
+package com.bright.cloudzuul.accesslog;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 访问日志的写线程
+ * 从环形缓冲区批量读取记录，直接格式化到堆外ByteBuffer，写满或间隔flushIntervalMillis后通过FileChannel写入文件；
+ * 文件超过maxFileSize时滚动。缓冲区写满丢弃的记录数写入日志文件，并每10s最多输出一次告警
+ *
+ * 每行格式：时间 客户端地址 method uri 响应码 耗时[us] 路由
+ */
+class AccessLogWriter implements Runnable {
+    private static final Logger logger = LoggerFactory.getLogger(AccessLogWriter.class);
+
+    private static final int BATCH = 256;
+
+    /**
+     * 一条记录格式化后的最大长度
+     */
+    private static final int MAX_LINE = 512;
+
+    private static final long DROP_WARN_INTERVAL = TimeUnit.SECONDS.toNanos(10);
+
+    private final AccessLogRingBuffer buffer;
+
+    private final AccessLogProperties properties;
+
+    private final Path file;
+
+    private final ByteBuffer out = ByteBuffer.allocateDirect(64 * 1024);
+
+    private final SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.");
+
+    private FileChannel channel;
+
+    private long size;
+
+    private long cachedSecond = -1;
+
+    private byte[] cachedPrefix;
+
+    private long lastFlush = System.nanoTime();
+
+    private long reportedDrops;
+
+    private long lastDropWarn;
+
+    private volatile boolean running = true;
+
+    AccessLogWriter(AccessLogRingBuffer buffer, AccessLogProperties properties) throws IOException {
+        this.buffer = buffer;
+        this.properties = properties;
+        Path directory = Paths.get(properties.getDirectory());
+        Files.createDirectories(directory);
+        this.file = directory.resolve(properties.getFileName());
+        open();
+    }
+
+    @Override
+    public void run() {
+        long flushInterval = TimeUnit.MILLISECONDS.toNanos(properties.getFlushIntervalMillis());
+        while (running) {
+            try {
+                int count = buffer.drain(this::format, BATCH);
+                if (count == 0) {
+                    if (out.position() > 0 && System.nanoTime() - lastFlush >= flushInterval) {
+                        reportDrops();
+                        flush();
+                    }
+                    LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+                }
+            } catch (IOException e) {
+                logger.warn("failed to write access log {}", file, e);
+                out.clear();
+                LockSupport.parkNanos(TimeUnit.SECONDS.toNanos(1));
+            }
+        }
+        try {
+            while (buffer.drain(this::format, BATCH) > 0) {
+                //写出停止前剩余的记录
+            }
+            reportDrops();
+            flush();
+            channel.close();
+        } catch (IOException e) {
+            logger.warn("failed to close access log {}", file, e);
+        }
+    }
+
+    void stop() {
+        running = false;
+    }
+
+    private void format(byte[] data, int offset) {
+        if (out.remaining() < MAX_LINE) {
+            try {
+                flush();
+            } catch (IOException e) {
+                logger.warn("failed to write access log {}", file, e);
+                out.clear();
+            }
+        }
+        timestamp(AccessLogRecord.timestamp(data, offset));
+        out.put((byte) ' ');
+        field(data, offset, AccessLogRecord.ADDRESS);
+        out.put((byte) ' ');
+        field(data, offset, AccessLogRecord.METHOD);
+        out.put((byte) ' ');
+        field(data, offset, AccessLogRecord.URI);
+        out.put((byte) ' ');
+        number(AccessLogRecord.status(data, offset));
+        out.put((byte) ' ');
+        number(AccessLogRecord.duration(data, offset));
+        out.put((byte) ' ');
+        field(data, offset, AccessLogRecord.ROUTE);
+        out.put((byte) '\n');
+    }
+
+    /**
+     * 秒以上的部分每秒格式化一次，毫秒直接写入
+     */
+    private void timestamp(long millis) {
+        long second = millis / 1000;
+        if (second != cachedSecond) {
+            cachedSecond = second;
+            cachedPrefix = format.format(new Date(second * 1000)).getBytes(StandardCharsets.US_ASCII);
+        }
+        out.put(cachedPrefix);
+        int ms = (int) (millis % 1000);
+        out.put((byte) ('0' + ms / 100));
+        out.put((byte) ('0' + ms / 10 % 10));
+        out.put((byte) ('0' + ms % 10));
+    }
+
+    private void field(byte[] data, int offset, int field) {
+        int length = AccessLogRecord.length(data, offset, field);
+        if (length == 0) {
+            out.put((byte) '-');
+        } else {
+            out.put(data, offset + field + 1, length);
+        }
+    }
+
+    private void number(long value) {
+        if (value < 0) {
+            out.put((byte) '-');
+            value = -value;
+        }
+        long divisor = 1;
+        while (divisor <= value / 10) {
+            divisor *= 10;
+        }
+        for (; divisor > 0; divisor /= 10) {
+            out.put((byte) ('0' + value / divisor % 10));
+        }
+    }
+
+    private void reportDrops() {
+        long dropped = buffer.dropped();
+        if (dropped == reportedDrops) {
+            return;
+        }
+        long delta = dropped - reportedDrops;
+        reportedDrops = dropped;
+        timestamp(System.currentTimeMillis());
+        out.put(" access-log dropped ".getBytes(StandardCharsets.US_ASCII));
+        number(delta);
+        out.put((byte) '\n');
+        long now = System.nanoTime();
+        if (lastDropWarn == 0 || now - lastDropWarn >= DROP_WARN_INTERVAL) {
+            lastDropWarn = now;
+            logger.warn("access log buffer full, {} records dropped in total", dropped);
+        }
+    }
+
+    private void flush() throws IOException {
+        lastFlush = System.nanoTime();
+        out.flip();
+        while (out.hasRemaining()) {
+            size += channel.write(out);
+        }
+        out.clear();
+        if (size >= properties.getMaxFileSize()) {
+            roll();
+        }
+    }
+
+    /**
+     * access.log -> access.log.1 -> access.log.2 ...，超过maxHistory的删除
+     */
+    private void roll() throws IOException {
+        channel.close();
+        int history = properties.getMaxHistory();
+        Files.deleteIfExists(rolled(history));
+        for (int i = history - 1; i >= 1; i--) {
+            Path source = rolled(i);
+            if (Files.exists(source)) {
+                Files.move(source, rolled(i + 1), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        if (history > 0) {
+            Files.move(file, rolled(1), StandardCopyOption.REPLACE_EXISTING);
+        } else {
+            Files.deleteIfExists(file);
+        }
+        open();
+    }
+
+    private Path rolled(int index) {
+        return file.resolveSibling(file.getFileName() + "." + index);
+    }
+
+    private void open() throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        size = channel.size();
+    }
+}
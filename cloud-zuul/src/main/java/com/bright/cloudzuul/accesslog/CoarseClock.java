@@ -0,0 +1,36 @@
+package com.bright.cloudzuul.accesslog;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 粗粒度时钟，后台线程每毫秒更新一次，请求线程只读取一个volatile字段
+ */
+class CoarseClock {
+
+    private volatile long millis = System.currentTimeMillis();
+
+    private volatile boolean running = true;
+
+    private final Thread ticker;
+
+    CoarseClock() {
+        ticker = new Thread(() -> {
+            while (running) {
+                millis = System.currentTimeMillis();
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+            }
+        }, "access-log-clock");
+        ticker.setDaemon(true);
+        ticker.start();
+    }
+
+    long currentTimeMillis() {
+        return millis;
+    }
+
+    void stop() {
+        running = false;
+        LockSupport.unpark(ticker);
+    }
+}
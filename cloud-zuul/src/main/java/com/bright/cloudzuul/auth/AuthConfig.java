@@ -0,0 +1,39 @@
+package com.bright.cloudzuul.auth;
+
+import com.bright.cloudzuul.redis.RedisManager;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 按auth.store选择凭证校验的实现
+ */
+@Configuration
+public class AuthConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "auth.store", havingValue = "redis")
+    CachingCredentialVerifier redisCredentialVerifier(AuthProperties properties, RedisManager redisManager,
+                                                      MeterRegistry meterRegistry) {
+        return new CachingCredentialVerifier(new RedisCredentialVerifier(redisManager, properties.getRedisKey()),
+                properties, meterRegistry);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "auth.store", havingValue = "redis")
+    CredentialInvalidationSubscriber credentialInvalidationSubscriber(AuthProperties properties, RedisManager redisManager,
+                                                                      CachingCredentialVerifier verifier) {
+        return new CredentialInvalidationSubscriber(redisManager, verifier, properties.getInvalidateChannel());
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(CredentialVerifier.class)
+    CredentialVerifier staticCredentialVerifier(AuthProperties properties) {
+        if (properties.getStaticUsers().isEmpty()) {
+            return new StaticCredentialVerifier();
+        }
+        return new StaticCredentialVerifier(properties.getStaticUsers());
+    }
+}
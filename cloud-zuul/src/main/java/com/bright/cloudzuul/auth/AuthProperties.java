@@ -0,0 +1,100 @@
+package com.bright.cloudzuul.auth;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * 网关鉴权配置
+ */
+@ConfigurationProperties(prefix = "auth")
+@Component
+public class AuthProperties {
+
+    /**
+     * 凭证存储：static按staticUsers校验，redis按redis集合校验并在本地缓存结果
+     */
+    private String store = "static";
+
+    private Set<String> staticUsers = new HashSet<String>();
+
+    /**
+     * 有效用户名集合的redis key
+     */
+    private String redisKey = "zuul:credentials";
+
+    /**
+     * 失效通知的频道，消息为用户名，*表示清除全部缓存
+     */
+    private String invalidateChannel = "zuul:credentials:invalidate";
+
+    /**
+     * 校验通过的结果缓存时间[ms]，失效通知丢失时撤销最迟在该时间后生效
+     */
+    private long positiveTtlMillis = 30000;
+
+    /**
+     * 校验拒绝的结果缓存时间[ms]
+     */
+    private long negativeTtlMillis = 5000;
+
+    private int cacheMaxEntries = 10000;
+
+    public String getStore() {
+        return store;
+    }
+
+    public void setStore(String store) {
+        this.store = store;
+    }
+
+    public Set<String> getStaticUsers() {
+        return staticUsers;
+    }
+
+    public void setStaticUsers(Set<String> staticUsers) {
+        this.staticUsers = staticUsers;
+    }
+
+    public String getRedisKey() {
+        return redisKey;
+    }
+
+    public void setRedisKey(String redisKey) {
+        this.redisKey = redisKey;
+    }
+
+    public String getInvalidateChannel() {
+        return invalidateChannel;
+    }
+
+    public void setInvalidateChannel(String invalidateChannel) {
+        this.invalidateChannel = invalidateChannel;
+    }
+
+    public long getPositiveTtlMillis() {
+        return positiveTtlMillis;
+    }
+
+    public void setPositiveTtlMillis(long positiveTtlMillis) {
+        this.positiveTtlMillis = positiveTtlMillis;
+    }
+
+    public long getNegativeTtlMillis() {
+        return negativeTtlMillis;
+    }
+
+    public void setNegativeTtlMillis(long negativeTtlMillis) {
+        this.negativeTtlMillis = negativeTtlMillis;
+    }
+
+    public int getCacheMaxEntries() {
+        return cacheMaxEntries;
+    }
+
+    public void setCacheMaxEntries(int cacheMaxEntries) {
+        this.cacheMaxEntries = cacheMaxEntries;
+    }
+}
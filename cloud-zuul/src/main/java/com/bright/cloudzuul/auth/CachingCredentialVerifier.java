@@ -0,0 +1,110 @@
+package com.bright.cloudzuul.auth;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 在本地缓存校验结果，命中时只是一次内存查找
+ * 通过和拒绝的结果分别缓存positiveTtlMillis和negativeTtlMillis；存储不可用时不缓存。
+ * 缓存条目数超过上限时先清除过期条目，仍然超过则清除一部分条目
+ *
+ * 收到失效通知[invalidate]时删除对应条目；正在查询存储的请求在失效之后返回的结果不写入缓存，避免旧结果覆盖失效
+ *
+ * 指标：auth.credential.lookups{result=hit|miss|error}
+ */
+public class CachingCredentialVerifier implements CredentialVerifier {
+
+    private final CredentialVerifier delegate;
+
+    private final long positiveTtlNanos;
+
+    private final long negativeTtlNanos;
+
+    private final int maxEntries;
+
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<String, Entry>();
+
+    /**
+     * 每次失效加1
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    private final Counter hits;
+
+    private final Counter misses;
+
+    private final Counter errors;
+
+    public CachingCredentialVerifier(CredentialVerifier delegate, AuthProperties properties, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.positiveTtlNanos = TimeUnit.MILLISECONDS.toNanos(properties.getPositiveTtlMillis());
+        this.negativeTtlNanos = TimeUnit.MILLISECONDS.toNanos(properties.getNegativeTtlMillis());
+        this.maxEntries = properties.getCacheMaxEntries();
+        this.hits = meterRegistry.counter("auth.credential.lookups", "result", "hit");
+        this.misses = meterRegistry.counter("auth.credential.lookups", "result", "miss");
+        this.errors = meterRegistry.counter("auth.credential.lookups", "result", "error");
+    }
+
+    @Override
+    public boolean verify(String username) {
+        long now = System.nanoTime();
+        Entry entry = entries.get(username);
+        if (entry != null && now - entry.expiresAt < 0) {
+            hits.increment();
+            return entry.valid;
+        }
+        misses.increment();
+        long before = generation.get();
+        boolean valid;
+        try {
+            valid = delegate.verify(username);
+        } catch (CredentialStoreException e) {
+            errors.increment();
+            throw e;
+        }
+        if (generation.get() == before) {
+            if (entries.size() >= maxEntries) {
+                evict(now);
+            }
+            entries.put(username, new Entry(valid, now + (valid ? positiveTtlNanos : negativeTtlNanos)));
+        }
+        return valid;
+    }
+
+    public void invalidate(String username) {
+        generation.incrementAndGet();
+        entries.remove(username);
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        entries.clear();
+    }
+
+    private void evict(long now) {
+        entries.values().removeIf(entry -> now - entry.expiresAt >= 0);
+        //没有过期条目可清除时清除约1/10
+        Iterator<String> iterator = entries.keySet().iterator();
+        for (int i = entries.size() - maxEntries * 9 / 10; i > 0 && iterator.hasNext(); i--) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    private static class Entry {
+        private final boolean valid;
+
+        private final long expiresAt;
+
+        Entry(boolean valid, long expiresAt) {
+            this.valid = valid;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
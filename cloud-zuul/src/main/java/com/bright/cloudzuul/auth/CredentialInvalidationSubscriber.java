@@ -0,0 +1,106 @@
+package com.bright.cloudzuul.auth;
+
+import com.bright.cloudzuul.redis.RedisManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import redis.clients.jedis.JedisPubSub;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 订阅失效通知，清除本地缓存的校验结果
+ * 连接断开后每秒重试；每次订阅成功时清除全部缓存，断开期间错过的通知不会导致撤销的用户继续通过
+ *
+ * 作为SmartLifecycle由容器启动，fast-startup配置下bean延迟初始化时同样会在启动时创建并订阅
+ */
+public class CredentialInvalidationSubscriber implements SmartLifecycle {
+    private static final Logger logger = LoggerFactory.getLogger(CredentialInvalidationSubscriber.class);
+
+    private static final String ALL = "*";
+
+    private final RedisManager redisManager;
+
+    private final CachingCredentialVerifier verifier;
+
+    private final String channel;
+
+    private volatile boolean running;
+
+    private volatile JedisPubSub pubSub;
+
+    public CredentialInvalidationSubscriber(RedisManager redisManager, CachingCredentialVerifier verifier, String channel) {
+        this.redisManager = redisManager;
+        this.verifier = verifier;
+        this.channel = channel;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        Thread thread = new Thread(this::loop, "credential-invalidation");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        JedisPubSub current = pubSub;
+        if (current != null && current.isSubscribed()) {
+            current.unsubscribe();
+        }
+    }
+
+    @Override
+    public void stop(Runnable callback) {
+        stop();
+        callback.run();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public boolean isAutoStartup() {
+        return true;
+    }
+
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+
+    private void loop() {
+        while (running) {
+            pubSub = new JedisPubSub() {
+                @Override
+                public void onSubscribe(String channel, int subscribedChannels) {
+                    verifier.invalidateAll();
+                    logger.info("subscribed to credential invalidation channel {}", channel);
+                }
+
+                @Override
+                public void onMessage(String channel, String message) {
+                    if (ALL.equals(message)) {
+                        verifier.invalidateAll();
+                    } else {
+                        verifier.invalidate(message);
+                    }
+                }
+            };
+            redisManager.subscribe(pubSub, channel);
+            if (running) {
+                //订阅断开期间缓存可能已过时
+                verifier.invalidateAll();
+                try {
+                    TimeUnit.SECONDS.sleep(1);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+    }
+}
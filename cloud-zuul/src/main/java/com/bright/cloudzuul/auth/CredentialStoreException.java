@@ -0,0 +1,11 @@
+package com.bright.cloudzuul.auth;
+
+/**
+ * 凭证存储不可用，网关返回503而不是401
+ */
+public class CredentialStoreException extends RuntimeException {
+
+    public CredentialStoreException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,15 @@
+package com.bright.cloudzuul.auth;
+
+/**
+ * 网关鉴权：校验请求携带的用户是否有效
+ * 实现可以替换，注册一个CredentialVerifier类型的bean即可
+ */
+public interface CredentialVerifier {
+
+    /**
+     * @param username 请求参数username，不为空
+     * @return 是否允许访问
+     * @throws CredentialStoreException 存储不可用，无法判断
+     */
+    boolean verify(String username);
+}
@@ -0,0 +1,28 @@
+package com.bright.cloudzuul.auth;
+
+import com.bright.cloudzuul.redis.RedisManager;
+
+/**
+ * 按redis集合校验：用户名是集合auth.redis-key的成员时允许访问
+ * 增删用户后向auth.invalidate-channel发布用户名[或*]，各网关节点清除本地缓存
+ */
+public class RedisCredentialVerifier implements CredentialVerifier {
+
+    private final RedisManager redisManager;
+
+    private final String key;
+
+    public RedisCredentialVerifier(RedisManager redisManager, String key) {
+        this.redisManager = redisManager;
+        this.key = key;
+    }
+
+    @Override
+    public boolean verify(String username) {
+        Boolean member = redisManager.sismember(key, username);
+        if (member == null) {
+            throw new CredentialStoreException("redis sismember " + key + " failed");
+        }
+        return member;
+    }
+}
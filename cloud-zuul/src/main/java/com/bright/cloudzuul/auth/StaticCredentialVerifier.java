@@ -0,0 +1,26 @@
+package com.bright.cloudzuul.auth;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * 按配置的用户名校验[auth.static-users]，默认只允许bright
+ */
+public class StaticCredentialVerifier implements CredentialVerifier {
+
+    private final Set<String> usernames;
+
+    public StaticCredentialVerifier() {
+        this(Collections.singleton("bright"));
+    }
+
+    public StaticCredentialVerifier(Set<String> usernames) {
+        this.usernames = new HashSet<String>(usernames);
+    }
+
+    @Override
+    public boolean verify(String username) {
+        return usernames.contains(username);
+    }
+}
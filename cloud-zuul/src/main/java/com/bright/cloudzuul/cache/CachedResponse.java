@@ -0,0 +1,42 @@
+package com.bright.cloudzuul.cache;
+
+import com.netflix.util.Pair;
+
+import java.util.List;
+
+/**
+ * 从缓存读出的响应，响应体已复制到堆内
+ */
+public class CachedResponse {
+
+    private final int status;
+
+    private final List<Pair<String, String>> headers;
+
+    private final byte[] body;
+
+    private final boolean gzipped;
+
+    CachedResponse(int status, List<Pair<String, String>> headers, byte[] body, boolean gzipped) {
+        this.status = status;
+        this.headers = headers;
+        this.body = body;
+        this.gzipped = gzipped;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public List<Pair<String, String>> getHeaders() {
+        return headers;
+    }
+
+    public byte[] getBody() {
+        return body;
+    }
+
+    public boolean isGzipped() {
+        return gzipped;
+    }
+}
@@ -0,0 +1,236 @@
+package com.bright.cloudzuul.cache;
+
+import com.netflix.util.Pair;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 网关响应缓存
+ * 响应体保存在堆外[SlabAllocator]，堆内只有索引和响应头，缓存再大也不增加GC的扫描和复制；
+ * 每个大小级别各自按LRU淘汰：某个级别没有空闲块且内存已用完时，淘汰该级别最久未访问的条目。
+ * 内存全部分配给其他级别后，新级别的响应不再缓存
+ *
+ * 索引和分配器由一把锁保护，读取时在锁内把响应体复制到堆内
+ *
+ * 指标：response.cache.requests{route,result=hit|miss|bypass}、response.cache.entries、
+ * response.cache.memory[已分配的堆外内存]、response.cache.evictions
+ */
+@Component
+public class OffHeapResponseCache {
+
+    @Autowired
+    private ResponseCacheProperties properties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Map<String, Entry> index = new HashMap<String, Entry>();
+
+    private final ConcurrentMap<String, Counter> counters = new ConcurrentHashMap<String, Counter>();
+
+    private SlabAllocator allocator;
+
+    /**
+     * 每个级别的LRU链表，head最近访问，tail最久未访问
+     */
+    private Entry[] heads;
+
+    private Entry[] tails;
+
+    private Counter evictions;
+
+    @PostConstruct
+    public void init() {
+        allocator = new SlabAllocator(properties.getMaxMemory(), properties.getPageSize(),
+                properties.getMinChunkSize(), properties.getGrowthFactor());
+        int classes = allocator.classOf(properties.getPageSize()) + 1;
+        heads = new Entry[classes];
+        tails = new Entry[classes];
+        evictions = meterRegistry.counter("response.cache.evictions");
+        meterRegistry.gauge("response.cache.entries", this, cache -> cache.size());
+        meterRegistry.gauge("response.cache.memory", this, cache -> cache.allocatedBytes());
+    }
+
+    /**
+     * @return 路由的缓存时间[ms]，不缓存时返回0
+     */
+    public long ttlMillis(String route) {
+        if (!properties.isEnabled() || route == null) {
+            return 0;
+        }
+        Long ttl = properties.getRouteTtlMillis().get(route);
+        return ttl == null ? 0 : ttl;
+    }
+
+    /**
+     * 可缓存的最大响应体[字节]
+     */
+    public int maxBodySize() {
+        return properties.getPageSize();
+    }
+
+    /**
+     * @return 没有或已过期时返回null
+     */
+    public CachedResponse get(String key) {
+        lock.lock();
+        try {
+            Entry entry = index.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (System.nanoTime() - entry.expiresAt >= 0) {
+                remove(entry);
+                return null;
+            }
+            unlink(entry);
+            linkHead(entry);
+            return new CachedResponse(entry.status, entry.headers, allocator.read(entry.ref, entry.length), entry.gzipped);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 响应体超过页大小时不缓存
+     */
+    public void put(String key, int status, List<Pair<String, String>> headers, byte[] body, boolean gzipped, long ttlMillis) {
+        int slabClass = allocator.classOf(body.length);
+        if (slabClass < 0 || ttlMillis <= 0) {
+            return;
+        }
+        lock.lock();
+        try {
+            Entry old = index.get(key);
+            if (old != null) {
+                remove(old);
+            }
+            int ref = allocator.allocate(slabClass);
+            while (ref < 0) {
+                Entry victim = tails[slabClass];
+                if (victim == null) {
+                    //该级别没有页，也没有内存可以分配新页
+                    return;
+                }
+                remove(victim);
+                evictions.increment();
+                ref = allocator.allocate(slabClass);
+            }
+            allocator.write(ref, body);
+            Entry entry = new Entry(key, slabClass, ref, body.length, status, headers, gzipped,
+                    System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(ttlMillis));
+            index.put(key, entry);
+            linkHead(entry);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @param result hit|miss|bypass
+     */
+    public void record(String route, String result) {
+        counters.computeIfAbsent(route + '|' + result,
+                k -> meterRegistry.counter("response.cache.requests", "route", route, "result", result)).increment();
+    }
+
+    private int size() {
+        lock.lock();
+        try {
+            return index.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private long allocatedBytes() {
+        lock.lock();
+        try {
+            return allocator.allocatedBytes();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void remove(Entry entry) {
+        index.remove(entry.key);
+        unlink(entry);
+        allocator.free(entry.ref);
+    }
+
+    private void linkHead(Entry entry) {
+        int c = entry.slabClass;
+        entry.prev = null;
+        entry.next = heads[c];
+        if (heads[c] != null) {
+            heads[c].prev = entry;
+        }
+        heads[c] = entry;
+        if (tails[c] == null) {
+            tails[c] = entry;
+        }
+    }
+
+    private void unlink(Entry entry) {
+        int c = entry.slabClass;
+        if (entry.prev != null) {
+            entry.prev.next = entry.next;
+        } else {
+            heads[c] = entry.next;
+        }
+        if (entry.next != null) {
+            entry.next.prev = entry.prev;
+        } else {
+            tails[c] = entry.prev;
+        }
+        entry.prev = null;
+        entry.next = null;
+    }
+
+    private static class Entry {
+        private final String key;
+
+        private final int slabClass;
+
+        private final int ref;
+
+        private final int length;
+
+        private final int status;
+
+        private final List<Pair<String, String>> headers;
+
+        private final boolean gzipped;
+
+        private final long expiresAt;
+
+        private Entry prev;
+
+        private Entry next;
+
+        Entry(String key, int slabClass, int ref, int length, int status, List<Pair<String, String>> headers,
+              boolean gzipped, long expiresAt) {
+            this.key = key;
+            this.slabClass = slabClass;
+            this.ref = ref;
+            this.length = length;
+            this.status = status;
+            this.headers = headers;
+            this.gzipped = gzipped;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.bright.cloudzuul.cache;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 网关响应缓存配置
+ */
+@ConfigurationProperties(prefix = "response-cache")
+@Component
+public class ResponseCacheProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * 按路由配置的缓存时间[ms]，key为serviceId，未配置的路由不缓存；
+     * 响应的Cache-Control带有max-age或s-maxage时取两者中较小的一个
+     */
+    private Map<String, Long> routeTtlMillis = new HashMap<String, Long>();
+
+    /**
+     * 堆外内存上限[字节]
+     */
+    private long maxMemory = 64 * 1024 * 1024;
+
+    /**
+     * slab页大小[字节]，也是可缓存的最大响应体
+     */
+    private int pageSize = 1024 * 1024;
+
+    private int minChunkSize = 128;
+
+    /**
+     * 相邻大小级别的块大小之比
+     */
+    private double growthFactor = 1.25;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Map<String, Long> getRouteTtlMillis() {
+        return routeTtlMillis;
+    }
+
+    public void setRouteTtlMillis(Map<String, Long> routeTtlMillis) {
+        this.routeTtlMillis = routeTtlMillis;
+    }
+
+    public long getMaxMemory() {
+        return maxMemory;
+    }
+
+    public void setMaxMemory(long maxMemory) {
+        this.maxMemory = maxMemory;
+    }
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    public void setPageSize(int pageSize) {
+        this.pageSize = pageSize;
+    }
+
+    public int getMinChunkSize() {
+        return minChunkSize;
+    }
+
+    public void setMinChunkSize(int minChunkSize) {
+        this.minChunkSize = minChunkSize;
+    }
+
+    public double getGrowthFactor() {
+        return growthFactor;
+    }
+
+    public void setGrowthFactor(double growthFactor) {
+        this.growthFactor = growthFactor;
+    }
+}
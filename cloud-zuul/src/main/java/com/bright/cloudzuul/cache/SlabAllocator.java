@@ -0,0 +1,145 @@
+package com.bright.cloudzuul.cache;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 堆外内存的slab分配器，不是线程安全的，由OffHeapResponseCache加锁调用
+ * 内存按pageSize分页[DirectByteBuffer，按需分配，总量不超过maxMemory]，每页分配给一个大小级别后切分为等长的块；
+ * 块大小从minChunkSize开始按growthFactor递增到pageSize。块释放后回到所属级别的空闲列表，页不归还，
+ * 因此不会产生碎片，代价是每块平均浪费约(growthFactor - 1) / 2的空间
+ *
+ * 块的引用为int：高15位是页号，低16位是页内的块号
+ */
+class SlabAllocator {
+
+    private static final int CHUNK_BITS = 16;
+
+    private final int pageSize;
+
+    private final int maxPages;
+
+    private final int[] chunkSizes;
+
+    private final List<ByteBuffer> pages = new ArrayList<ByteBuffer>();
+
+    /**
+     * 每页的大小级别
+     */
+    private final List<Integer> pageClasses = new ArrayList<Integer>();
+
+    /**
+     * 每个级别的空闲块[栈]
+     */
+    private final int[][] free;
+
+    private final int[] freeCount;
+
+    SlabAllocator(long maxMemory, int pageSize, int minChunkSize, double growthFactor) {
+        this.pageSize = pageSize;
+        this.maxPages = (int) Math.min(1 << (31 - CHUNK_BITS), Math.max(1, maxMemory / pageSize));
+        List<Integer> sizes = new ArrayList<Integer>();
+        //每页最多1 << CHUNK_BITS块
+        double size = Math.max(minChunkSize, pageSize >> CHUNK_BITS);
+        while (size < pageSize) {
+            int chunk = ((int) Math.ceil(size) + 7) & ~7;
+            if (sizes.isEmpty() || chunk > sizes.get(sizes.size() - 1)) {
+                sizes.add(chunk);
+            }
+            size = chunk * growthFactor;
+        }
+        sizes.add(pageSize);
+        this.chunkSizes = new int[sizes.size()];
+        for (int i = 0; i < chunkSizes.length; i++) {
+            chunkSizes[i] = sizes.get(i);
+        }
+        this.free = new int[chunkSizes.length][];
+        this.freeCount = new int[chunkSizes.length];
+        for (int i = 0; i < chunkSizes.length; i++) {
+            free[i] = new int[16];
+        }
+    }
+
+    /**
+     * @return 能容纳length字节的最小级别，超过页大小时返回-1
+     */
+    int classOf(int length) {
+        for (int i = 0; i < chunkSizes.length; i++) {
+            if (chunkSizes[i] >= length) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 从空闲列表分配一块，没有时再分配新页
+     *
+     * @return 块的引用，该级别没有空闲块且内存已用完时返回-1[需要调用方淘汰同级别的条目后重试]
+     */
+    int allocate(int slabClass) {
+        if (freeCount[slabClass] == 0 && !newPage(slabClass)) {
+            return -1;
+        }
+        return free[slabClass][--freeCount[slabClass]];
+    }
+
+    void free(int ref) {
+        int slabClass = pageClasses.get(ref >>> CHUNK_BITS);
+        push(slabClass, ref);
+    }
+
+    void write(int ref, byte[] src) {
+        ByteBuffer page = pages.get(ref >>> CHUNK_BITS).duplicate();
+        page.position(offset(ref));
+        page.put(src);
+    }
+
+    byte[] read(int ref, int length) {
+        ByteBuffer page = pages.get(ref >>> CHUNK_BITS).duplicate();
+        page.position(offset(ref));
+        byte[] dst = new byte[length];
+        page.get(dst);
+        return dst;
+    }
+
+    int chunkSize(int slabClass) {
+        return chunkSizes[slabClass];
+    }
+
+    /**
+     * 已分配的堆外内存[字节]
+     */
+    long allocatedBytes() {
+        return (long) pages.size() * pageSize;
+    }
+
+    private int offset(int ref) {
+        int page = ref >>> CHUNK_BITS;
+        return (ref & ((1 << CHUNK_BITS) - 1)) * chunkSizes[pageClasses.get(page)];
+    }
+
+    private boolean newPage(int slabClass) {
+        if (pages.size() >= maxPages) {
+            return false;
+        }
+        int page = pages.size();
+        pages.add(ByteBuffer.allocateDirect(pageSize));
+        pageClasses.add(slabClass);
+        int chunks = pageSize / chunkSizes[slabClass];
+        for (int i = chunks - 1; i >= 0; i--) {
+            push(slabClass, (page << CHUNK_BITS) | i);
+        }
+        return true;
+    }
+
+    private void push(int slabClass, int ref) {
+        if (freeCount[slabClass] == free[slabClass].length) {
+            int[] grown = new int[free[slabClass].length * 2];
+            System.arraycopy(free[slabClass], 0, grown, 0, freeCount[slabClass]);
+            free[slabClass] = grown;
+        }
+        free[slabClass][freeCount[slabClass]++] = ref;
+    }
+}
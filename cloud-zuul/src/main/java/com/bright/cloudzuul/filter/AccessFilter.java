@@ -1,19 +1,26 @@
 package com.bright.cloudzuul.filter;
 
+import com.bright.cloudzuul.auth.CredentialStoreException;
+import com.bright.cloudzuul.auth.CredentialVerifier;
 import com.netflix.zuul.ZuulFilter;
 import com.netflix.zuul.context.RequestContext;
 import com.netflix.zuul.exception.ZuulException;
 import org.apache.commons.lang.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import javax.servlet.http.HttpServletRequest;
 
 /**
  * 服务网关过滤器
+ * 由CredentialVerifier校验请求参数username
  */
 @Component
 public class AccessFilter extends ZuulFilter {
 
+    @Autowired
+    private CredentialVerifier credentialVerifier;
+
     /**
      * 返回一个字符串代表过滤器的类型，在zuul中定义了四种不同生命周期的过滤器类型：
      *  pre：可以在请求被路由之前调用
@@ -46,9 +53,18 @@ public class AccessFilter extends ZuulFilter {
     public Object run() throws ZuulException {
         RequestContext ctx = RequestContext.getCurrentContext();
         HttpServletRequest request = ctx.getRequest();
-        System.out.println(String.format("%s demoFilter request to %s", request.getMethod(), request.getRequestURL().toString()));
         String username = request.getParameter("username");// 获取请求的参数
-        if(!StringUtils.isEmpty(username)&&username.equals("bright")){//当请求参数username为“bright”时通过
+        boolean verified;
+        try {
+            verified = !StringUtils.isEmpty(username) && credentialVerifier.verify(username);
+        } catch (CredentialStoreException e) {
+            ctx.setSendZuulResponse(false);
+            ctx.setResponseStatusCode(503);// 无法校验，不按用户名错误处理
+            ctx.setResponseBody("{\"result\":\"credential store unavailable\"}");
+            ctx.set("isSuccess", false);
+            return null;
+        }
+        if(verified){//用户名校验通过
             ctx.setSendZuulResponse(true);// 对该请求进行路由
             ctx.setResponseStatusCode(200);
             ctx.set("isSuccess", true);// 设值，让下一个Filter看到上一个Filter的状态
@@ -0,0 +1,50 @@
+package com.bright.cloudzuul.filter;
+
+import com.bright.cloudzuul.accesslog.AccessLog;
+import com.netflix.zuul.ZuulFilter;
+import com.netflix.zuul.context.RequestContext;
+import com.netflix.zuul.exception.ZuulException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.netflix.zuul.filters.support.FilterConstants;
+import org.springframework.stereotype.Component;
+
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * 写访问日志，包括被前置过滤器拒绝和路由出错的请求
+ */
+@Component
+public class AccessLogFilter extends ZuulFilter {
+
+    @Autowired
+    private AccessLog accessLog;
+
+    @Override
+    public String filterType() {
+        return "post";
+    }
+
+    @Override
+    public int filterOrder() {
+        return FilterConstants.SEND_RESPONSE_FILTER_ORDER - 1; //在写响应之前执行，此时响应码已确定
+    }
+
+    @Override
+    public boolean shouldFilter() {
+        return accessLog.isEnabled();
+    }
+
+    @Override
+    public Object run() throws ZuulException {
+        RequestContext ctx = RequestContext.getCurrentContext();
+        HttpServletRequest request = ctx.getRequest();
+        Object start = ctx.get(RequestTimingFilter.START_NANOS_KEY);
+        long durationMicros = start instanceof Long ? (System.nanoTime() - (Long) start) / 1000 : -1;
+        Object errorStatus = ctx.get("error.status_code");
+        int status = ctx.getThrowable() != null && errorStatus instanceof Integer
+                ? (Integer) errorStatus : ctx.getResponseStatusCode();
+        accessLog.log(request.getMethod(), request.getRequestURI(), request.getRemoteAddr(),
+                (String) ctx.get(FilterConstants.SERVICE_ID_KEY), status, durationMicros);
+        return null;
+    }
+}
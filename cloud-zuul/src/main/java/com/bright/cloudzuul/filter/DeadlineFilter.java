@@ -0,0 +1,60 @@
+package com.bright.cloudzuul.filter;
+
+import com.netflix.zuul.ZuulFilter;
+import com.netflix.zuul.context.RequestContext;
+import com.netflix.zuul.exception.ZuulException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * 写入请求的时间预算
+ * 在转发的请求头X-Deadline-Ms中写入剩余时间[ms]，下游以此作为各自的超时时间并继续向下传递；
+ * 调用方已带有预算时取两者中较小的一个，预算已用完的请求直接返回504
+ */
+@Component
+public class DeadlineFilter extends ZuulFilter {
+
+    public static final String HEADER = "X-Deadline-Ms";
+
+    /**
+     * 默认时间预算[ms]，与ribbon.ReadTimeout一致
+     */
+    @Value("${deadline.default-millis:5000}")
+    private long defaultMillis;
+
+    @Override
+    public String filterType() {
+        return "pre";
+    }
+
+    @Override
+    public int filterOrder() {
+        return 10; //在路由解析[PreDecorationFilter]之后执行
+    }
+
+    @Override
+    public boolean shouldFilter() {
+        return RequestContext.getCurrentContext().sendZuulResponse();
+    }
+
+    @Override
+    public Object run() throws ZuulException {
+        RequestContext ctx = RequestContext.getCurrentContext();
+        long budget = defaultMillis;
+        String header = ctx.getRequest().getHeader(HEADER);
+        if (header != null) {
+            try {
+                budget = Math.min(budget, Long.parseLong(header.trim()));
+            } catch (NumberFormatException e) {
+                //不合法的值按默认预算处理
+            }
+        }
+        if (budget <= 0) {
+            ctx.setSendZuulResponse(false);
+            ctx.setResponseStatusCode(504);
+            return null;
+        }
+        ctx.addZuulRequestHeader(HEADER, String.valueOf(budget));
+        return null;
+    }
+}
@@ -0,0 +1,68 @@
+package com.bright.cloudzuul.filter;
+
+import com.bright.cloudzuul.ratelimit.LeasedRateLimiter;
+import com.bright.cloudzuul.ratelimit.RateLimitProperties;
+import com.netflix.zuul.ZuulFilter;
+import com.netflix.zuul.context.RequestContext;
+import com.netflix.zuul.exception.ZuulException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.netflix.zuul.filters.support.FilterConstants;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * 网关限流，按rate-limit.key-type选择限流维度，超过速率的请求返回429
+ */
+@Component
+public class RateLimitFilter extends ZuulFilter {
+
+    @Autowired
+    private RateLimitProperties properties;
+
+    @Autowired
+    private LeasedRateLimiter rateLimiter;
+
+    @Override
+    public String filterType() {
+        return "pre";
+    }
+
+    @Override
+    public int filterOrder() {
+        return 7; //在鉴权和路由解析[PreDecorationFilter]之后执行，按路由限流时需要serviceId
+    }
+
+    @Override
+    public boolean shouldFilter() {
+        return properties.isEnabled() && RequestContext.getCurrentContext().sendZuulResponse();
+    }
+
+    @Override
+    public Object run() throws ZuulException {
+        RequestContext ctx = RequestContext.getCurrentContext();
+        String route = (String) ctx.get(FilterConstants.SERVICE_ID_KEY);
+        Double routePermits = route == null ? null : properties.getRoutePermitsPerSecond().get(route);
+        double permitsPerSecond = routePermits != null ? routePermits : properties.getPermitsPerSecond();
+        if (rateLimiter.tryAcquire(key(ctx.getRequest(), route), permitsPerSecond)) {
+            return null;
+        }
+        ctx.setSendZuulResponse(false);
+        ctx.setResponseStatusCode(429);
+        ctx.addZuulResponseHeader(HttpHeaders.RETRY_AFTER, "1");
+        ctx.setResponseBody("{\"result\":\"too many requests\"}");
+        return null;
+    }
+
+    private String key(HttpServletRequest request, String route) {
+        String type = properties.getKeyType();
+        if ("client".equals(type)) {
+            return "client:" + request.getParameter("username");
+        }
+        if ("route".equals(type)) {
+            return "route:" + route;
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+}
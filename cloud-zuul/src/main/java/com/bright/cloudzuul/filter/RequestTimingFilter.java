@@ -0,0 +1,36 @@
+package com.bright.cloudzuul.filter;
+
+import com.netflix.zuul.ZuulFilter;
+import com.netflix.zuul.context.RequestContext;
+import com.netflix.zuul.exception.ZuulException;
+import org.springframework.stereotype.Component;
+
+/**
+ * 记录请求进入网关的时间，AccessLogFilter据此计算耗时
+ */
+@Component
+public class RequestTimingFilter extends ZuulFilter {
+
+    public static final String START_NANOS_KEY = "requestStartNanos";
+
+    @Override
+    public String filterType() {
+        return "pre";
+    }
+
+    @Override
+    public int filterOrder() {
+        return -100; //最先执行
+    }
+
+    @Override
+    public boolean shouldFilter() {
+        return true;
+    }
+
+    @Override
+    public Object run() throws ZuulException {
+        RequestContext.getCurrentContext().set(START_NANOS_KEY, System.nanoTime());
+        return null;
+    }
+}
@@ -0,0 +1,91 @@
+package com.bright.cloudzuul.filter;
+
+import com.bright.cloudzuul.cache.CachedResponse;
+import com.bright.cloudzuul.cache.OffHeapResponseCache;
+import com.netflix.util.Pair;
+import com.netflix.zuul.ZuulFilter;
+import com.netflix.zuul.context.RequestContext;
+import com.netflix.zuul.exception.ZuulException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.netflix.zuul.filters.support.FilterConstants;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+
+import javax.servlet.http.HttpServletRequest;
+import java.io.ByteArrayInputStream;
+
+/**
+ * 响应缓存的路由过滤器，在转发到服务之前查找缓存
+ * 命中时直接返回缓存的响应[响应头X-Cache: HIT]，不再经过Ribbon转发；
+ * 未命中时记录缓存key，由ResponseCacheStoreFilter在响应返回后写入缓存
+ *
+ * 只缓存配置了response-cache.route-ttl-millis的路由上的GET请求，请求头Cache-Control为no-cache时不读缓存，
+ * 为no-store时既不读也不写。缓存key包含路由、uri、查询参数以及Accept和Accept-Encoding
+ */
+@Component
+public class ResponseCacheFilter extends ZuulFilter {
+
+    public static final String CACHE_KEY = "responseCacheKey";
+
+    @Autowired
+    private OffHeapResponseCache cache;
+
+    @Override
+    public String filterType() {
+        return "route";
+    }
+
+    @Override
+    public int filterOrder() {
+        return FilterConstants.RIBBON_ROUTING_FILTER_ORDER - 1; //在RibbonRoutingFilter之前执行
+    }
+
+    @Override
+    public boolean shouldFilter() {
+        RequestContext ctx = RequestContext.getCurrentContext();
+        return ctx.sendZuulResponse() && "GET".equals(ctx.getRequest().getMethod())
+                && cache.ttlMillis((String) ctx.get(FilterConstants.SERVICE_ID_KEY)) > 0;
+    }
+
+    @Override
+    public Object run() throws ZuulException {
+        RequestContext ctx = RequestContext.getCurrentContext();
+        HttpServletRequest request = ctx.getRequest();
+        String route = (String) ctx.get(FilterConstants.SERVICE_ID_KEY);
+        String cacheControl = request.getHeader(HttpHeaders.CACHE_CONTROL);
+        if (cacheControl != null && cacheControl.toLowerCase().contains("no-store")) {
+            cache.record(route, "bypass");
+            return null;
+        }
+        String key = key(route, request);
+        CachedResponse cached = cacheControl != null && cacheControl.toLowerCase().contains("no-cache") ? null : cache.get(key);
+        if (cached == null) {
+            cache.record(route, "miss");
+            ctx.set(CACHE_KEY, key);
+            ctx.addZuulResponseHeader("X-Cache", "MISS");
+            return null;
+        }
+        cache.record(route, "hit");
+        ctx.setSendZuulResponse(false); //不再转发，SendResponseFilter照常写出响应
+        ctx.setResponseStatusCode(cached.getStatus());
+        for (Pair<String, String> header : cached.getHeaders()) {
+            ctx.addZuulResponseHeader(header.first(), header.second());
+        }
+        ctx.addZuulResponseHeader("X-Cache", "HIT");
+        ctx.setResponseGZipped(cached.isGzipped());
+        ctx.setOriginContentLength((long) cached.getBody().length);
+        ctx.setResponseDataStream(new ByteArrayInputStream(cached.getBody()));
+        return null;
+    }
+
+    private static String key(String route, HttpServletRequest request) {
+        StringBuilder key = new StringBuilder(128);
+        key.append(route).append(' ').append(request.getRequestURI());
+        if (request.getQueryString() != null) {
+            key.append('?').append(request.getQueryString());
+        }
+        key.append('|').append(request.getHeader(HttpHeaders.ACCEPT));
+        key.append('|').append(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        return key.toString();
+    }
+}
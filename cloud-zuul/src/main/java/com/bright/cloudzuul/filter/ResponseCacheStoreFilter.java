@@ -0,0 +1,140 @@
+package com.bright.cloudzuul.filter;
+
+import com.bright.cloudzuul.cache.OffHeapResponseCache;
+import com.netflix.util.Pair;
+import com.netflix.zuul.ZuulFilter;
+import com.netflix.zuul.context.RequestContext;
+import com.netflix.zuul.exception.ZuulException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.netflix.zuul.filters.support.FilterConstants;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 把未命中缓存的响应写入缓存
+ * 只缓存200且没有Set-Cookie的响应；响应头Cache-Control为no-store、no-cache或private时不缓存，
+ * 带有max-age[s-maxage]时缓存时间取其与路由配置中较小的一个。响应体超过maxBodySize时不缓存
+ */
+@Component
+public class ResponseCacheStoreFilter extends ZuulFilter {
+    private static final Logger logger = LoggerFactory.getLogger(ResponseCacheStoreFilter.class);
+
+    @Autowired
+    private OffHeapResponseCache cache;
+
+    @Override
+    public String filterType() {
+        return "post";
+    }
+
+    @Override
+    public int filterOrder() {
+        return FilterConstants.SEND_RESPONSE_FILTER_ORDER - 10;
+    }
+
+    @Override
+    public boolean shouldFilter() {
+        RequestContext ctx = RequestContext.getCurrentContext();
+        return ctx.get(ResponseCacheFilter.CACHE_KEY) != null && ctx.getThrowable() == null
+                && ctx.getResponseStatusCode() == 200 && ctx.getResponseBody() == null;
+    }
+
+    @Override
+    public Object run() throws ZuulException {
+        RequestContext ctx = RequestContext.getCurrentContext();
+        String route = (String) ctx.get(FilterConstants.SERVICE_ID_KEY);
+        long ttl = ttl(ctx.getOriginResponseHeaders(), cache.ttlMillis(route));
+        if (ttl <= 0) {
+            return null;
+        }
+        byte[] body = readBody(ctx);
+        if (body == null) {
+            return null;
+        }
+        List<Pair<String, String>> headers = new ArrayList<Pair<String, String>>();
+        for (Pair<String, String> header : ctx.getZuulResponseHeaders()) {
+            if (!"X-Cache".equalsIgnoreCase(header.first())) {
+                headers.add(header);
+            }
+        }
+        cache.put((String) ctx.get(ResponseCacheFilter.CACHE_KEY), 200, headers, body, ctx.getResponseGZipped(), ttl);
+        return null;
+    }
+
+    /**
+     * @return 缓存时间[ms]，不可缓存时返回0
+     */
+    private static long ttl(List<Pair<String, String>> originHeaders, long routeTtl) {
+        long ttl = routeTtl;
+        for (Pair<String, String> header : originHeaders) {
+            if (HttpHeaders.SET_COOKIE.equalsIgnoreCase(header.first())) {
+                return 0;
+            }
+            if (!HttpHeaders.CACHE_CONTROL.equalsIgnoreCase(header.first()) || header.second() == null) {
+                continue;
+            }
+            for (String directive : header.second().toLowerCase().split(",")) {
+                String d = directive.trim();
+                if (d.equals("no-store") || d.equals("no-cache") || d.equals("private")) {
+                    return 0;
+                }
+                if (d.startsWith("max-age=") || d.startsWith("s-maxage=")) {
+                    try {
+                        ttl = Math.min(ttl, Long.parseLong(d.substring(d.indexOf('=') + 1).replace("\"", "")) * 1000);
+                    } catch (NumberFormatException e) {
+                        return 0;
+                    }
+                }
+            }
+        }
+        return ttl;
+    }
+
+    /**
+     * 读出响应体并放回一个可重复读取的流
+     *
+     * @return 超过maxBodySize或读取失败时返回null，此时响应照常写出
+     */
+    private byte[] readBody(RequestContext ctx) {
+        InputStream in = ctx.getResponseDataStream();
+        if (in == null) {
+            return new byte[0];
+        }
+        int max = cache.maxBodySize();
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.min(max, 8192));
+        byte[] buffer = new byte[8192];
+        try {
+            int n;
+            while ((n = in.read(buffer)) >= 0) {
+                out.write(buffer, 0, n);
+                if (out.size() > max) {
+                    //不缓存，已读出的部分与剩余的流拼接后照常写出
+                    ctx.setResponseDataStream(new SequenceInputStream(new ByteArrayInputStream(out.toByteArray()), in));
+                    return null;
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("failed to read response for cache: {}", e.toString());
+            ctx.setResponseDataStream(new SequenceInputStream(new ByteArrayInputStream(out.toByteArray()), in));
+            return null;
+        }
+        try {
+            in.close();
+        } catch (IOException e) {
+            //已读完，忽略
+        }
+        byte[] body = out.toByteArray();
+        ctx.setResponseDataStream(new ByteArrayInputStream(body));
+        return body;
+    }
+}
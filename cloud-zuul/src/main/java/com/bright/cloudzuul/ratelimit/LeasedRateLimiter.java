@@ -0,0 +1,244 @@
+package com.bright.cloudzuul.ratelimit;
+
+import com.bright.cloudzuul.redis.RedisManager;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 分布式令牌桶限流，令牌桶保存在redis，各网关节点按批租用令牌后在本地扣减
+ *
+ * 租用数量随本节点该key的请求速率调整[速率 × leaseMillis，不超过burst × maxLeaseRatio]，
+ * 流量大时一次redis调用覆盖多个请求，流量小时每次只租少量令牌，未用完的令牌在leaseTtlMillis后丢弃；
+ * 桶为空时在补充一个令牌所需的时间内直接拒绝，不再访问redis。
+ * 每个key同时只有一个请求访问redis[在锁外执行]，租用期间该key的其他请求不等待，直接放行，并从租到的令牌中扣除，
+ * 放行数不超过上次租到的令牌数[首次为burst × maxLeaseRatio，上次桶为空时为0]，超过时拒绝；
+ * redis不可用时在leaseTtlMillis内放行该key的全部请求且不再访问redis，不因限流组件故障拒绝请求
+ *
+ * 指标：rate.limit.requests{result=allowed|rejected}、rate.limit.redis{result=ok|error}
+ */
+@Component
+public class LeasedRateLimiter {
+
+    @Autowired
+    private RateLimitProperties properties;
+
+    @Autowired
+    private RedisManager redisManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final ConcurrentMap<String, Bucket> buckets = new ConcurrentHashMap<String, Bucket>();
+
+    private Counter allowed;
+
+    private Counter rejected;
+
+    private Counter redisOk;
+
+    private Counter redisError;
+
+    @PostConstruct
+    public void init() {
+        allowed = meterRegistry.counter("rate.limit.requests", "result", "allowed");
+        rejected = meterRegistry.counter("rate.limit.requests", "result", "rejected");
+        redisOk = meterRegistry.counter("rate.limit.redis", "result", "ok");
+        redisError = meterRegistry.counter("rate.limit.redis", "result", "error");
+    }
+
+    /**
+     * @param key              限流的key，如ip:127.0.0.1
+     * @param permitsPerSecond 每秒补充的令牌数
+     * @return 是否放行
+     */
+    public boolean tryAcquire(String key, double permitsPerSecond) {
+        Bucket bucket = buckets.get(key);
+        if (bucket == null) {
+            if (buckets.size() >= properties.getMaxKeys()) {
+                evict();
+            }
+            bucket = buckets.computeIfAbsent(key, Bucket::new);
+        }
+        boolean acquired = bucket.tryAcquire(permitsPerSecond);
+        (acquired ? allowed : rejected).increment();
+        return acquired;
+    }
+
+    /**
+     * 清除租约已过期的key，仍然超过上限时清除约1/10
+     */
+    private void evict() {
+        long now = System.nanoTime();
+        buckets.values().removeIf(bucket -> bucket.idle(now));
+        Iterator<String> iterator = buckets.keySet().iterator();
+        for (int i = buckets.size() - properties.getMaxKeys() * 9 / 10; i > 0 && iterator.hasNext(); i--) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    private class Bucket {
+
+        private final String redisKey;
+
+        /**
+         * 本地剩余的令牌，只在持有锁时修改
+         */
+        private int tokens;
+
+        private long expiresAt;
+
+        /**
+         * 桶为空时，在该时间之前直接拒绝
+         */
+        private long rejectUntil;
+
+        /**
+         * redis出错后，在该时间之前全部放行
+         */
+        private long failOpenUntil;
+
+        /**
+         * 正在向redis租用令牌
+         */
+        private boolean leasing;
+
+        /**
+         * 租用期间直接放行的请求数
+         */
+        private int borrowed;
+
+        /**
+         * 租用期间最多直接放行的请求数：上次租到的令牌数
+         */
+        private int borrowLimit;
+
+        /**
+         * 上次租用以来的请求数，用于估计请求速率
+         */
+        private long requests;
+
+        private long lastLease = System.nanoTime();
+
+        private double ratePerSecond;
+
+        Bucket(String key) {
+            this.redisKey = properties.getRedisKeyPrefix() + key;
+            this.expiresAt = lastLease;
+            this.rejectUntil = lastLease;
+            this.failOpenUntil = lastLease;
+            this.borrowLimit = maxLeaseSize();
+        }
+
+        boolean tryAcquire(double permitsPerSecond) {
+            int size;
+            synchronized (this) {
+                long now = System.nanoTime();
+                requests++;
+                if (tokens > 0 && now - expiresAt < 0) {
+                    tokens--;
+                    return true;
+                }
+                if (now - rejectUntil < 0) {
+                    return false;
+                }
+                if (now - failOpenUntil < 0) {
+                    return true;
+                }
+                if (leasing) {
+                    if (borrowed >= borrowLimit) {
+                        return false;
+                    }
+                    borrowed++;
+                    return true;
+                }
+                leasing = true;
+                size = leaseSize(now, permitsPerSecond);
+            }
+            int granted = lease(size, permitsPerSecond);
+            synchronized (this) {
+                leasing = false;
+                int used = borrowed;
+                borrowed = 0;
+                return apply(System.nanoTime(), granted, used, permitsPerSecond);
+            }
+        }
+
+        /**
+         * 按租用结果更新本地令牌，只在持有锁时调用
+         *
+         * @param borrowed 租用期间已经放行的请求数
+         * @return 本次请求是否放行
+         */
+        private boolean apply(long now, int granted, int borrowed, double permitsPerSecond) {
+            if (granted < 0) {
+                failOpenUntil = now + TimeUnit.MILLISECONDS.toNanos(properties.getLeaseTtlMillis());
+                return true;
+            }
+            if (granted == 0) {
+                //桶为空，补充一个令牌之前不再访问redis
+                rejectUntil = now + (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond);
+                tokens = 0;
+                borrowLimit = 0;
+                return false;
+            }
+            tokens = Math.max(0, granted - 1 - borrowed);
+            borrowLimit = granted;
+            expiresAt = now + TimeUnit.MILLISECONDS.toNanos(properties.getLeaseTtlMillis());
+            return true;
+        }
+
+        /**
+         * 不持有锁，同一个key的其他请求不等待redis
+         *
+         * @return 租到的令牌数，redis出错时返回-1
+         */
+        private int lease(int size, double permitsPerSecond) {
+            Object granted;
+            try {
+                granted = redisManager.evalScript(TokenLeaseScript.SHA, TokenLeaseScript.SCRIPT,
+                        Collections.singletonList(redisKey),
+                        Arrays.asList(String.valueOf(permitsPerSecond), String.valueOf(properties.getBurst()), String.valueOf(size)));
+            } catch (RuntimeException e) {
+                granted = null;
+            }
+            if (!(granted instanceof Long)) {
+                redisError.increment();
+                return -1;
+            }
+            redisOk.increment();
+            return ((Long) granted).intValue();
+        }
+
+        /**
+         * 按上次租用以来的请求速率[平滑]估计leaseMillis内的请求数，只在持有锁时调用
+         */
+        private int leaseSize(long now, double permitsPerSecond) {
+            double elapsedSeconds = Math.max(1e-3, (now - lastLease) / 1e9);
+            double sample = requests / elapsedSeconds;
+            ratePerSecond = ratePerSecond == 0 ? sample : ratePerSecond * 0.5 + sample * 0.5;
+            requests = 0;
+            lastLease = now;
+            double expected = Math.min(ratePerSecond, permitsPerSecond) * properties.getLeaseMillis() / 1000;
+            return (int) Math.max(1, Math.min(maxLeaseSize(), Math.ceil(expected)));
+        }
+
+        private int maxLeaseSize() {
+            return Math.max(1, (int) (properties.getBurst() * properties.getMaxLeaseRatio()));
+        }
+
+        synchronized boolean idle(long now) {
+            return now - expiresAt >= 0 && now - rejectUntil >= 0;
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.bright.cloudzuul.ratelimit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 网关限流配置[令牌桶]
+ */
+@ConfigurationProperties(prefix = "rate-limit")
+@Component
+public class RateLimitProperties {
+
+    private boolean enabled = false;
+
+    /**
+     * 限流维度：ip按客户端地址，client按请求参数username，route按路由的serviceId
+     */
+    private String keyType = "ip";
+
+    /**
+     * 每秒补充的令牌数
+     */
+    private double permitsPerSecond = 100;
+
+    /**
+     * 桶容量，允许的突发请求数
+     */
+    private int burst = 200;
+
+    /**
+     * 按路由覆盖permitsPerSecond，key为serviceId
+     */
+    private Map<String, Double> routePermitsPerSecond = new HashMap<String, Double>();
+
+    /**
+     * 每次从redis租用令牌时覆盖的时间[ms]，租用数量 = 本节点该key的请求速率 × leaseMillis
+     */
+    private long leaseMillis = 100;
+
+    /**
+     * 单次租用的最大令牌数占burst的比例，限制多个节点同时持有未用完的令牌造成的误差
+     */
+    private double maxLeaseRatio = 0.1;
+
+    /**
+     * 租用的令牌在本地的有效期[ms]，过期未用完的直接丢弃
+     */
+    private long leaseTtlMillis = 1000;
+
+    private String redisKeyPrefix = "zuul:rate-limit:";
+
+    /**
+     * 本地最多保留的key数量，超过时清除空闲的key
+     */
+    private int maxKeys = 10000;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getKeyType() {
+        return keyType;
+    }
+
+    public void setKeyType(String keyType) {
+        this.keyType = keyType;
+    }
+
+    public double getPermitsPerSecond() {
+        return permitsPerSecond;
+    }
+
+    public void setPermitsPerSecond(double permitsPerSecond) {
+        this.permitsPerSecond = permitsPerSecond;
+    }
+
+    public int getBurst() {
+        return burst;
+    }
+
+    public void setBurst(int burst) {
+        this.burst = burst;
+    }
+
+    public Map<String, Double> getRoutePermitsPerSecond() {
+        return routePermitsPerSecond;
+    }
+
+    public void setRoutePermitsPerSecond(Map<String, Double> routePermitsPerSecond) {
+        this.routePermitsPerSecond = routePermitsPerSecond;
+    }
+
+    public long getLeaseMillis() {
+        return leaseMillis;
+    }
+
+    public void setLeaseMillis(long leaseMillis) {
+        this.leaseMillis = leaseMillis;
+    }
+
+    public double getMaxLeaseRatio() {
+        return maxLeaseRatio;
+    }
+
+    public void setMaxLeaseRatio(double maxLeaseRatio) {
+        this.maxLeaseRatio = maxLeaseRatio;
+    }
+
+    public long getLeaseTtlMillis() {
+        return leaseTtlMillis;
+    }
+
+    public void setLeaseTtlMillis(long leaseTtlMillis) {
+        this.leaseTtlMillis = leaseTtlMillis;
+    }
+
+    public String getRedisKeyPrefix() {
+        return redisKeyPrefix;
+    }
+
+    public void setRedisKeyPrefix(String redisKeyPrefix) {
+        this.redisKeyPrefix = redisKeyPrefix;
+    }
+
+    public int getMaxKeys() {
+        return maxKeys;
+    }
+
+    public void setMaxKeys(int maxKeys) {
+        this.maxKeys = maxKeys;
+    }
+}
@@ -0,0 +1,57 @@
+package com.bright.cloudzuul.ratelimit;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * 在redis中原子地补充令牌桶并租出最多requested个令牌
+ * 时间取redis的TIME，各网关节点的时钟偏差不影响补充速率
+ *
+ * KEYS[1] 令牌桶 ARGV[1] 每秒补充的令牌数 ARGV[2] 桶容量 ARGV[3] 请求租用的数量
+ * 返回实际租出的数量，桶为空时返回0
+ */
+final class TokenLeaseScript {
+
+    static final String SCRIPT =
+            "if redis.replicate_commands then redis.replicate_commands() end\n"
+                    + "local t = redis.call('TIME')\n"
+                    + "local now = tonumber(t[1]) * 1000 + math.floor(tonumber(t[2]) / 1000)\n"
+                    + "local rate = tonumber(ARGV[1])\n"
+                    + "local burst = tonumber(ARGV[2])\n"
+                    + "local requested = tonumber(ARGV[3])\n"
+                    + "local bucket = redis.call('HMGET', KEYS[1], 'tokens', 'ts')\n"
+                    + "local tokens = tonumber(bucket[1])\n"
+                    + "local ts = tonumber(bucket[2])\n"
+                    + "if tokens == nil or ts == nil then\n"
+                    + "  tokens = burst\n"
+                    + "  ts = now\n"
+                    + "end\n"
+                    + "if now > ts then\n"
+                    + "  tokens = math.min(burst, tokens + (now - ts) * rate / 1000)\n"
+                    + "  ts = now\n"
+                    + "end\n"
+                    + "local granted = math.min(requested, math.floor(tokens))\n"
+                    + "tokens = tokens - granted\n"
+                    + "redis.call('HMSET', KEYS[1], 'tokens', tostring(tokens), 'ts', tostring(ts))\n"
+                    + "redis.call('PEXPIRE', KEYS[1], math.ceil(burst * 1000 / rate) + 1000)\n"
+                    + "return granted\n";
+
+    static final String SHA = sha1(SCRIPT);
+
+    private TokenLeaseScript() {
+    }
+
+    private static String sha1(String script) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-1").digest(script.getBytes(StandardCharsets.UTF_8));
+            StringBuilder sb = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return sb.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.bright.cloudzuul.redis;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.stereotype.Component;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.JedisPoolConfig;
+import redis.clients.jedis.JedisPubSub;
+import redis.clients.jedis.exceptions.JedisDataException;
+
+import java.util.List;
+
+/**
+ * 网关使用的redis客户端，只包含网关用到的命令，用法与cloud-consumer的RedisManager一致：
+ * 命令出错时记录日志并返回null，由调用方决定如何处理
+ */
+@ConfigurationProperties(prefix = "redis.manager")
+@Component
+public class RedisManager {
+    private static final Logger logger = LoggerFactory.getLogger(RedisManager.class);
+    private int maxActive = 8;
+    private int maxIdle = 8;
+    private int maxWait = 10000;
+    private int timeOut = 10000;
+    private boolean testOnBorrow = true;
+    private String host = "127.0.0.1";
+    private int port = 6379;
+    private String auth;
+    private int db = 0;
+
+    public void setMaxActive(int maxActive) {
+        this.maxActive = maxActive;
+    }
+
+    public void setMaxIdle(int maxIdle) {
+        this.maxIdle = maxIdle;
+    }
+
+    public void setMaxWait(int maxWait) {
+        this.maxWait = maxWait;
+    }
+
+    public void setTimeOut(int timeOut) {
+        this.timeOut = timeOut;
+    }
+
+    public void setTestOnBorrow(boolean testOnBorrow) {
+        this.testOnBorrow = testOnBorrow;
+    }
+
+    public void setHost(String host) {
+        this.host = host;
+    }
+
+    public void setPort(int port) {
+        this.port = port;
+    }
+
+    public void setAuth(String auth) {
+        this.auth = auth;
+    }
+
+    public void setDb(int db) {
+        this.db = db;
+    }
+
+    private JedisPool jedisPool = null;
+
+    @Bean
+    protected JedisPool init() {
+        JedisPoolConfig config = new JedisPoolConfig();
+        config.setMaxTotal(maxActive);
+        config.setMaxIdle(maxIdle);
+        config.setMaxWaitMillis(maxWait);
+        config.setTestOnBorrow(testOnBorrow);
+
+        if (auth != null && !"".equals(auth)) {
+            jedisPool = new JedisPool(config, host, port, timeOut, auth, db);
+        } else {
+            jedisPool = new JedisPool(config, host, port, timeOut);
+        }
+        return jedisPool;
+    }
+
+    /**
+     * 释放jedis资源，连接已损坏时由连接池丢弃
+     *
+     * @param jedis
+     */
+    private void returnResource(final Jedis jedis) {
+        if (jedis != null) {
+            jedis.close();
+        }
+    }
+
+    public Boolean sismember(String key, String member) {
+        Long start = System.currentTimeMillis();
+        Jedis sj = null;
+        try {
+            sj = jedisPool.getResource();
+            Boolean v = sj.sismember(key, member);
+            Long end = System.currentTimeMillis();
+            Long time = end - start;
+            if (time > 500) {
+                logger.warn("ip:{} port:{} command：sismember key:{} execution time:{}ms", this.host, this.port, key, time);
+            }
+            return v;
+        } catch (Exception e) {
+            logger.error("command：sismember key:{} ex={}", key, e.toString());
+        } finally {
+            if (sj != null) {
+                returnResource(sj);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 按sha执行脚本，redis中没有该脚本[NOSCRIPT]时发送脚本内容执行，执行后redis会缓存脚本
+     *
+     * @param sha    脚本内容的SHA-1
+     * @param script 脚本内容
+     * @return 脚本返回值，出错时返回null
+     */
+    public Object evalScript(String sha, String script, List<String> keys, List<String> args) {
+        Long start = System.currentTimeMillis();
+        Jedis sj = null;
+        try {
+            sj = jedisPool.getResource();
+            Object v;
+            try {
+                v = sj.evalsha(sha, keys, args);
+            } catch (JedisDataException e) {
+                if (e.getMessage() == null || !e.getMessage().startsWith("NOSCRIPT")) {
+                    throw e;
+                }
+                v = sj.eval(script, keys, args);
+            }
+            Long end = System.currentTimeMillis();
+            Long time = end - start;
+            if (time > 500) {
+                logger.warn("ip:{} port:{} command：evalsha key:{} execution time:{}ms", this.host, this.port, keys, time);
+            }
+            return v;
+        } catch (Exception e) {
+            logger.error("command：evalsha key:{} ex={}", keys, e.toString());
+        } finally {
+            if (sj != null) {
+                returnResource(sj);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 阻塞直到取消订阅或连接断开
+     */
+    public void subscribe(JedisPubSub pubSub, String... channels) {
+        Jedis sj = null;
+        try {
+            sj = jedisPool.getResource();
+            sj.subscribe(pubSub, channels);
+        } catch (Exception e) {
+            logger.error("command：subscribe channels:{} ex={}", channels, e.toString());
+        } finally {
+            if (sj != null) {
+                returnResource(sj);
+            }
+        }
+    }
+
+    public Long publish(String channel, String msg) {
+        Long start = System.currentTimeMillis();
+        Jedis sj = null;
+        try {
+            sj = jedisPool.getResource();
+            Long re = sj.publish(channel, msg);
+            Long end = System.currentTimeMillis();
+            Long time = end - start;
+            if (time > 500) {
+                logger.warn("ip:{} port:{} command：publish key:{} execution time:{}ms", this.host, this.port, channel, time);
+            }
+            return re;
+        } catch (Exception e) {
+            logger.error("command：publish channels:{} ex={}", channel, e.toString());
+        } finally {
+            if (sj != null) {
+                returnResource(sj);
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,61 @@
+package com.bright.cloudzuul.ribbon;
+
+/**
+ * 单个实例的Peak-EWMA耗时
+ * 新的耗时高于当前值时直接取新值[对变慢立即反应]，低于当前值时按时间加权平滑；
+ * 长时间没有新样本时逐渐衰减到0，被冷落的实例恢复后能重新分到流量
+ */
+class PeakEwma {
+
+    private final double decayNanos;
+
+    private double ewmaMillis;
+
+    private long lastUpdate;
+
+    private long lastCount;
+
+    private double lastSum;
+
+    PeakEwma(long decayMillis, long now) {
+        this.decayNanos = decayMillis * 1000000D;
+        this.lastUpdate = now;
+    }
+
+    /**
+     * 由ServerStats的累计请求数和平均耗时算出上次观测以来的平均耗时，作为新样本
+     */
+    synchronized void observe(long count, double avgMillis, long now) {
+        double sum = avgMillis * count;
+        if (count < lastCount) {
+            //统计被重置
+            lastCount = count;
+            lastSum = sum;
+            return;
+        }
+        if (count == lastCount) {
+            return;
+        }
+        double sample = Math.max(0D, (sum - lastSum) / (count - lastCount));
+        lastCount = count;
+        lastSum = sum;
+        if (sample > ewmaMillis) {
+            ewmaMillis = sample;
+        } else {
+            double w = weight(now);
+            ewmaMillis = ewmaMillis * w + sample * (1 - w);
+        }
+        lastUpdate = now;
+    }
+
+    /**
+     * @return 按距离上次样本的时间衰减后的耗时[ms]
+     */
+    synchronized double get(long now) {
+        return ewmaMillis * weight(now);
+    }
+
+    private double weight(long now) {
+        return Math.exp(-Math.max(0L, now - lastUpdate) / decayNanos);
+    }
+}
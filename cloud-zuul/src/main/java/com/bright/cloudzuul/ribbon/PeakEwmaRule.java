@@ -0,0 +1,95 @@
+package com.bright.cloudzuul.ribbon;
+
+import com.netflix.client.config.CommonClientConfigKey;
+import com.netflix.client.config.IClientConfig;
+import com.netflix.loadbalancer.AbstractLoadBalancer;
+import com.netflix.loadbalancer.AbstractLoadBalancerRule;
+import com.netflix.loadbalancer.ILoadBalancer;
+import com.netflix.loadbalancer.LoadBalancerStats;
+import com.netflix.loadbalancer.Server;
+import com.netflix.loadbalancer.ServerStats;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Peak-EWMA负载均衡规则
+ * 随机取两个可用实例[power of two choices]，选择 耗时EWMA × (进行中请求数 + 1) 较小的一个；
+ * 耗时和进行中请求数取自Ribbon的ServerStats，GC停顿或过载的实例会很快少分流量
+ *
+ * 配置：
+ *  {serviceId}.ribbon.NFLoadBalancerRuleClassName=com.bright.cloudzuul.ribbon.PeakEwmaRule
+ *  {serviceId}.ribbon.PeakEwmaDecayMillis=10000 没有新样本时耗时衰减的时间常数[ms]
+ */
+public class PeakEwmaRule extends AbstractLoadBalancerRule {
+
+    private static final long DEFAULT_DECAY_MILLIS = 10000;
+
+    private long decayMillis = DEFAULT_DECAY_MILLIS;
+
+    private final ConcurrentMap<String, PeakEwma> ewmas = new ConcurrentHashMap<String, PeakEwma>();
+
+    @Override
+    public void initWithNiwsConfig(IClientConfig clientConfig) {
+        decayMillis = clientConfig.getPropertyAsInteger(
+                CommonClientConfigKey.valueOf("PeakEwmaDecayMillis"), (int) DEFAULT_DECAY_MILLIS);
+    }
+
+    @Override
+    public Server choose(Object key) {
+        ILoadBalancer lb = getLoadBalancer();
+        if (lb == null) {
+            return null;
+        }
+        List<Server> servers = lb.getReachableServers();
+        int size = servers.size();
+        if (size == 0) {
+            return null;
+        }
+        if (size == 1) {
+            return servers.get(0);
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int i = random.nextInt(size);
+        int j = random.nextInt(size - 1);
+        if (j >= i) {
+            j++;
+        }
+        Server a = servers.get(i);
+        Server b = servers.get(j);
+        LoadBalancerStats stats = lb instanceof AbstractLoadBalancer ? ((AbstractLoadBalancer) lb).getLoadBalancerStats() : null;
+        if (stats == null) {
+            return a;
+        }
+        prune(lb);
+        long now = System.nanoTime();
+        return cost(stats, a, now) <= cost(stats, b, now) ? a : b;
+    }
+
+    /**
+     * 记录的实例多于当前实例时，移除已经下线的实例，避免实例轮换后ewmas无限增长
+     */
+    private void prune(ILoadBalancer lb) {
+        List<Server> all = lb.getAllServers();
+        if (ewmas.size() <= all.size()) {
+            return;
+        }
+        Set<String> ids = new HashSet<String>(all.size() * 2);
+        for (Server server : all) {
+            ids.add(server.getId());
+        }
+        ewmas.keySet().retainAll(ids);
+    }
+
+    private double cost(LoadBalancerStats stats, Server server, long now) {
+        ServerStats ss = stats.getSingleServerStat(server);
+        PeakEwma ewma = ewmas.computeIfAbsent(server.getId(), id -> new PeakEwma(decayMillis, now));
+        ewma.observe(ss.getTotalRequestsCount(), ss.getResponseTimeAvg(), now);
+        //加1ms，还没有耗时样本的实例之间按进行中请求数比较
+        return (ewma.get(now) + 1D) * (ss.getActiveRequestsCount() + 1);
+    }
+}
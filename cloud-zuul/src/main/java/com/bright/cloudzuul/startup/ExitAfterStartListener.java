@@ -0,0 +1,25 @@
+package com.bright.cloudzuul.startup;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * 启动完成后立即退出，用于构建时生成CDS归档[mvn package -Pcds]
+ * 启动过程中加载的类由-XX:DumpLoadedClassList写入类列表，再用于生成归档
+ */
+@Component
+public class ExitAfterStartListener implements ApplicationListener<ApplicationReadyEvent> {
+
+    @Value("${fast-startup.exit-after-start:false}")
+    private boolean exitAfterStart;
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        if (exitAfterStart) {
+            System.exit(SpringApplication.exit(event.getApplicationContext()));
+        }
+    }
+}
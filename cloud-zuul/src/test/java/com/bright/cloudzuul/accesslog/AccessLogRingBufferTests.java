@@ -0,0 +1,132 @@
+package com.bright.cloudzuul.accesslog;
+
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class AccessLogRingBufferTests {
+
+	@Test
+	public void drainsInOfferOrder() {
+		AccessLogRingBuffer buffer = new AccessLogRingBuffer(8);
+		for (int i = 0; i < 5; i++) {
+			assertTrue(offer(buffer, i));
+		}
+		List<Long> timestamps = new ArrayList<Long>();
+		assertEquals(5, buffer.drain((data, offset) -> timestamps.add(AccessLogRecord.timestamp(data, offset)), 100));
+		assertEquals(5, timestamps.size());
+		for (int i = 0; i < 5; i++) {
+			assertEquals(i, (long) timestamps.get(i));
+		}
+		assertEquals(0, buffer.drain((data, offset) -> {
+		}, 100));
+	}
+
+	@Test
+	public void capacityIsRoundedUpToPowerOfTwo() {
+		AccessLogRingBuffer buffer = new AccessLogRingBuffer(5);
+		for (int i = 0; i < 8; i++) {
+			assertTrue(offer(buffer, i));
+		}
+		assertFalse(offer(buffer, 8));
+	}
+
+	@Test
+	public void dropsWhenFullAndReusesSlotsAfterDrain() {
+		AccessLogRingBuffer buffer = new AccessLogRingBuffer(4);
+		for (int i = 0; i < 4; i++) {
+			assertTrue(offer(buffer, i));
+		}
+		assertFalse(offer(buffer, 4));
+		assertFalse(offer(buffer, 5));
+		assertEquals(2, buffer.dropped());
+
+		List<Long> timestamps = new ArrayList<Long>();
+		assertEquals(2, buffer.drain((data, offset) -> timestamps.add(AccessLogRecord.timestamp(data, offset)), 2));
+		assertTrue(offer(buffer, 6));
+		assertTrue(offer(buffer, 7));
+		assertFalse(offer(buffer, 8));
+		assertEquals(4, buffer.drain((data, offset) -> timestamps.add(AccessLogRecord.timestamp(data, offset)), 100));
+
+		long[] expected = {0, 1, 2, 3, 6, 7};
+		assertEquals(expected.length, timestamps.size());
+		for (int i = 0; i < expected.length; i++) {
+			assertEquals(expected[i], (long) timestamps.get(i));
+		}
+		assertEquals(3, buffer.dropped());
+	}
+
+	@Test
+	public void encodesRecordFields() {
+		AccessLogRingBuffer buffer = new AccessLogRingBuffer(2);
+		StringBuilder uri = new StringBuilder("/provider/");
+		while (uri.length() < 200) {
+			uri.append('x');
+		}
+		assertTrue(buffer.offer(1539907200123L, 1500, 503, "GET", "10.0.0.1", "prövider", uri.toString()));
+		buffer.drain((data, offset) -> {
+			assertEquals(1539907200123L, AccessLogRecord.timestamp(data, offset));
+			assertEquals(1500, AccessLogRecord.duration(data, offset));
+			assertEquals(503, AccessLogRecord.status(data, offset));
+			assertEquals("GET", string(data, offset, AccessLogRecord.METHOD));
+			assertEquals("10.0.0.1", string(data, offset, AccessLogRecord.ADDRESS));
+			assertEquals("pr?vider", string(data, offset, AccessLogRecord.ROUTE));
+			assertEquals(uri.substring(0, AccessLogRecord.URI_MAX), string(data, offset, AccessLogRecord.URI));
+		}, 1);
+	}
+
+	@Test
+	public void concurrentProducersLoseNothingBelowCapacity() throws InterruptedException {
+		int producers = 4;
+		int perProducer = 1000;
+		AccessLogRingBuffer buffer = new AccessLogRingBuffer(producers * perProducer);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Thread> threads = new ArrayList<Thread>();
+		for (int p = 0; p < producers; p++) {
+			int producer = p;
+			Thread thread = new Thread(() -> {
+				try {
+					start.await();
+				} catch (InterruptedException e) {
+					return;
+				}
+				for (int i = 0; i < perProducer; i++) {
+					buffer.offer(producer * perProducer + i, 0, 200, "GET", null, null, null);
+				}
+			});
+			thread.start();
+			threads.add(thread);
+		}
+		boolean[] seen = new boolean[producers * perProducer];
+		int[] count = new int[1];
+		start.countDown();
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		buffer.drain((data, offset) -> {
+			seen[(int) AccessLogRecord.timestamp(data, offset)] = true;
+			count[0]++;
+		}, Integer.MAX_VALUE);
+
+		assertEquals(producers * perProducer, count[0]);
+		for (boolean s : seen) {
+			assertTrue(s);
+		}
+		assertEquals(0, buffer.dropped());
+	}
+
+	private static boolean offer(AccessLogRingBuffer buffer, long timestamp) {
+		return buffer.offer(timestamp, 0, 200, "GET", "127.0.0.1", "provider", "/info");
+	}
+
+	private static String string(byte[] data, int offset, int field) {
+		return new String(data, offset + field + 1, AccessLogRecord.length(data, offset, field), StandardCharsets.US_ASCII);
+	}
+}
@@ -0,0 +1,125 @@
+package com.bright.cloudzuul.cache;
+
+import com.netflix.util.Pair;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class OffHeapResponseCacheTests {
+
+	private static final List<Pair<String, String>> HEADERS =
+			Collections.singletonList(new Pair<String, String>("Content-Type", "application/json"));
+
+	private MeterRegistry meterRegistry;
+
+	private OffHeapResponseCache cache;
+
+	@Before
+	public void setUp() {
+		ResponseCacheProperties properties = new ResponseCacheProperties();
+		properties.setMaxMemory(2048);
+		properties.setPageSize(1024);
+		properties.setMinChunkSize(64);
+		properties.setGrowthFactor(2.0);
+		properties.getRouteTtlMillis().put("provider", 1000L);
+		meterRegistry = new SimpleMeterRegistry();
+		cache = new OffHeapResponseCache();
+		ReflectionTestUtils.setField(cache, "properties", properties);
+		ReflectionTestUtils.setField(cache, "meterRegistry", meterRegistry);
+		cache.init();
+	}
+
+	@Test
+	public void putAndGet() {
+		byte[] body = body(100, (byte) 1);
+		cache.put("a", 200, HEADERS, body, true, 1000);
+		CachedResponse response = cache.get("a");
+		assertNotNull(response);
+		assertEquals(200, response.getStatus());
+		assertEquals(HEADERS, response.getHeaders());
+		assertArrayEquals(body, response.getBody());
+		assertTrue(response.isGzipped());
+		assertNull(cache.get("b"));
+	}
+
+	@Test
+	public void putReplacesExistingEntry() {
+		cache.put("a", 200, HEADERS, body(100, (byte) 1), false, 1000);
+		cache.put("a", 200, HEADERS, body(10, (byte) 2), false, 1000);
+		assertArrayEquals(body(10, (byte) 2), cache.get("a").getBody());
+		assertEquals(1, gauge("response.cache.entries"), 0);
+	}
+
+	@Test
+	public void expiredEntryIsRemoved() throws InterruptedException {
+		cache.put("a", 200, HEADERS, body(100, (byte) 1), false, 1);
+		Thread.sleep(5);
+		assertNull(cache.get("a"));
+		assertEquals(0, gauge("response.cache.entries"), 0);
+	}
+
+	@Test
+	public void notCachedWithoutTtlOrWhenLargerThanPage() {
+		cache.put("a", 200, HEADERS, body(100, (byte) 1), false, 0);
+		cache.put("b", 200, HEADERS, body(1025, (byte) 1), false, 1000);
+		assertNull(cache.get("a"));
+		assertNull(cache.get("b"));
+		assertEquals(1024, cache.maxBodySize());
+	}
+
+	@Test
+	public void evictsLeastRecentlyUsedOfSameClassWhenFull() {
+		cache.put("a", 200, HEADERS, body(1000, (byte) 1), false, 1000);
+		cache.put("b", 200, HEADERS, body(1000, (byte) 2), false, 1000);
+		//a最近访问，淘汰b
+		assertNotNull(cache.get("a"));
+		cache.put("c", 200, HEADERS, body(1000, (byte) 3), false, 1000);
+
+		assertNull(cache.get("b"));
+		assertArrayEquals(body(1000, (byte) 1), cache.get("a").getBody());
+		assertArrayEquals(body(1000, (byte) 3), cache.get("c").getBody());
+		assertEquals(1, meterRegistry.get("response.cache.evictions").counter().count(), 0);
+		assertEquals(2048, gauge("response.cache.memory"), 0);
+	}
+
+	@Test
+	public void otherClassIsNotCachedOnceMemoryIsAssigned() {
+		cache.put("a", 200, HEADERS, body(1000, (byte) 1), false, 1000);
+		cache.put("b", 200, HEADERS, body(1000, (byte) 2), false, 1000);
+		cache.put("c", 200, HEADERS, body(10, (byte) 3), false, 1000);
+
+		assertNull(cache.get("c"));
+		assertNotNull(cache.get("a"));
+		assertNotNull(cache.get("b"));
+		assertEquals(0, meterRegistry.get("response.cache.evictions").counter().count(), 0);
+	}
+
+	@Test
+	public void ttlByRoute() {
+		assertEquals(1000, cache.ttlMillis("provider"));
+		assertEquals(0, cache.ttlMillis("consumer"));
+		assertEquals(0, cache.ttlMillis(null));
+	}
+
+	private double gauge(String name) {
+		return meterRegistry.get(name).gauge().value();
+	}
+
+	private static byte[] body(int length, byte value) {
+		byte[] body = new byte[length];
+		Arrays.fill(body, value);
+		return body;
+	}
+}
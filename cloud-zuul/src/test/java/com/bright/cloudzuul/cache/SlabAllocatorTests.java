@@ -0,0 +1,91 @@
+package com.bright.cloudzuul.cache;
+
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SlabAllocatorTests {
+
+	/**
+	 * 两页，块大小级别 64、128、256、512、1024
+	 */
+	private SlabAllocator allocator() {
+		return new SlabAllocator(2048, 1024, 64, 2.0);
+	}
+
+	@Test
+	public void classSizing() {
+		SlabAllocator allocator = allocator();
+		assertEquals(0, allocator.classOf(1));
+		assertEquals(0, allocator.classOf(64));
+		assertEquals(1, allocator.classOf(65));
+		assertEquals(3, allocator.classOf(512));
+		assertEquals(4, allocator.classOf(1024));
+		assertEquals(-1, allocator.classOf(1025));
+		assertEquals(64, allocator.chunkSize(0));
+		assertEquals(1024, allocator.chunkSize(4));
+	}
+
+	@Test
+	public void chunkSizesAreAlignedAndIncreasing() {
+		SlabAllocator allocator = new SlabAllocator(4096, 1024, 50, 1.25);
+		int last = 0;
+		for (int c = 0; c <= allocator.classOf(1024); c++) {
+			int size = allocator.chunkSize(c);
+			assertEquals(0, size % 8);
+			assertTrue(size > last);
+			last = size;
+		}
+		assertEquals(1024, last);
+	}
+
+	@Test
+	public void writeAndReadDistinctChunks() {
+		SlabAllocator allocator = allocator();
+		Set<Integer> refs = new HashSet<Integer>();
+		for (int i = 0; i < 16; i++) {
+			int ref = allocator.allocate(0);
+			assertTrue(ref >= 0);
+			assertTrue(refs.add(ref));
+			allocator.write(ref, ("chunk-" + ref).getBytes(StandardCharsets.UTF_8));
+		}
+		//16块64字节正好一页
+		assertEquals(1024, allocator.allocatedBytes());
+		for (int ref : refs) {
+			byte[] expected = ("chunk-" + ref).getBytes(StandardCharsets.UTF_8);
+			assertArrayEquals(expected, allocator.read(ref, expected.length));
+		}
+	}
+
+	@Test
+	public void freedChunkIsReused() {
+		SlabAllocator allocator = allocator();
+		int ref = allocator.allocate(1);
+		allocator.allocate(1);
+		allocator.free(ref);
+		assertEquals(ref, allocator.allocate(1));
+		assertEquals(1024, allocator.allocatedBytes());
+	}
+
+	@Test
+	public void allocateFailsWhenMemoryIsExhausted() {
+		SlabAllocator allocator = allocator();
+		int first = allocator.allocate(4);
+		int second = allocator.allocate(4);
+		assertTrue(first >= 0 && second >= 0);
+		assertEquals(2048, allocator.allocatedBytes());
+		assertEquals(-1, allocator.allocate(4));
+		//页已分配给其他级别
+		assertEquals(-1, allocator.allocate(0));
+
+		allocator.free(second);
+		assertEquals(second, allocator.allocate(4));
+		assertEquals(2048, allocator.allocatedBytes());
+	}
+}
@@ -0,0 +1,71 @@
+package com.bright.cloudzuul.ratelimit;
+
+import com.bright.cloudzuul.redis.RedisManager;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class LeasedRateLimiterTests {
+
+	private static final String KEY = "ip:127.0.0.1";
+
+	private final BlockingRedis redis = new BlockingRedis();
+
+	private LeasedRateLimiter limiter;
+
+	@Before
+	public void setUp() {
+		RateLimitProperties properties = new RateLimitProperties();
+		properties.setBurst(100);
+		properties.setMaxLeaseRatio(0.1);
+		limiter = new LeasedRateLimiter();
+		ReflectionTestUtils.setField(limiter, "properties", properties);
+		ReflectionTestUtils.setField(limiter, "redisManager", redis);
+		ReflectionTestUtils.setField(limiter, "meterRegistry", new SimpleMeterRegistry());
+		limiter.init();
+	}
+
+	@Test
+	public void borrowingDuringFirstLeaseIsCappedAtMaxLeaseSize() throws Exception {
+		CompletableFuture<Boolean> leasing = CompletableFuture.supplyAsync(() -> limiter.tryAcquire(KEY, 1000));
+		assertTrue(redis.entered.await(1, TimeUnit.SECONDS));
+		int admitted = 0;
+		for (int i = 0; i < 50; i++) {
+			if (limiter.tryAcquire(KEY, 1000)) {
+				admitted++;
+			}
+		}
+		assertEquals(10, admitted);
+		redis.release.countDown();
+		assertFalse(leasing.get(1, TimeUnit.SECONDS));
+	}
+
+	/**
+	 * 第一次租用阻塞到release，返回0[桶为空]
+	 */
+	private static class BlockingRedis extends RedisManager {
+		final CountDownLatch entered = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+
+		@Override
+		public Object evalScript(String sha, String script, List<String> keys, List<String> args) {
+			entered.countDown();
+			try {
+				release.await(1, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return 0L;
+		}
+	}
+}